@@ -0,0 +1,239 @@
+package finam.client.component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый JSON-декодер поверх неблокирующего парсера Jackson.
+ * Байты ответа подаются в парсер по мере поступления {@link DataBuffer}, без промежуточной строки
+ * и повторного разбора. Элементы массива из заданного поля корневого объекта выдаются по одному,
+ * так что в памяти одновременно находится только текущий элемент.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class JsonStreamDecoder {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Декодирует элементы массива из поля корневого JSON-объекта, например {"assets": [...]}.
+     * Остальные поля корневого объекта пропускаются.
+     *
+     * @param body        поток буферов тела ответа
+     * @param fieldName   имя поля корневого объекта, содержащего массив
+     * @param elementType тип элемента массива
+     * @return поток элементов массива
+     */
+    public <T> Flux<T> decodeArrayField(Flux<DataBuffer> body, String fieldName, Class<T> elementType) {
+        return Flux.defer(() -> {
+            ArrayFieldTokenizer<T> tokenizer = new ArrayFieldTokenizer<>(createParser(), fieldName, elementType);
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Mono.fromCallable(tokenizer::endOfInput).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * Декодирует JSON-документ целиком в объект указанного типа за один проход парсера.
+     *
+     * @param body поток буферов тела ответа
+     * @param type тип результирующего объекта
+     * @return декодированный объект
+     */
+    public <T> Mono<T> decode(Flux<DataBuffer> body, Class<T> type) {
+        return Mono.defer(() -> {
+            DocumentTokenizer<T> tokenizer = new DocumentTokenizer<>(createParser(), type);
+            return body.doOnNext(tokenizer::feed)
+                    .then(Mono.fromCallable(tokenizer::endOfInput));
+        });
+    }
+
+    private JsonParser createParser() {
+        try {
+            return objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new DecodingException("Failed to create non-blocking JSON parser", e);
+        }
+    }
+
+    private static byte[] readAndRelease(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Базовый токенизатор: подаёт байты в неблокирующий парсер и перебирает доступные токены.
+     */
+    private abstract class Tokenizer {
+
+        protected final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        Tokenizer(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        protected void feedBytes(DataBuffer buffer) {
+            byte[] bytes = readAndRelease(buffer);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+            drainTokens();
+        }
+
+        protected void finishInput() {
+            feeder.endOfInput();
+            drainTokens();
+        }
+
+        private void drainTokens() {
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                    onToken(token);
+                }
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+        }
+
+        protected abstract void onToken(JsonToken token) throws IOException;
+    }
+
+    /**
+     * Токенизатор элементов массива из поля корневого объекта.
+     * Токены текущего элемента копируются в {@link TokenBuffer}, который десериализуется, как только элемент закрыт.
+     */
+    private final class ArrayFieldTokenizer<T> extends Tokenizer {
+
+        private static final int ROOT_DEPTH = 1;
+        private static final int ELEMENT_DEPTH = 2;
+
+        private final String fieldName;
+        private final Class<T> elementType;
+
+        private final List<T> ready = new ArrayList<>();
+        private int depth;
+        private boolean fieldMatched;
+        private boolean insideArray;
+        private TokenBuffer element;
+
+        ArrayFieldTokenizer(JsonParser parser, String fieldName, Class<T> elementType) {
+            super(parser);
+            this.fieldName = fieldName;
+            this.elementType = elementType;
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            ready.clear();
+            feedBytes(buffer);
+            return new ArrayList<>(ready);
+        }
+
+        Object endOfInput() {
+            finishInput();
+            if (depth != 0 || element != null) {
+                throw new DecodingException("Unexpected end of JSON input");
+            }
+            return Boolean.TRUE;
+        }
+
+        @Override
+        protected void onToken(JsonToken token) throws IOException {
+            if (insideArray) {
+                onArrayToken(token);
+                return;
+            }
+
+            if (token.isStructStart()) {
+                depth++;
+                if (fieldMatched && token == JsonToken.START_ARRAY && depth == ELEMENT_DEPTH) {
+                    insideArray = true;
+                }
+                fieldMatched = false;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token == JsonToken.FIELD_NAME) {
+                fieldMatched = depth == ROOT_DEPTH && fieldName.equals(parser.currentName());
+            } else {
+                fieldMatched = false;
+            }
+        }
+
+        private void onArrayToken(JsonToken token) throws IOException {
+            if (element == null) {
+                if (token == JsonToken.END_ARRAY) {
+                    insideArray = false;
+                    depth--;
+                    return;
+                }
+                element = new TokenBuffer(parser);
+            }
+
+            element.copyCurrentEvent(parser);
+
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+
+            if (depth == ELEMENT_DEPTH) {
+                ready.add(objectMapper.readValue(element.asParser(objectMapper), elementType));
+                element = null;
+            }
+        }
+    }
+
+    /**
+     * Токенизатор документа целиком: все токены копируются в {@link TokenBuffer} и десериализуются по окончании ввода.
+     */
+    private final class DocumentTokenizer<T> extends Tokenizer {
+
+        private final Class<T> type;
+        private final TokenBuffer document;
+
+        DocumentTokenizer(JsonParser parser, Class<T> type) {
+            super(parser);
+            this.type = type;
+            this.document = new TokenBuffer(parser);
+        }
+
+        void feed(DataBuffer buffer) {
+            feedBytes(buffer);
+        }
+
+        T endOfInput() throws IOException {
+            finishInput();
+            return objectMapper.readValue(document.asParser(objectMapper), type);
+        }
+
+        @Override
+        protected void onToken(JsonToken token) throws IOException {
+            document.copyCurrentEvent(parser);
+        }
+    }
+}
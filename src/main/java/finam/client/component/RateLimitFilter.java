@@ -0,0 +1,178 @@
+package finam.client.component;
+
+import finam.client.dto.RateLimitStatsDTO;
+import finam.client.enums.EndpointClassEnum;
+import finam.client.util.TokenBucket;
+import io.micrometer.common.lang.NonNullApi;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Фильтр ограничения частоты запросов к внешнему API на стороне клиента.
+ * Каждый класс конечных точек ({@link EndpointClassEnum}) имеет собственную корзину ratelimit.{класс}.rate/burst,
+ * а все запросы вместе ограничены общей корзиной ratelimit.global.rate/burst. Из общей корзины класс может
+ * получить разрешение, только пока в ней остаётся доля ratelimit.{класс}.global.reserve, поэтому при нехватке
+ * лимита запросы рыночных данных ждут, а размещение и отмена ордеров проходят первыми.
+ * Если разрешение не удаётся получить за ratelimit.max.wait.ms, запрос завершается ошибкой 429 без обращения
+ * к внешнему сервису.
+ */
+@Component
+@NonNullApi
+@Slf4j
+public class RateLimitFilter implements ExchangeFilterFunction {
+
+    private final TokenBucket global;
+    private final Map<EndpointClassEnum, Limiter> limiters = new EnumMap<>(EndpointClassEnum.class);
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.max.wait.ms:10000}")
+    private long maxWaitMs;
+
+    public RateLimitFilter(Environment environment) {
+        double globalRate = environment.getProperty("ratelimit.global.rate", Double.class, 100.0);
+        int globalBurst = environment.getProperty("ratelimit.global.burst", Integer.class, 100);
+        this.global = globalRate > 0 ? new TokenBucket(globalRate, globalBurst) : null;
+
+        for (EndpointClassEnum endpointClass : EndpointClassEnum.values()) {
+            String prefix = "ratelimit." + endpointClass.getKey() + ".";
+            double rate = environment.getProperty(prefix + "rate", Double.class, 50.0);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, (int) Math.max(1, rate));
+            double reserve = environment.getProperty(prefix + "global.reserve", Double.class,
+                    0.1 * endpointClass.ordinal());
+            limiters.put(endpointClass, new Limiter(endpointClass, rate, burst, reserve));
+        }
+    }
+
+    /**
+     * Ожидает разрешения для класса конечной точки запроса и передаёт запрос дальше.
+     *
+     * @param request исходный запрос
+     * @param next    следующая стадия обработки запроса
+     * @return ответ внешнего сервиса или ошибка 429, если разрешение не получено вовремя
+     */
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!enabled) {
+            return next.exchange(request);
+        }
+        Limiter limiter = limiters.get(EndpointClassEnum.of(request.method(), request.url().getPath()));
+        long started = System.nanoTime();
+        return acquire(limiter, started + maxWaitMs * 1_000_000)
+                .then(Mono.defer(() -> {
+                    long waited = System.nanoTime() - started;
+                    if (waited > 1_000_000) {
+                        limiter.waitNanos.add(waited);
+                        log.debug("Request {} delayed by client rate limit for {} ms", request.url(), waited / 1_000_000);
+                    }
+                    return next.exchange(request);
+                }));
+    }
+
+    /**
+     * @return состояние ограничителей по классам конечных точек
+     */
+    public List<RateLimitStatsDTO> getStats() {
+        List<RateLimitStatsDTO> stats = new ArrayList<>();
+        limiters.values().forEach(limiter -> stats.add(RateLimitStatsDTO.builder()
+                .endpointClass(limiter.endpointClass)
+                .rate(limiter.rate)
+                .burst(limiter.burst)
+                .globalReserve(limiter.globalReserve)
+                .available(limiter.bucket == null ? -1 : limiter.bucket.available())
+                .acquired(limiter.acquired.sum())
+                .delayed(limiter.delayed.sum())
+                .rejected(limiter.rejected.sum())
+                .totalWaitMs(limiter.waitNanos.sum() / 1_000_000)
+                .build()));
+        return stats;
+    }
+
+    private Mono<Void> acquire(Limiter limiter, long deadline) {
+        return Mono.defer(() -> {
+            long wait = limiter.tryAcquire();
+            if (wait == 0) {
+                limiter.acquired.increment();
+                return Mono.empty();
+            }
+            if (System.nanoTime() + wait > deadline) {
+                limiter.rejected.increment();
+                log.warn("Client rate limit exceeded for {} requests", limiter.endpointClass);
+                return Mono.error(WebClientResponseException.create(HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "Client-side rate limit exceeded", HttpHeaders.EMPTY,
+                        ("Client-side rate limit exceeded for " + limiter.endpointClass).getBytes(StandardCharsets.UTF_8),
+                        StandardCharsets.UTF_8));
+            }
+            limiter.delayed.increment();
+            return Mono.delay(Duration.ofNanos(wait)).then(acquire(limiter, deadline));
+        });
+    }
+
+    /**
+     * Ограничитель одного класса конечных точек и его счётчики.
+     */
+    private final class Limiter {
+
+        private final EndpointClassEnum endpointClass;
+        private final double rate;
+        private final int burst;
+        private final double globalReserve;
+        private final TokenBucket bucket;
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder delayed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        Limiter(EndpointClassEnum endpointClass, double rate, int burst, double globalReserve) {
+            this.endpointClass = endpointClass;
+            this.rate = rate;
+            this.burst = burst;
+            this.globalReserve = globalReserve;
+            this.bucket = rate > 0 ? new TokenBucket(rate, burst) : null;
+        }
+
+        /**
+         * Получение разрешения сначала из общей корзины с учётом резерва, затем из корзины класса.
+         * Если корзина класса пуста, разрешение общей корзины возвращается.
+         *
+         * @return 0, если разрешение получено, иначе рекомендуемое ожидание в наносекундах
+         */
+        long tryAcquire() {
+            if (global != null) {
+                long wait = global.tryAcquire(globalReserve);
+                if (wait > 0) {
+                    return wait;
+                }
+            }
+            if (bucket != null) {
+                long wait = bucket.tryAcquire(0);
+                if (wait > 0) {
+                    if (global != null) {
+                        global.refund();
+                    }
+                    return wait;
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package finam.client.component;
+
+import finam.client.service.ReferenceDataService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Прогрев кэша справочных данных при запуске приложения.
+ * ApplicationRunner выполняется до публикации ApplicationReadyEvent, поэтому проверка готовности
+ * (/actuator/health/readiness) не проходит, пока прогрев не завершится или не истечёт отведённое время.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataWarmup implements ApplicationRunner {
+
+    private final ReferenceDataService referenceDataService;
+
+    @Value("${reference.warmup.timeout.ms:60000}")
+    private long warmupTimeoutMs;
+
+    /**
+     * Запускает прогрев и ожидает его завершения не дольше reference.warmup.timeout.ms.
+     *
+     * @param args аргументы запуска приложения
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            Long loaded = referenceDataService.warmUp().block(Duration.ofMillis(warmupTimeoutMs));
+            log.info("Reference data warm-up completed: {} entries in {} ms",
+                    loaded, System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            log.warn("Reference data warm-up did not complete within {} ms, continuing startup", warmupTimeoutMs, e);
+        }
+    }
+}
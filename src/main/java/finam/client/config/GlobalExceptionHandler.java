@@ -1,10 +1,12 @@
 package finam.client.config;
 
+import finam.client.service.PreTradeRiskService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.nio.charset.StandardCharsets;
 
@@ -26,6 +28,23 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(rawResponse, ex.getStatusCode());
     }
 
+    /**
+     * Обработка ордеров, отклонённых предторговой проверкой рисков.
+     */
+    @ExceptionHandler(PreTradeRiskService.RejectedException.class)
+    public ResponseEntity<String> handlePreTradeRejects(PreTradeRiskService.RejectedException ex) {
+        return new ResponseEntity<>("Ордер отклонён проверкой рисков: " + ex.getMessage(),
+                HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Обработка ошибок с явно заданным HTTP-статусом: некорректные параметры запроса, конфликт состояния и т.п.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> handleResponseStatusErrors(ResponseStatusException ex) {
+        return new ResponseEntity<>(ex.getReason(), ex.getStatusCode());
+    }
+
     /**
      * Обработка общих исключений при ошибочных запросах (например, плохих URI, нехватки параметров и т.п.).
      */
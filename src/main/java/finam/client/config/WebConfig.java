@@ -3,6 +3,7 @@ package finam.client.config;
 import finam.client.component.JwtTokenFilter;
 import finam.client.component.JwtTokenInterceptor;
 import finam.client.component.JwtTokenStore;
+import finam.client.component.RateLimitFilter;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -41,15 +42,18 @@ public class WebConfig {
     /**
      * Создание аутентифицированного WebClient-а, предназначенного для защищённых запросов,
      * использующего JWT-токены для авторизации.
+     * Перед добавлением токена запрос проходит клиентский ограничитель частоты запросов.
      *
-     * @param jwtTokenFilter фильтр обработки JWT-токенов
+     * @param jwtTokenFilter  фильтр обработки JWT-токенов
+     * @param rateLimitFilter фильтр ограничения частоты запросов
      * @return экземпляр WebClient с поддержкой авторизации
      */
     @Bean
     @Qualifier("authenticatedWebClient")
-    public WebClient authenticatedWebClient(JwtTokenFilter jwtTokenFilter) {
+    public WebClient authenticatedWebClient(JwtTokenFilter jwtTokenFilter, RateLimitFilter rateLimitFilter) {
         return WebClient.builder()
                 .baseUrl(baseUrl)
+                .filter(rateLimitFilter)
                 .filter(jwtTokenFilter)
                 .build();
     }
@@ -1,16 +1,31 @@
 package finam.client.controller;
 
+import finam.client.dto.AccountTradeDTO;
+import finam.client.dto.AccountUpdateDTO;
+import finam.client.dto.AggregatePortfolioDTO;
+import finam.client.dto.EquityHistoryDTO;
 import finam.client.dto.GetAccountRequestDTO;
 import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.JournalSyncResultDTO;
+import finam.client.dto.MarkToMarketDTO;
 import finam.client.dto.TradesResponseDTO;
+import finam.client.dto.TransactionDTO;
 import finam.client.dto.TransactionsResponseDTO;
 
+import finam.client.service.AccountJournalService;
 import finam.client.service.AccountService;
+import finam.client.service.AccountWatcherService;
+import finam.client.service.EquityHistoryService;
+import finam.client.service.MarkToMarketService;
+import finam.client.service.PortfolioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -18,7 +33,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 
 /**
  * Контроллер для получения информации о аккаунтах пользователя.
@@ -30,6 +53,11 @@ import reactor.core.publisher.Mono;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountJournalService accountJournalService;
+    private final AccountWatcherService accountWatcherService;
+    private final PortfolioService portfolioService;
+    private final MarkToMarketService markToMarketService;
+    private final EquityHistoryService equityHistoryService;
 
     /**
      * Получение информации о конкретном аккаунте пользователя
@@ -56,6 +84,29 @@ public class AccountController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Получение сводного портфеля по всем счетам пользователя
+     *
+     * @return Сводный портфель в виде ResponseEntity (* ошибки по отдельным счетам перечислены в поле errors)
+     */
+    @Operation(
+            summary = "Сводный портфель по всем счетам",
+            description = """
+                Параллельно запрашивает все счета, доступные токену, и возвращает сводный портфель:
+                суммарную оценку, нереализованную прибыль, денежные средства по валютам и позиции, неттированные по символу.
+                Если отдельный счёт не удалось получить, он указывается в поле errors, а остальные счета включаются в результат.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Сводный портфель успешно возвращён.")
+            }
+    )
+    @GetMapping("/aggregate")
+    public Mono<ResponseEntity<AggregatePortfolioDTO>> getAggregatePortfolio() {
+        return portfolioService.getAggregatePortfolio()
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
     /**
      * Получение списка транзакций по конкретному аккаунту за определенный временной диапазон
      *
@@ -69,10 +120,13 @@ public class AccountController {
             description = """
                 Возвращает историю транзакций по определённому счёту за заданный период времени.
                 Требует передачи идентификатора счета и временных границ (начало и конец периода) yyyy-MM-dd, пример даты start_time: 2025-10-30, end_time: 2025-10-31.
+                Длинный период разбивается на окна, которые запрашиваются параллельно; результат упорядочен по времени
+                и не содержит повторов.
                 Если запрашиваемый счёт отсутствует или отсутствуют транзакции за указанный период, возвращает ошибку 404.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Список транзакций успешно возвращён."),
+                    @ApiResponse(responseCode = "400", description = "Дата не в формате yyyy-MM-dd."),
                     @ApiResponse(responseCode = "404", description = "Отсутствуют данные по запросу.")
             }
     )
@@ -82,7 +136,7 @@ public class AccountController {
             @RequestParam(name = "start_time") String startTime,
             @RequestParam(name = "end_time") String endTime) {
 
-        return accountService.getAccountTransactions(accountId, startTime, endTime)
+        return accountService.collectAccountTransactions(accountId, startTime, endTime)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
@@ -100,10 +154,13 @@ public class AccountController {
             description = """
                 Возвращает историю торговых операций по определённому счёту за заданный период времени.
                 Необходимо передать идентификатор счета и временные границы в формате yyyy-MM-dd, пример даты start_time: 2025-10-30, end_time: 2025-10-31.
+                Длинный период разбивается на окна, которые запрашиваются параллельно; результат упорядочен по времени
+                и не содержит повторов.
                 Отвечает списком всех сделок за указанный период или сообщением об ошибке 404, если нет данных.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "История сделок успешно возвращена."),
+                    @ApiResponse(responseCode = "400", description = "Дата не в формате yyyy-MM-dd."),
                     @ApiResponse(responseCode = "404", description = "Нет данных по данному запросу.")
             }
     )
@@ -113,8 +170,249 @@ public class AccountController {
             @RequestParam(name = "start_time") String startTime,
             @RequestParam(name = "end_time") String endTime) {
 
-        return accountService.getAccountTrades(accountId, startTime, endTime)
+        return accountService.collectAccountTrades(accountId, startTime, endTime)
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Потоковое получение транзакций по конкретному аккаунту за определенный временной диапазон
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startTime Начальная дата диапазона (* обязательное значение в формате yyyy-MM-dd)
+     * @param endTime Конечная дата диапазона (* обязательное значение в формате yyyy-MM-dd)
+     * @return Поток транзакций в формате NDJSON, упорядоченный по времени
+     */
+    @Operation(
+            summary = "Потоковое получение истории транзакций по счету",
+            description = """
+                Возвращает историю транзакций по счёту потоком NDJSON.
+                Период разбивается на окна, которые запрашиваются параллельно; транзакции передаются клиенту
+                по мере готовности окон, в порядке времени и без повторов.
+                Формат дат yyyy-MM-dd, пример start_time: 2025-01-01, end_time: 2026-01-01.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток транзакций передан.")
+            }
+    )
+    @GetMapping(value = "/{accountId}/transactions/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TransactionDTO> streamAccountTransactions(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_time") String startTime,
+            @RequestParam(name = "end_time") String endTime) {
+
+        return accountService.streamAccountTransactions(accountId, startTime, endTime);
+    }
+
+    /**
+     * Потоковое получение торговых операций по конкретному аккаунту за указанный промежуток времени
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startTime Начальная дата диапазона (* обязательное значение в формате yyyy-MM-dd)
+     * @param endTime Конечная дата диапазона (* обязательное значение в формате yyyy-MM-dd)
+     * @return Поток сделок в формате NDJSON, упорядоченный по времени
+     */
+    @Operation(
+            summary = "Потоковое получение истории сделок по счету",
+            description = """
+                Возвращает историю торговых операций по счёту потоком NDJSON.
+                Период разбивается на окна, которые запрашиваются параллельно; сделки передаются клиенту
+                по мере готовности окон, в порядке времени и без повторов.
+                Формат дат yyyy-MM-dd, пример start_time: 2025-01-01, end_time: 2026-01-01.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток сделок передан.")
+            }
+    )
+    @GetMapping(value = "/{accountId}/trades/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AccountTradeDTO> streamAccountTrades(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_time") String startTime,
+            @RequestParam(name = "end_time") String endTime) {
+
+        return accountService.streamAccountTrades(accountId, startTime, endTime);
+    }
+
+    /**
+     * Получение сделок по аккаунту из локального журнала
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startTime Начальная дата диапазона включительно (* обязательное значение в формате yyyy-MM-dd)
+     * @param endTime Конечная дата диапазона не включительно (* обязательное значение в формате yyyy-MM-dd)
+     * @return Сделки из журнала в виде ResponseEntity
+     */
+    @Operation(
+            summary = "Получение истории сделок из локального журнала",
+            description = """
+                Возвращает сделки по счёту из локального журнала без обращения к API Финам.
+                Журнал пополняется периодической инкрементальной синхронизацией.
+                Формат дат yyyy-MM-dd (UTC), интервал [start_time, end_time), пример start_time: 2025-10-30, end_time: 2025-10-31.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Сделки из журнала успешно возвращены."),
+                    @ApiResponse(responseCode = "404", description = "Журнал счёта не ведётся.")
+            }
+    )
+    @GetMapping("/{accountId}/journal/trades")
+    public Mono<ResponseEntity<TradesResponseDTO>> getJournalTrades(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_time") String startTime,
+            @RequestParam(name = "end_time") String endTime) {
+
+        return Mono.fromCallable(() -> accountJournalService.getTrades(accountId, startOfDay(startTime), startOfDay(endTime)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(trades -> ResponseEntity.of(trades.map(list -> TradesResponseDTO.builder().trades(list).build())));
+    }
+
+    /**
+     * Получение транзакций по аккаунту из локального журнала
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startTime Начальная дата диапазона включительно (* обязательное значение в формате yyyy-MM-dd)
+     * @param endTime Конечная дата диапазона не включительно (* обязательное значение в формате yyyy-MM-dd)
+     * @return Транзакции из журнала в виде ResponseEntity
+     */
+    @Operation(
+            summary = "Получение истории транзакций из локального журнала",
+            description = """
+                Возвращает транзакции по счёту из локального журнала без обращения к API Финам.
+                Журнал пополняется периодической инкрементальной синхронизацией.
+                Формат дат yyyy-MM-dd (UTC), интервал [start_time, end_time), пример start_time: 2025-10-30, end_time: 2025-10-31.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Транзакции из журнала успешно возвращены."),
+                    @ApiResponse(responseCode = "404", description = "Журнал счёта не ведётся.")
+            }
+    )
+    @GetMapping("/{accountId}/journal/transactions")
+    public Mono<ResponseEntity<TransactionsResponseDTO>> getJournalTransactions(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_time") String startTime,
+            @RequestParam(name = "end_time") String endTime) {
+
+        return Mono.fromCallable(() -> accountJournalService.getTransactions(accountId, startOfDay(startTime), startOfDay(endTime)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(transactions -> ResponseEntity.of(transactions
+                        .map(list -> TransactionsResponseDTO.builder().transactions(list).build())));
+    }
+
+    /**
+     * Внеочередная синхронизация локального журнала аккаунта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Количество добавленных в журнал записей
+     */
+    @Operation(
+            summary = "Синхронизация локального журнала по счету",
+            description = """
+                Запрашивает у API Финам сделки и транзакции, появившиеся после последней записи журнала
+                (с перекрытием journal.overlap.days дней), и добавляет в журнал только новые записи.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Журнал синхронизирован."),
+                    @ApiResponse(responseCode = "400", description = "Недопустимый идентификатор счёта."),
+                    @ApiResponse(responseCode = "409", description = "Синхронизация уже выполняется."),
+                    @ApiResponse(responseCode = "500", description = "Синхронизация завершилась ошибкой.")
+            }
+    )
+    @PostMapping("/{accountId}/journal/sync")
+    public Mono<ResponseEntity<JournalSyncResultDTO>> syncJournal(@PathVariable String accountId) {
+        return accountJournalService.sync(accountId)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Подписка на изменения состояния счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Поток Server-Sent Events с изменившимися полями счёта
+     */
+    @Operation(
+            summary = "Подписка на изменения состояния счёта",
+            description = """
+                Передаёт изменения счёта потоком Server-Sent Events.
+                Первое событие (snapshot) содержит полный текущий снимок, последующие (update) только изменившиеся
+                позиции, денежные средства, блоки маржинальных требований, статус и оценку счёта.
+                Удалённые позиции и валюты перечисляются в removed_positions и removed_cash.
+                Счёт опрашивается сервером один раз в accounts.watch.interval.ms независимо от числа подписчиков.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток изменений открыт.")
+            }
+    )
+    @GetMapping(value = "/{accountId}/watch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<AccountUpdateDTO>> watchAccount(@PathVariable String accountId) {
+        return accountWatcherService.watch(accountId)
+                .map(update -> ServerSentEvent.builder(update)
+                        .id(String.valueOf(update.getSequence()))
+                        .event(update.isSnapshot() ? "snapshot" : "update")
+                        .build());
+    }
+
+    /**
+     * Переоценка позиций счёта по последним котировкам
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Позиции с текущими ценами, нереализованным P&L и стоимостью (* либо 404, если позиции ещё не загружены)
+     */
+    @Operation(
+            summary = "Переоценка позиций по рынку",
+            description = """
+                Возвращает позиции счёта, переоценённые по последним котировкам из общего кэша котировок.
+                Позиции обновляются из API раз в mtm.positions.refresh.ms, переоценка выполняется на каждое изменение котировки.
+                Ответ формируется из памяти без обращения к API Финам.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Переоценка успешно возвращена."),
+                    @ApiResponse(responseCode = "404", description = "Позиции счёта ещё не загружены.")
+            }
+    )
+    @GetMapping("/{accountId}/mtm")
+    public ResponseEntity<MarkToMarketDTO> getMarkToMarket(@PathVariable String accountId) {
+        return ResponseEntity.of(markToMarketService.getMarkToMarket(accountId));
+    }
+
+    /**
+     * История оценки счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startTime Начальная дата включительно в формате yyyy-MM-dd (* обязательный параметр)
+     * @param endTime Конечная дата не включительно в формате yyyy-MM-dd (* обязательный параметр)
+     * @param points Максимальное число точек в ответе
+     * @return История оценки, денежных средств и маржинальных показателей
+     */
+    @Operation(
+            summary = "История оценки счёта",
+            description = """
+                Возвращает записанную сервером историю оценки счёта, нереализованной прибыли, денежных средств
+                и маржинальных показателей за интервал [start_time, end_time) в формате yyyy-MM-dd (UTC).
+                Если точек в интервале больше points, ряд прореживается алгоритмом LTTB по оценке счёта,
+                так что форма графика сохраняется, а размер ответа ограничен.
+                points ограничено сверху equity.history.max.points, интервал — equity.history.max.span.days.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "История успешно возвращена."),
+                    @ApiResponse(responseCode = "400", description = "Неверная дата, points не положительно или интервал слишком длинный."),
+                    @ApiResponse(responseCode = "404", description = "История по счёту не записывалась.")
+            }
+    )
+    @GetMapping("/{accountId}/equity_history")
+    public Mono<ResponseEntity<EquityHistoryDTO>> getEquityHistory(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_time") String startTime,
+            @RequestParam(name = "end_time") String endTime,
+            @RequestParam(name = "points", defaultValue = "500") int points) {
+
+        return Mono.fromCallable(() -> equityHistoryService.getHistory(accountId, startOfDay(startTime), startOfDay(endTime), points))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::of);
+    }
+
+    private static Instant startOfDay(String date) {
+        try {
+            return LocalDate.parse(date).atStartOfDay().toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date must be in yyyy-MM-dd format: " + date, e);
+        }
+    }
+}
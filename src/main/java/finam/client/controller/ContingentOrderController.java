@@ -0,0 +1,153 @@
+package finam.client.controller;
+
+import finam.client.dto.ContingentOrderDTO;
+import finam.client.dto.ContingentOrderRequestDTO;
+import finam.client.dto.ContingentStatsDTO;
+import finam.client.service.ContingentOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Контроллер локально эмулируемых связанных заявок OCO и bracket.
+ */
+@RestController
+@RequestMapping("/contingent_orders")
+@Tag(name = "Contingent orders", description = "Связанные заявки OCO и bracket, исполняемые по потоку котировок.")
+@RequiredArgsConstructor
+public class ContingentOrderController {
+
+    private final ContingentOrderService contingentOrderService;
+
+    /**
+     * Размещение связанной заявки
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param request   Параметры связанной заявки
+     * @return Состояние заявки
+     */
+    @Operation(
+            summary = "Размещение связанной заявки",
+            description = """
+                OCO: не менее двух ног; срабатывание первой ноги отправляет её ордер и снимает остальные.
+                BRACKET: входной ордер entry выставляется сразу, ноги (тейк-профит и стоп-лосс) взводятся
+                после его полного исполнения; если входной ордер снят после частичного исполнения,
+                ноги взводятся на исполненный объём. Сторона ног по умолчанию противоположна входному ордеру.
+                Нога срабатывает, когда цена последней сделки (при её отсутствии середина спреда) достигает stop_price:
+                STOP_CONDITION_LAST_UP — цена не ниже уровня, STOP_CONDITION_LAST_DOWN — цена не выше уровня.
+                При заданной limit_price ордер ноги лимитный, иначе рыночный.
+                Срабатывание проверяется при каждом обновлении котировки с периодом quotes.poll.interval.ms.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Заявка принята."),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры заявки."),
+                    @ApiResponse(responseCode = "409", description = "Превышен лимит contingent.max.active.")
+            }
+    )
+    @PostMapping("/{account_id}")
+    public Mono<ResponseEntity<ContingentOrderDTO>> submit(@PathVariable("account_id") String accountId,
+                                                           @RequestBody ContingentOrderRequestDTO request) {
+        return contingentOrderService.submit(accountId, request)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Статистика связанных заявок
+     *
+     * @return Число заявок и триггеров, задержка от срабатывания до отправки ордера
+     */
+    @Operation(
+            summary = "Статистика связанных заявок",
+            description = """
+                Возвращает число ожидающих и активных заявок, взведённых триггеров и инструментов,
+                число срабатываний и ошибок отправки, среднюю и максимальную задержку
+                от получения котировки до отправки дочернего ордера в микросекундах.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика возвращена.")
+            }
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<ContingentStatsDTO> getStats() {
+        return ResponseEntity.ok(contingentOrderService.getStats());
+    }
+
+    /**
+     * Связанные заявки счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Список заявок
+     */
+    @Operation(
+            summary = "Связанные заявки счёта",
+            description = """
+                Возвращает активные и завершённые заявки счёта.
+                Завершённые заявки хранятся contingent.retention.ms.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Заявки возвращены.")
+            }
+    )
+    @GetMapping("/{account_id}")
+    public ResponseEntity<List<ContingentOrderDTO>> getContingents(@PathVariable("account_id") String accountId) {
+        return ResponseEntity.ok(contingentOrderService.getContingents(accountId));
+    }
+
+    /**
+     * Состояние связанной заявки
+     *
+     * @param accountId    Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param contingentId Идентификатор заявки (* обязательный параметр)
+     * @return Состояние заявки
+     */
+    @Operation(
+            summary = "Состояние связанной заявки",
+            description = """
+                Возвращает статус заявки, входной ордер и состояние ног.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние заявки возвращено."),
+                    @ApiResponse(responseCode = "404", description = "Заявка не найдена.")
+            }
+    )
+    @GetMapping("/{account_id}/{contingent_id}")
+    public ResponseEntity<ContingentOrderDTO> getContingent(@PathVariable("account_id") String accountId,
+                                                            @PathVariable("contingent_id") String contingentId) {
+        return ResponseEntity.of(contingentOrderService.getContingent(accountId, contingentId));
+    }
+
+    /**
+     * Отмена связанной заявки
+     *
+     * @param accountId    Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param contingentId Идентификатор заявки (* обязательный параметр)
+     * @return Состояние заявки
+     */
+    @Operation(
+            summary = "Отмена связанной заявки",
+            description = """
+                Снимает ноги заявки; невыполненный входной ордер bracket отменяется.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Заявка отменена."),
+                    @ApiResponse(responseCode = "404", description = "Заявка не найдена.")
+            }
+    )
+    @DeleteMapping("/{account_id}/{contingent_id}")
+    public ResponseEntity<ContingentOrderDTO> cancel(@PathVariable("account_id") String accountId,
+                                                     @PathVariable("contingent_id") String contingentId) {
+        return ResponseEntity.of(contingentOrderService.cancel(accountId, contingentId));
+    }
+}
@@ -0,0 +1,128 @@
+package finam.client.controller;
+
+import finam.client.dto.ParentOrderDTO;
+import finam.client.dto.ParentOrderRequestDTO;
+import finam.client.service.ExecutionAlgoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Контроллер алгоритмического исполнения родительских ордеров.
+ */
+@RestController
+@RequestMapping("/executions")
+@Tag(name = "Executions", description = "Исполнение родительских ордеров по алгоритмам TWAP и VWAP.")
+@RequiredArgsConstructor
+public class ExecutionController {
+
+    private final ExecutionAlgoService executionAlgoService;
+
+    /**
+     * Размещение родительского ордера
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param request   Параметры родительского ордера
+     * @return Состояние исполнения
+     */
+    @Operation(
+            summary = "Размещение родительского ордера",
+            description = """
+                Делит ордер на дочерние и отправляет их по расписанию в окне [start_time, end_time).
+                Срезы распределяются по торговым сессиям инструмента (типы algo.session.types).
+                Число срезов задаётся параметром slices, по умолчанию один срез на algo.slice.interval.ms.
+                TWAP распределяет объём поровну, VWAP — по профилю объёма пятиминутных баров за profile_days дней.
+                Каждый срез догоняет накопленную цель с учётом исполненного и выставленного объёма.
+                При заданной limit_price дочерние ордера лимитные, иначе рыночные.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Исполнение запланировано."),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры или нет торгового времени в окне.")
+            }
+    )
+    @PostMapping("/{account_id}")
+    public Mono<ResponseEntity<ParentOrderDTO>> submit(@PathVariable("account_id") String accountId,
+                                                       @RequestBody ParentOrderRequestDTO request) {
+        return executionAlgoService.submit(accountId, request)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Исполнения счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Список исполнений
+     */
+    @Operation(
+            summary = "Исполнения счёта",
+            description = """
+                Возвращает активные и завершённые исполнения счёта.
+                Завершённые исполнения хранятся algo.retention.ms.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Исполнения возвращены.")
+            }
+    )
+    @GetMapping("/{account_id}")
+    public ResponseEntity<List<ParentOrderDTO>> getExecutions(@PathVariable("account_id") String accountId) {
+        return ResponseEntity.ok(executionAlgoService.getExecutions(accountId));
+    }
+
+    /**
+     * Состояние исполнения
+     *
+     * @param accountId   Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param executionId Идентификатор исполнения (* обязательный параметр)
+     * @return Состояние исполнения
+     */
+    @Operation(
+            summary = "Состояние исполнения",
+            description = """
+                Возвращает расписание, веса срезов, дочерние ордера и исполненный объём.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние исполнения возвращено."),
+                    @ApiResponse(responseCode = "404", description = "Исполнение не найдено.")
+            }
+    )
+    @GetMapping("/{account_id}/{execution_id}")
+    public ResponseEntity<ParentOrderDTO> getExecution(@PathVariable("account_id") String accountId,
+                                                       @PathVariable("execution_id") String executionId) {
+        return ResponseEntity.of(executionAlgoService.getExecution(accountId, executionId));
+    }
+
+    /**
+     * Отмена исполнения
+     *
+     * @param accountId   Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param executionId Идентификатор исполнения (* обязательный параметр)
+     * @return Состояние исполнения
+     */
+    @Operation(
+            summary = "Отмена исполнения",
+            description = """
+                Прекращает отправку срезов и снимает выставленные дочерние ордера.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Исполнение отменено."),
+                    @ApiResponse(responseCode = "404", description = "Исполнение не найдено.")
+            }
+    )
+    @DeleteMapping("/{account_id}/{execution_id}")
+    public ResponseEntity<ParentOrderDTO> cancel(@PathVariable("account_id") String accountId,
+                                                 @PathVariable("execution_id") String executionId) {
+        return ResponseEntity.of(executionAlgoService.cancel(accountId, executionId));
+    }
+}
@@ -0,0 +1,102 @@
+package finam.client.controller;
+
+import finam.client.component.RateLimitFilter;
+import finam.client.dto.OrderLatencyDTO;
+import finam.client.dto.OrderWalStatsDTO;
+import finam.client.dto.RateLimitStatsDTO;
+import finam.client.service.OrderLatencyService;
+import finam.client.service.OrderWalService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Контроллер внутренних показателей работы клиента.
+ */
+@RestController
+@RequestMapping("/internal")
+@Tag(name = "Internal", description = "Внутренние показатели работы клиента.")
+@RequiredArgsConstructor
+public class InternalController {
+
+    private final RateLimitFilter rateLimitFilter;
+    private final OrderLatencyService orderLatencyService;
+    private final OrderWalService orderWalService;
+
+    /**
+     * Состояние клиентских ограничителей частоты запросов
+     *
+     * @return Лимиты, доступные разрешения и счётчики по классам конечных точек
+     */
+    @Operation(
+            summary = "Ограничители частоты запросов",
+            description = """
+                Возвращает для каждого класса конечных точек (orders, accounts, tools, market-data) лимит запросов в секунду,
+                ёмкость корзины, долю общего лимита, зарезервированную для более приоритетных классов,
+                доступные разрешения (-1, если лимит класса не задан) и счётчики полученных, отложенных и отклонённых запросов.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние ограничителей предоставлено.")
+            }
+    )
+    @GetMapping("/rate_limits")
+    public ResponseEntity<List<RateLimitStatsDTO>> getRateLimits() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+
+    /**
+     * Задержки ордеров
+     *
+     * @param metric Имя метрики (необязательный параметр, по умолчанию все метрики)
+     * @return Процентили задержек по типу ордера, сроку действия и классу инструмента
+     */
+    @Operation(
+            summary = "Задержки ордеров",
+            description = """
+                Возвращает количество, среднее, максимум и процентили p50/p90/p99/p99.9 задержек в миллисекундах
+                с разбивкой по типу ордера, сроку действия, классу инструмента (площадке) и результату.
+                orders.placement.latency: от отправки ордера до ответа внешнего сервиса.
+                orders.cancel.latency: от запроса отмены до ответа.
+                orders.fill.latency: от принятия ордера до полного исполнения.
+                Процентили рассчитываются по скользящему окну orders.latency.expiry.ms.
+                Те же гистограммы доступны через /actuator/metrics.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Задержки предоставлены.")
+            }
+    )
+    @GetMapping("/order_latency")
+    public ResponseEntity<List<OrderLatencyDTO>> getOrderLatency(
+            @RequestParam(name = "metric", required = false) String metric) {
+        return ResponseEntity.ok(orderLatencyService.getLatencies(metric));
+    }
+
+    /**
+     * Состояние журнала упреждающей записи ордеров
+     *
+     * @return Счётчики фиксации, восстановления и сверки
+     */
+    @Operation(
+            summary = "Журнал упреждающей записи ордеров",
+            description = """
+                Возвращает размер журнала, число зафиксированных записей и fsync, средний размер пачки,
+                среднее время фиксации пачки и в пересчёте на одну запись в микросекундах,
+                а также намерения без ответа и счётчики восстановленных, сверенных и не найденных при сверке ордеров.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние журнала предоставлено.")
+            }
+    )
+    @GetMapping("/order_wal")
+    public ResponseEntity<OrderWalStatsDTO> getOrderWal() {
+        return ResponseEntity.ok(orderWalService.getStats());
+    }
+}
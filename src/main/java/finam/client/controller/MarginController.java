@@ -0,0 +1,135 @@
+package finam.client.controller;
+
+import finam.client.dto.MarginAlertDTO;
+import finam.client.dto.MarginStatusDTO;
+import finam.client.dto.MarginThresholdsDTO;
+import finam.client.service.MarginMonitorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Контроллер мониторинга маржинальных показателей счетов.
+ */
+@RestController
+@RequestMapping("/margin")
+@Tag(name = "Margin", description = "Мониторинг маржи и уведомления о рисках ликвидации.")
+@RequiredArgsConstructor
+public class MarginController {
+
+    private final MarginMonitorService marginMonitorService;
+
+    /**
+     * Установка порогов и запуск мониторинга счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param thresholds Пороги мониторинга (* все поля необязательные)
+     * @return Текущее состояние мониторинга
+     */
+    @Operation(
+            summary = "Установка порогов маржинального мониторинга",
+            description = """
+                Задаёт пороги счёта и запускает мониторинг, если он ещё не запущен.
+                min_available_cash: уведомление, когда свободные средства опускаются ниже значения.
+                max_utilization: уведомление, когда загрузка маржи initial_margin / (initial_margin + available_cash)
+                превышает значение (доля от 0 до 1).
+                max_maintenance_ratio: уведомление, когда отношение минимальной маржи maintenance_margin
+                к initial_margin + available_cash превышает значение; при 1 капитал счёта сравнялся с минимальной маржой.
+                webhook_url: адрес, на который уведомления отправляются POST-запросом в формате JSON;
+                хост должен входить в margin.monitor.webhook.allowed.hosts.
+                Период опроса адаптивный: чем выше загрузка маржи, тем чаще опрос.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Пороги установлены."),
+                    @ApiResponse(responseCode = "400", description = "Порог вне допустимого диапазона или хост webhook не разрешён.")
+            }
+    )
+    @PutMapping("/{accountId}/thresholds")
+    public ResponseEntity<MarginStatusDTO> setThresholds(@PathVariable String accountId,
+                                                         @RequestBody MarginThresholdsDTO thresholds) {
+        return ResponseEntity.ok(marginMonitorService.setThresholds(accountId, thresholds));
+    }
+
+    /**
+     * Состояние мониторинга счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Последние маржинальные показатели, нарушенные пороги и текущий период опроса
+     */
+    @Operation(
+            summary = "Состояние маржинального мониторинга",
+            description = """
+                Возвращает последние маржинальные показатели счёта, загрузку маржи, нарушенные пороги и текущий период опроса.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние мониторинга возвращено."),
+                    @ApiResponse(responseCode = "404", description = "Мониторинг счёта не запущен.")
+            }
+    )
+    @GetMapping("/{accountId}")
+    public ResponseEntity<MarginStatusDTO> getStatus(@PathVariable String accountId) {
+        return ResponseEntity.of(marginMonitorService.getStatus(accountId));
+    }
+
+    /**
+     * Остановка мониторинга счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return 204 No Content или 404, если мониторинг не был запущен
+     */
+    @Operation(
+            summary = "Остановка маржинального мониторинга",
+            description = """
+                Останавливает опрос счёта и удаляет его пороги.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Мониторинг остановлен."),
+                    @ApiResponse(responseCode = "404", description = "Мониторинг счёта не был запущен.")
+            }
+    )
+    @DeleteMapping("/{accountId}")
+    public ResponseEntity<Void> stop(@PathVariable String accountId) {
+        return marginMonitorService.stop(accountId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Подписка на уведомления о пересечении порогов
+     *
+     * @param accountId Уникальный идентификатор аккаунта (необязательный параметр, по умолчанию все счета)
+     * @return Поток Server-Sent Events с уведомлениями
+     */
+    @Operation(
+            summary = "Подписка на маржинальные уведомления",
+            description = """
+                Передаёт уведомления о пересечении порогов потоком Server-Sent Events.
+                Событие breached отправляется при нарушении порога, recovered при возврате в допустимую область.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток уведомлений открыт.")
+            }
+    )
+    @GetMapping(value = "/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MarginAlertDTO>> alerts(
+            @RequestParam(name = "account_id", required = false) String accountId) {
+        return marginMonitorService.alerts()
+                .filter(alert -> accountId == null || accountId.equals(alert.getAccountId()))
+                .map(alert -> ServerSentEvent.builder(alert)
+                        .event(alert.isBreached() ? "breached" : "recovered")
+                        .build());
+    }
+}
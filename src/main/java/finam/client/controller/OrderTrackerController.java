@@ -0,0 +1,105 @@
+package finam.client.controller;
+
+import finam.client.dto.OrderEventDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.service.OrderTrackerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Контроллер отслеживания состояния ордеров.
+ */
+@RestController
+@RequestMapping("/order_tracker")
+@Tag(name = "Order tracker", description = "Отслеживание состояния ордеров и события их жизненного цикла.")
+@RequiredArgsConstructor
+public class OrderTrackerController {
+
+    private final OrderTrackerService orderTrackerService;
+
+    /**
+     * Подписка на события ордеров
+     *
+     * @param accountId Уникальный идентификатор аккаунта (необязательный параметр, по умолчанию все счета)
+     * @return Поток Server-Sent Events с событиями ордеров
+     */
+    @Operation(
+            summary = "Подписка на события ордеров",
+            description = """
+                Передаёт события жизненного цикла ордеров потоком Server-Sent Events.
+                Тип события: new, partially_filled, filled, canceled, rejected или updated.
+                Ордера всех счетов опрашиваются одним запросом на счёт с периодом order.tracker.interval.ms.
+                valid_transition = false означает переход статуса, недопустимый для конечного автомата ордера.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток событий открыт.")
+            }
+    )
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OrderEventDTO>> events(
+            @RequestParam(name = "account_id", required = false) String accountId) {
+        return orderTrackerService.events()
+                .filter(event -> accountId == null || accountId.equals(event.getAccountId()))
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getOrderId())
+                        .event(event.getType().name().toLowerCase())
+                        .build());
+    }
+
+    /**
+     * Известные состояния ордеров счёта
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return Список состояний ордеров
+     */
+    @Operation(
+            summary = "Отслеживаемые ордера счёта",
+            description = """
+                Возвращает последние известные состояния ордеров счёта без обращения к внешнему сервису.
+                Ордера в конечном статусе хранятся order.tracker.retention.ms.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояния ордеров возвращены.")
+            }
+    )
+    @GetMapping("/{account_id}")
+    public ResponseEntity<List<OrderStateDTO>> getOrders(@PathVariable("account_id") String accountId) {
+        return ResponseEntity.ok(orderTrackerService.getOrders(accountId));
+    }
+
+    /**
+     * Известное состояние ордера
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param orderId   Уникальный идентификатор ордера (* обязательный параметр)
+     * @return Состояние ордера
+     */
+    @Operation(
+            summary = "Отслеживаемый ордер",
+            description = """
+                Возвращает последнее известное состояние ордера без обращения к внешнему сервису.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Состояние ордера возвращено."),
+                    @ApiResponse(responseCode = "404", description = "Ордер не отслеживается.")
+            }
+    )
+    @GetMapping("/{account_id}/{order_id}")
+    public ResponseEntity<OrderStateDTO> getOrder(@PathVariable("account_id") String accountId,
+                                                  @PathVariable("order_id") String orderId) {
+        return ResponseEntity.of(orderTrackerService.getOrder(accountId, orderId));
+    }
+}
@@ -1,13 +1,19 @@
 package finam.client.controller;
 
+import finam.client.dto.BulkOrderRequestDTO;
+import finam.client.dto.BulkOrderResponseDTO;
+import finam.client.dto.CacheStatsDTO;
 import finam.client.dto.OrderDTO;
 import finam.client.dto.OrderStateDTO;
 import finam.client.dto.OrdersResponseDTO;
+import finam.client.enums.SideEnum;
+import finam.client.service.OrderBatchService;
 import finam.client.service.OrdersService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +21,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 /**
@@ -29,6 +37,7 @@ import reactor.core.publisher.Mono;
 public class OrdersController {
 
     private final OrdersService ordersService;
+    private final OrderBatchService orderBatchService;
 
     /**
      * Метод для получения списка ордеров по уникальному идентификатору аккаунта.
@@ -123,10 +132,18 @@ public class OrdersController {
                 Создаёт новый ордер для указанной учетной записи.
                 Ордер отправляется в теле запроса, а идентификатор учетной записи указывается в параметрах маршрута.
                 Возвращает созданный ордер или ошибку 400, если возникли проблемы с созданием.
+                Если задан client_order_id, повторный запрос с тем же идентификатором в течение orders.idempotency.ttl.ms
+                не создаёт новый ордер, а возвращает результат первого размещения или ожидает его завершения.
+                Если идентификатор уже использован для ордера с другим инструментом, направлением, количеством,
+                типом или ценами, возвращается ошибка 409.
+                Если исход первого размещения неизвестен (таймаут, обрыв соединения, ответ 5xx), повторный запрос
+                сначала ищет ордер с тем же client_order_id среди ордеров аккаунта и отправляет его заново,
+                только если ордер не найден.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Новый ордер размещён успешно."),
-                    @ApiResponse(responseCode = "400", description = "Проблемы с созданием ордера.")
+                    @ApiResponse(responseCode = "400", description = "Проблемы с созданием ордера."),
+                    @ApiResponse(responseCode = "409", description = "client_order_id уже использован для другого ордера.")
             },
             tags = {"Orders"}
     )
@@ -137,4 +154,88 @@ public class OrdersController {
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.badRequest().build());
     }
+
+    /**
+     * Метод для размещения пакета ордеров на указанный аккаунт.
+     *
+     * @param request   пакет ордеров и параметры отправки
+     * @param accountId идентификатор аккаунта
+     * @return результаты размещения в порядке ордеров пакета в виде моновыражения с объектом ResponseEntity
+     */
+    @Operation(
+            summary = "Пакетное размещение ордеров",
+            description = """
+                Размещает список ордеров для указанной учетной записи, отправляя их параллельно.
+                max_in_flight ограничивает число одновременно отправляемых ордеров (не больше orders.bulk.max.in.flight).
+                При preserve_symbol_order = true ордера одного инструмента отправляются последовательно в порядке списка.
+                Возвращает результат по каждому ордеру в порядке списка: состояние ордера или ошибку.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Пакет обработан, результаты по ордерам отправлены."),
+                    @ApiResponse(responseCode = "400", description = "Пакет превышает orders.bulk.max.orders.")
+            },
+            tags = {"Orders"}
+    )
+    @PostMapping("/{account_id}/place_orders")
+    public Mono<ResponseEntity<BulkOrderResponseDTO>> placeOrders(@RequestBody BulkOrderRequestDTO request,
+                                                                  @PathVariable("account_id") String accountId) {
+        return orderBatchService.placeOrders(request, accountId)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Метод для массовой отмены активных ордеров указанного аккаунта.
+     *
+     * @param accountId идентификатор аккаунта
+     * @param symbol    тикер инструмента (необязательный параметр)
+     * @param side      направление ордеров (необязательный параметр)
+     * @param all       подтверждение отмены всех ордеров, обязательно без symbol и side
+     * @return результаты отмены по каждому ордеру в виде моновыражения с объектом ResponseEntity
+     */
+    @Operation(
+            summary = "Массовая отмена ордеров",
+            description = """
+                Отменяет ордера учетной записи по инструменту и/или направлению.
+                Без symbol и side отменяет все активные ордера и требует явного подтверждения all=true.
+                Запросы отмены отправляются одновременно, так что время операции ограничено одной волной запросов.
+                Возвращает результат отмены по каждому выбранному ордеру.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Отмена выполнена, результаты по ордерам отправлены."),
+                    @ApiResponse(responseCode = "400", description = "Не заданы фильтры и не передано all=true.")
+            },
+            tags = {"Orders"}
+    )
+    @PostMapping("/{account_id}/cancel_orders")
+    public Mono<ResponseEntity<BulkOrderResponseDTO>> cancelOrders(@PathVariable("account_id") String accountId,
+                                                                   @RequestParam(name = "symbol", required = false) String symbol,
+                                                                   @RequestParam(name = "side", required = false) SideEnum side,
+                                                                   @RequestParam(name = "all", defaultValue = "false") boolean all) {
+        if (symbol == null && side == null && !all) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cancelling every order of the account requires all=true"));
+        }
+        return orderBatchService.cancelOrders(accountId, symbol, side)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Метод для получения статистики кэша идемпотентности размещения ордеров.
+     *
+     * @return статистика кэша
+     */
+    @Operation(
+            summary = "Статистика кэша идемпотентности",
+            description = """
+                Возвращает размер кэша размещённых ордеров по client_order_id и количество повторных запросов,
+                получивших сохранённый результат (hits), и новых размещений (misses).
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика предоставлена.")
+            }
+    )
+    @GetMapping("/idempotency/stats")
+    public ResponseEntity<CacheStatsDTO> getIdempotencyStats() {
+        return ResponseEntity.ok(ordersService.getIdempotencyStats());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,163 @@
+package finam.client.controller;
+
+import finam.client.dto.AccountPnlDTO;
+import finam.client.dto.DailyPnlDTO;
+import finam.client.dto.LotDTO;
+import finam.client.dto.SymbolPnlDTO;
+import finam.client.dto.TradePnlDTO;
+import finam.client.service.PnlService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Контроллер P&L по счетам на основе инкрементально поддерживаемых лотов.
+ */
+@RestController
+@RequestMapping("/pnl")
+@Tag(name = "P&L", description = "Реализованный и нереализованный P&L по счетам.")
+@RequiredArgsConstructor
+public class PnlController {
+
+    private final PnlService pnlService;
+
+    /**
+     * Сводный P&L по счёту
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @return P&L счёта с разбивкой по инструментам (* либо 404, если по счёту нет сделок в журнале)
+     */
+    @Operation(
+            summary = "Сводный P&L по счёту",
+            description = """
+                Возвращает реализованный и нереализованный P&L по счёту и по каждому инструменту.
+                Ответ формируется из состояния лотов в памяти, без повторного прохода по истории сделок.
+                Нереализованный P&L считается относительно цены последней сделки по инструменту.
+                Порядок сопоставления лотов задаётся свойством pnl.lot.method (FIFO или LIFO).
+                Суммы по счёту считаются только по инструментам в валюте pnl.currency; инструменты в другой валюте
+                или с ещё не загруженными параметрами показываются в разбивке со своей валютой, но в суммы не входят.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "P&L успешно возвращён."),
+                    @ApiResponse(responseCode = "404", description = "По счёту нет сделок в журнале.")
+            }
+    )
+    @GetMapping("/{accountId}")
+    public ResponseEntity<AccountPnlDTO> getAccountPnl(@PathVariable String accountId) {
+        return ResponseEntity.of(pnlService.getAccountPnl(accountId));
+    }
+
+    /**
+     * P&L по инструменту
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param symbol Символ финансового инструмента (* обязательный параметр)
+     * @return P&L инструмента
+     */
+    @Operation(
+            summary = "P&L по инструменту",
+            description = """
+                Возвращает позицию, среднюю цену открытых лотов, реализованный и нереализованный P&L по инструменту.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "P&L по инструменту успешно возвращён."),
+                    @ApiResponse(responseCode = "404", description = "По инструменту нет сделок.")
+            }
+    )
+    @GetMapping("/{accountId}/symbols/{symbol}")
+    public ResponseEntity<SymbolPnlDTO> getSymbolPnl(@PathVariable String accountId, @PathVariable String symbol) {
+        return ResponseEntity.of(pnlService.getSymbolPnl(accountId, symbol));
+    }
+
+    /**
+     * Реализованный P&L по сделке
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param tradeId Идентификатор сделки (* обязательный параметр)
+     * @return Закрытое сделкой количество и зафиксированный P&L
+     */
+    @Operation(
+            summary = "Реализованный P&L по сделке",
+            description = """
+                Возвращает количество, закрытое сделкой по открытым лотам, и зафиксированный ею P&L.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "P&L по сделке успешно возвращён."),
+                    @ApiResponse(responseCode = "404", description = "Сделка не найдена.")
+            }
+    )
+    @GetMapping("/{accountId}/trades/{tradeId}")
+    public ResponseEntity<TradePnlDTO> getTradePnl(@PathVariable String accountId, @PathVariable String tradeId) {
+        return ResponseEntity.of(pnlService.getTradePnl(accountId, tradeId));
+    }
+
+    /**
+     * Реализованный P&L по дням
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param startDate Начальная дата включительно в формате yyyy-MM-dd
+     * @param endDate Конечная дата не включительно в формате yyyy-MM-dd
+     * @return Реализованный P&L за каждый день с закрытиями
+     */
+    @Operation(
+            summary = "Реализованный P&L по дням",
+            description = """
+                Возвращает реализованный P&L за каждый день (UTC) интервала [start_date, end_date), в который были закрытия.
+                Учитываются только инструменты в валюте pnl.currency.
+                Пример start_date: 2025-10-01, end_date: 2025-11-01.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "P&L по дням успешно возвращён.")
+            }
+    )
+    @GetMapping("/{accountId}/daily")
+    public ResponseEntity<List<DailyPnlDTO>> getDailyPnl(
+            @PathVariable String accountId,
+            @RequestParam(name = "start_date") String startDate,
+            @RequestParam(name = "end_date") String endDate) {
+        return ResponseEntity.ok(pnlService.getDailyPnl(accountId, parseDate(startDate), parseDate(endDate)));
+    }
+
+    /**
+     * Открытые лоты по инструменту
+     *
+     * @param accountId Уникальный идентификатор аккаунта (* обязательный параметр)
+     * @param symbol Символ финансового инструмента (* обязательный параметр)
+     * @return Открытые лоты в порядке открытия
+     */
+    @Operation(
+            summary = "Открытые лоты по инструменту",
+            description = """
+                Возвращает открытые лоты по инструменту в порядке открытия.
+                Отрицательное количество соответствует короткой позиции.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Лоты успешно возвращены.")
+            }
+    )
+    @GetMapping("/{accountId}/lots/{symbol}")
+    public ResponseEntity<List<LotDTO>> getLots(@PathVariable String accountId, @PathVariable String symbol) {
+        return ResponseEntity.ok(pnlService.getLots(accountId, symbol));
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date must be in yyyy-MM-dd format: " + date, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package finam.client.controller;
+
+import finam.client.dto.TransactionRollupDTO;
+import finam.client.enums.RollupPeriodEnum;
+import finam.client.enums.TransactionCategoryEnum;
+import finam.client.service.TransactionRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Контроллер отчётов по агрегатам транзакций.
+ */
+@RestController
+@RequestMapping("/reports")
+@Tag(name = "Reports", description = "Отчёты по транзакциям счетов.")
+@RequiredArgsConstructor
+public class ReportsController {
+
+    private final TransactionRollupService transactionRollupService;
+
+    /**
+     * Суммы транзакций по категориям за период
+     *
+     * @param period Период агрегирования: DAY, MONTH или YEAR (* обязательный параметр)
+     * @param startDate Начальная дата включительно в формате yyyy-MM-dd (* обязательный параметр)
+     * @param endDate Конечная дата не включительно в формате yyyy-MM-dd (* обязательный параметр)
+     * @param accountId Счёт (необязательный параметр, по умолчанию все счета)
+     * @param category Категория транзакций (необязательный параметр)
+     * @param currency Код валюты (необязательный параметр)
+     * @param mergeAccounts Суммировать ли счета между собой
+     * @return Суммы и количество транзакций по периодам
+     */
+    @Operation(
+            summary = "Суммы транзакций по категориям",
+            description = """
+                Возвращает суммы транзакций (комиссии, налоги, доходы, вводы и выводы средств и т.д.) в разрезе
+                счёта, категории, валюты и периода (день, месяц или год).
+                Суммы поддерживаются инкрементально по локальному журналу транзакций и считаются точно в формате units/nanos.
+                Интервал [start_date, end_date) задаётся в формате yyyy-MM-dd, даты периодов считаются в часовом поясе reports.zone.
+                При merge_accounts=true суммы разных счетов объединяются, поле account_id в ответе пустое.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Отчёт успешно сформирован.")
+            }
+    )
+    @GetMapping("/transactions")
+    public ResponseEntity<List<TransactionRollupDTO>> getTransactionRollups(
+            @RequestParam(name = "period") RollupPeriodEnum period,
+            @RequestParam(name = "start_date") String startDate,
+            @RequestParam(name = "end_date") String endDate,
+            @RequestParam(name = "account_id", required = false) String accountId,
+            @RequestParam(name = "category", required = false) TransactionCategoryEnum category,
+            @RequestParam(name = "currency", required = false) String currency,
+            @RequestParam(name = "merge_accounts", defaultValue = "false") boolean mergeAccounts) {
+
+        return ResponseEntity.ok(transactionRollupService.getRollups(period, parseDate(startDate),
+                parseDate(endDate), accountId, category, currency, mergeAccounts));
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date must be in yyyy-MM-dd format: " + date, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package finam.client.controller;
+
+import finam.client.dto.PreTradeRiskStatsDTO;
+import finam.client.dto.RiskRequestDTO;
+import finam.client.dto.RiskResponseDTO;
+import finam.client.service.PreTradeRiskService;
+import finam.client.service.RiskService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Контроллер оценки рыночного риска портфеля.
+ */
+@RestController
+@RequestMapping("/risk")
+@Tag(name = "Risk", description = "Оценка рыночного риска портфеля.")
+@RequiredArgsConstructor
+public class RiskController {
+
+    private final RiskService riskService;
+    private final PreTradeRiskService preTradeRiskService;
+
+    /**
+     * Расчёт VaR, Expected Shortfall и стресс-сценариев по счетам
+     *
+     * @param request Счета, уровень доверия, глубина истории и стресс-сценарии (* все поля необязательные)
+     * @return Риск по каждому счёту в виде ResponseEntity
+     */
+    @Operation(
+            summary = "Историческое моделирование VaR/ES и стресс-тесты",
+            description = """
+                Рассчитывает Value-at-Risk и Expected Shortfall портфеля каждого счёта методом исторического моделирования
+                по дневным доходностям инструментов за последние lookback_days общих торговых дней.
+                Для каждого сценария из scenarios рассчитывается P&L портфеля при заданных шоках (доля цены, например -0.1),
+                для инструментов без явного шока применяется default_shock.
+                Если account_ids не указан, расчёт выполняется по всем счетам токена.
+                VaR и ES возвращаются как положительная величина убытка в валюте позиций.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Риск успешно рассчитан."),
+                    @ApiResponse(responseCode = "400", description = "Некорректные параметры расчёта."),
+                    @ApiResponse(responseCode = "500", description = "Ошибка расчёта.")
+            }
+    )
+    @PostMapping("/var")
+    public Mono<ResponseEntity<RiskResponseDTO>> calculateRisk(@RequestBody RiskRequestDTO request) {
+        return riskService.calculate(request)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Статистика предторговой проверки рисков
+     *
+     * @return Количество проверок и отклонений по причинам, среднее и максимальное время проверки
+     */
+    @Operation(
+            summary = "Статистика предторговой проверки рисков",
+            description = """
+                Возвращает количество проверенных ордеров, количество отклонений по причинам
+                и время синхронной части проверки в наносекундах.
+                Проверяются полнота ордера, а также, если включены, кратность лоту и шагу цены (risk.pretrade.check.increments),
+                отклонение цены от последней котировки (risk.pretrade.price.collar), объём ордера в деньгах
+                (risk.pretrade.max.notional) и позиция по инструменту (risk.pretrade.max.position). По умолчанию они выключены.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика предоставлена.")
+            }
+    )
+    @GetMapping("/pretrade/stats")
+    public ResponseEntity<PreTradeRiskStatsDTO> getPreTradeStats() {
+        return ResponseEntity.ok(preTradeRiskService.getStats());
+    }
+}
\ No newline at end of file
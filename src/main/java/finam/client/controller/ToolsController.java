@@ -1,26 +1,42 @@
 package finam.client.controller;
 
+import finam.client.dto.AssetDetailsResponseDTO;
+import finam.client.dto.AssetsDTO;
 import finam.client.dto.AssetsResponseDTO;
+import finam.client.dto.BulkAssetParamsRequestDTO;
+import finam.client.dto.BulkAssetParamsResponseDTO;
+import finam.client.dto.CacheStatsDTO;
 import finam.client.dto.ClockResponseDTO;
 import finam.client.dto.ExchangesResponseDTO;
 import finam.client.dto.GetAssetParamsResponseDTO;
 import finam.client.dto.GetAssetResponseDTO;
 import finam.client.dto.OptionsChainResponseDTO;
 import finam.client.dto.ScheduleResponseDTO;
+import finam.client.service.AssetHydratorService;
+import finam.client.service.AssetParamsService;
 import finam.client.service.DownloadService;
+import finam.client.service.ReferenceDataService;
 import finam.client.service.ToolsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Контроллер для управления финансовыми инструментами и обработки клиентских запросов.
  */
@@ -32,6 +48,9 @@ public class ToolsController {
 
     private final ToolsService toolsService;
     private final DownloadService downloadService;
+    private final AssetParamsService assetParamsService;
+    private final AssetHydratorService assetHydratorService;
+    private final ReferenceDataService referenceDataService;
 
     /**
      * Метод для получения полного списка активов.
@@ -52,6 +71,26 @@ public class ToolsController {
         return toolsService.getAssets();
     }
 
+    /**
+     * Метод для потокового получения списка активов.
+     *
+     * @return поток активов в формате NDJSON.
+     */
+    @Operation(
+            summary = "Потоковое получение списка активов",
+            description = """
+                Загружает полный список финансовых инструментов (активов) и передаёт его потоком NDJSON:
+                каждый актив отправляется клиенту сразу после декодирования, весь список в памяти не хранится.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Поток активов передан.")
+            }
+    )
+    @GetMapping(value = "/assets/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AssetsDTO> streamAssets() {
+        return toolsService.streamAssets();
+    }
+
     /**
      * Метод для получения текущего серверного времени.
      *
@@ -61,6 +100,9 @@ public class ToolsController {
             summary = "Получение текущего серверного времени",
             description = """
                 Определяет текущее время сервера Finam.
+                Время вычисляется локально по фоновой оценке смещения и дрейфа часов,
+                в поле error_bound_us возвращается граница погрешности в микросекундах.
+                Пока оценка не готова, выполняется прямой запрос к серверу Finam.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Серверное время получено.")
@@ -85,6 +127,7 @@ public class ToolsController {
                 Возвращает информацию о конкретном финансовом инструменте.
                 Необходимы тикер инструмента и идентификатор аккаунта.
                 Если актив не найден, возвращает ошибку 404.
+                Информация кэшируется в памяти на reference.assets.ttl.ms.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Информация о выбранном активе предоставлена."),
@@ -95,7 +138,31 @@ public class ToolsController {
     public Mono<ResponseEntity<GetAssetResponseDTO>> getAsset(
             @PathVariable String symbol,
             @RequestParam(name = "account_id") String accountId) {
-        return toolsService.getAsset(symbol, accountId);
+        return referenceDataService.getAsset(symbol, accountId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Метод для пакетного получения информации о финансовых инструментах из памяти.
+     *
+     * @param symbols список символов активов
+     * @return информация о найденных активах и список отсутствующих символов
+     */
+    @Operation(
+            summary = "Пакетное получение информации о финансовых инструментах",
+            description = """
+                Возвращает заранее загруженную информацию о финансовых инструментах (площадка, точность цены,
+                шаг цены, размер лота, валюта котировки) без обращения к серверу Finam.
+                Символы, которые ещё не загружены, возвращаются в поле missing и загружаются в фоне.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Информация об активах предоставлена.")
+            }
+    )
+    @PostMapping(value = "/assets/details")
+    public ResponseEntity<AssetDetailsResponseDTO> getAssetDetails(@RequestBody List<String> symbols) {
+        return ResponseEntity.ok(assetHydratorService.getAssets(symbols));
     }
 
     /**
@@ -107,6 +174,7 @@ public class ToolsController {
             summary = "Получение списка бирж",
             description = """
                 Возвращает перечень используемых в торговле бирж.
+                Список кэшируется в памяти на reference.exchanges.ttl.ms.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "Список бирж возвращён.")
@@ -114,7 +182,9 @@ public class ToolsController {
     )
     @GetMapping(value = "/exchanges")
     public Mono<ResponseEntity<ExchangesResponseDTO>> getExchanges() {
-        return toolsService.getExchanges();
+        return referenceDataService.getExchanges()
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     /**
@@ -143,6 +213,56 @@ public class ToolsController {
         return toolsService.getAssetParam(symbol, accountId);
     }
 
+    /**
+     * Метод для пакетного получения параметров финансовых инструментов.
+     *
+     * @param request идентификатор аккаунта и список символов
+     * @return параметры инструментов и ошибки по инструментам, которые получить не удалось
+     */
+    @Operation(
+            summary = "Пакетное получение параметров финансовых инструментов",
+            description = """
+                Получает параметры сразу для списка инструментов одного аккаунта (торгуемость, возможность
+                открытия длинной и короткой позиции, маржинальные требования).
+                Запросы выполняются параллельно, результаты кэшируются по паре (аккаунт, инструмент).
+                Ошибки по отдельным инструментам возвращаются в поле errors и не прерывают запрос.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Параметры инструментов предоставлены."),
+                    @ApiResponse(responseCode = "400", description = "Не заданы account_id или symbols.")
+            }
+    )
+    @PostMapping(value = "/assets/params")
+    public Mono<ResponseEntity<BulkAssetParamsResponseDTO>> getAssetParams(@RequestBody BulkAssetParamsRequestDTO request) {
+        return assetParamsService.getAssetParams(request.getAccountId(), request.getSymbols())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Метод для сброса кэша параметров финансовых инструментов.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param symbol    символ актива; если не указан, сбрасывается кэш всего аккаунта
+     * @return пустой ответ
+     */
+    @Operation(
+            summary = "Сброс кэша параметров финансовых инструментов",
+            description = """
+                Удаляет закэшированные параметры инструмента для аккаунта.
+                Если символ не указан, удаляются все закэшированные параметры аккаунта.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Кэш сброшен.")
+            }
+    )
+    @DeleteMapping(value = "/assets/params/cache")
+    public ResponseEntity<Void> invalidateAssetParams(
+            @RequestParam(name = "account_id") String accountId,
+            @RequestParam(name = "symbol", required = false) String symbol) {
+        assetParamsService.invalidate(accountId, symbol);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Метод для получения цепочки опционов для базового актива.
      *
@@ -178,6 +298,7 @@ public class ToolsController {
                 Извлекает график торговой сессии для выбранного финансового инструмента.
                 В параметрах принимает тикер инструмента.
                 Если инструмент не найден, возвращает ошибку 404.
+                Расписание кэшируется в памяти на reference.schedules.ttl.ms.
                 """,
             responses = {
                     @ApiResponse(responseCode = "200", description = "График торговой сессии предоставлен."),
@@ -186,7 +307,29 @@ public class ToolsController {
     )
     @GetMapping(value = "/assets/{symbol}/schedule")
     public Mono<ResponseEntity<ScheduleResponseDTO>> getSchedule(@PathVariable String symbol) {
-        return toolsService.getSchedule(symbol);
+        return referenceDataService.getSchedule(symbol)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Метод для получения статистики кэшей справочных данных.
+     *
+     * @return статистика по каждому кэшу
+     */
+    @Operation(
+            summary = "Статистика кэшей справочных данных",
+            description = """
+                Возвращает размер, количество попаданий, промахов и загрузок для кэшей бирж,
+                расписаний торгов и параметров инструментов.
+                """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Статистика предоставлена.")
+            }
+    )
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(referenceDataService.getStats());
     }
 
     /**
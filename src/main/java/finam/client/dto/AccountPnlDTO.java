@@ -0,0 +1,41 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.LotMethodEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountPnlDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("lot_method")
+    private LotMethodEnum lotMethod;
+
+    @JsonProperty("trades_processed")
+    private long tradesProcessed;
+
+    @JsonProperty("currency")
+    private String currency;
+
+    @JsonProperty("realized_pnl")
+    private ValueObjectDTO realizedPnl;
+
+    @JsonProperty("unrealized_pnl")
+    private ValueObjectDTO unrealizedPnl;
+
+    @JsonProperty("symbols")
+    private List<SymbolPnlDTO> symbols;
+}
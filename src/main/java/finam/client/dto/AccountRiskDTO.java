@@ -0,0 +1,43 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountRiskDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("exposure")
+    private double exposure;
+
+    @JsonProperty("confidence")
+    private double confidence;
+
+    @JsonProperty("observations")
+    private int observations;
+
+    @JsonProperty("value_at_risk")
+    private double valueAtRisk;
+
+    @JsonProperty("expected_shortfall")
+    private double expectedShortfall;
+
+    @JsonProperty("missing_symbols")
+    private List<String> missingSymbols;
+
+    @JsonProperty("scenarios")
+    private List<ScenarioResultDTO> scenarios;
+}
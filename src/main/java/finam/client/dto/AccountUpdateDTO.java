@@ -0,0 +1,60 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountUpdateDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("sequence")
+    private long sequence;
+
+    @JsonProperty("snapshot")
+    private boolean snapshot;
+
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("equity")
+    private ValueObjectDTO equity;
+
+    @JsonProperty("unrealized_profit")
+    private ValueObjectDTO unrealizedProfit;
+
+    @JsonProperty("positions")
+    private List<PositionDTO> positions;
+
+    @JsonProperty("removed_positions")
+    private List<String> removedPositions;
+
+    @JsonProperty("cash")
+    private List<CashItemDTO> cash;
+
+    @JsonProperty("removed_cash")
+    private List<String> removedCash;
+
+    @JsonProperty("portfolio_mc")
+    private MCDTO portfolioMc;
+
+    @JsonProperty("portfolio_mct")
+    private MCTDTO portfolioMct;
+
+    @JsonProperty("portfolio_forts")
+    private FortsDTO portfolioForts;
+}
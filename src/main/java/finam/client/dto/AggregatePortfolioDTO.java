@@ -0,0 +1,38 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AggregatePortfolioDTO {
+    @JsonProperty("account_ids")
+    private List<String> accountIds;
+
+    @JsonProperty("equity")
+    private ValueObjectDTO equity;
+
+    @JsonProperty("unrealized_profit")
+    private ValueObjectDTO unrealizedProfit;
+
+    @JsonProperty("cash")
+    private List<CashItemDTO> cash;
+
+    @JsonProperty("positions")
+    private List<PositionDTO> positions;
+
+    @JsonProperty("errors")
+    private Map<String, String> errors;
+}
@@ -0,0 +1,24 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetDetailsResponseDTO {
+    @JsonProperty("assets")
+    private List<GetAssetResponseDTO> assets;
+    @JsonProperty("missing")
+    private List<String> missing;
+}
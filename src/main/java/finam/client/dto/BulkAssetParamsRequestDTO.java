@@ -0,0 +1,24 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAssetParamsRequestDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+    @JsonProperty("symbols")
+    private List<String> symbols;
+}
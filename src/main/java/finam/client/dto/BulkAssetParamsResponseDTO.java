@@ -0,0 +1,27 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAssetParamsResponseDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+    @JsonProperty("params")
+    private List<GetAssetParamsResponseDTO> params;
+    @JsonProperty("errors")
+    private Map<String, String> errors;
+}
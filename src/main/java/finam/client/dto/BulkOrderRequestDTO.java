@@ -0,0 +1,28 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderRequestDTO {
+    @JsonProperty("orders")
+    private List<OrderDTO> orders;
+
+    @JsonProperty("max_in_flight")
+    private Integer maxInFlight;
+
+    @JsonProperty("preserve_symbol_order")
+    private boolean preserveSymbolOrder;
+}
@@ -0,0 +1,37 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkOrderResponseDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("submitted")
+    private int submitted;
+
+    @JsonProperty("succeeded")
+    private int succeeded;
+
+    @JsonProperty("failed")
+    private int failed;
+
+    @JsonProperty("elapsed_ms")
+    private long elapsedMs;
+
+    @JsonProperty("results")
+    private List<OrderResultDTO> results;
+}
@@ -0,0 +1,34 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    @JsonProperty("name")
+    private String name;
+    @JsonProperty("size")
+    private int size;
+    @JsonProperty("hits")
+    private long hits;
+    @JsonProperty("stale_hits")
+    private long staleHits;
+    @JsonProperty("misses")
+    private long misses;
+    @JsonProperty("load_successes")
+    private long loadSuccesses;
+    @JsonProperty("load_failures")
+    private long loadFailures;
+    @JsonProperty("hit_rate")
+    private double hitRate;
+}
@@ -0,0 +1,42 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.OrderStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChildOrderDTO {
+    @JsonProperty("slice")
+    private int slice;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("client_order_id")
+    private String clientOrderId;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("filled_quantity")
+    private ValueObjectDTO filledQuantity;
+
+    @JsonProperty("status")
+    private OrderStatusEnum status;
+
+    @JsonProperty("sent_at")
+    private String sentAt;
+
+    @JsonProperty("error")
+    private String error;
+}
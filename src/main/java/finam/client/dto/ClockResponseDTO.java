@@ -17,4 +17,6 @@ import lombok.ToString;
 public class ClockResponseDTO {
     @JsonProperty("timestamp")
     private String timestamp;
+    @JsonProperty("error_bound_us")
+    private Long errorBoundMicros;
 }
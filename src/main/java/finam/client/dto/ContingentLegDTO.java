@@ -0,0 +1,61 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.SideEnum;
+import finam.client.enums.StopConditionEnum;
+import finam.client.enums.TimeInForceEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContingentLegDTO {
+    @JsonProperty("stop_price")
+    private ValueObjectDTO stopPrice;
+
+    @JsonProperty("stop_condition")
+    private StopConditionEnum stopCondition;
+
+    @JsonProperty("side")
+    private SideEnum side;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("limit_price")
+    private ValueObjectDTO limitPrice;
+
+    @JsonProperty("time_in_force")
+    private TimeInForceEnum timeInForce;
+
+    @JsonProperty("triggered")
+    private Boolean triggered;
+
+    @JsonProperty("trigger_price")
+    private ValueObjectDTO triggerPrice;
+
+    @JsonProperty("triggered_at")
+    private String triggeredAt;
+
+    @JsonProperty("trigger_to_send_us")
+    private Long triggerToSendUs;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("client_order_id")
+    private String clientOrderId;
+
+    @JsonProperty("error")
+    private String error;
+}
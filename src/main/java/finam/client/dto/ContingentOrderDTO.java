@@ -0,0 +1,54 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.ContingentStatusEnum;
+import finam.client.enums.ContingentTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContingentOrderDTO {
+    @JsonProperty("contingent_id")
+    private String contingentId;
+
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("type")
+    private ContingentTypeEnum type;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("status")
+    private ContingentStatusEnum status;
+
+    @JsonProperty("entry_order_id")
+    private String entryOrderId;
+
+    @JsonProperty("legs")
+    private List<ContingentLegDTO> legs;
+
+    @JsonProperty("created_at")
+    private String createdAt;
+
+    @JsonProperty("finished_at")
+    private String finishedAt;
+
+    @JsonProperty("error")
+    private String error;
+}
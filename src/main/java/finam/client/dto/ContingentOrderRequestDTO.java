@@ -0,0 +1,35 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.ContingentTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContingentOrderRequestDTO {
+    @JsonProperty("type")
+    private ContingentTypeEnum type;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("entry")
+    private OrderDTO entry;
+
+    @JsonProperty("legs")
+    private List<ContingentLegDTO> legs;
+}
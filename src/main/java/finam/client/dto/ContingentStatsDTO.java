@@ -0,0 +1,41 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContingentStatsDTO {
+    @JsonProperty("pending_entry")
+    private long pendingEntry;
+
+    @JsonProperty("active")
+    private long active;
+
+    @JsonProperty("armed_triggers")
+    private long armedTriggers;
+
+    @JsonProperty("symbols")
+    private int symbols;
+
+    @JsonProperty("triggered")
+    private long triggered;
+
+    @JsonProperty("failed")
+    private long failed;
+
+    @JsonProperty("mean_trigger_to_send_us")
+    private double meanTriggerToSendUs;
+
+    @JsonProperty("max_trigger_to_send_us")
+    private long maxTriggerToSendUs;
+}
@@ -0,0 +1,26 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyPnlDTO {
+    @JsonProperty("date")
+    private String date;
+
+    @JsonProperty("currency")
+    private String currency;
+
+    @JsonProperty("realized_pnl")
+    private ValueObjectDTO realizedPnl;
+}
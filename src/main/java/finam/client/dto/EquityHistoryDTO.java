@@ -0,0 +1,31 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquityHistoryDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("cash_currency")
+    private String cashCurrency;
+
+    @JsonProperty("total_points")
+    private int totalPoints;
+
+    @JsonProperty("points")
+    private List<EquityPointDTO> points;
+}
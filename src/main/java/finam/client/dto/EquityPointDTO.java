@@ -0,0 +1,38 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EquityPointDTO {
+    @JsonProperty("timestamp")
+    private String timestamp;
+
+    @JsonProperty("equity")
+    private ValueObjectDTO equity;
+
+    @JsonProperty("unrealized_profit")
+    private ValueObjectDTO unrealizedProfit;
+
+    @JsonProperty("cash")
+    private ValueObjectDTO cash;
+
+    @JsonProperty("available_cash")
+    private ValueObjectDTO availableCash;
+
+    @JsonProperty("initial_margin")
+    private ValueObjectDTO initialMargin;
+
+    @JsonProperty("maintenance_margin")
+    private ValueObjectDTO maintenanceMargin;
+}
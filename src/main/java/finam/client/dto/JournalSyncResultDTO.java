@@ -0,0 +1,32 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JournalSyncResultDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("trades_added")
+    private int tradesAdded;
+
+    @JsonProperty("transactions_added")
+    private int transactionsAdded;
+
+    @JsonProperty("trades_total")
+    private long tradesTotal;
+
+    @JsonProperty("transactions_total")
+    private long transactionsTotal;
+}
@@ -0,0 +1,32 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LotDTO {
+    @JsonProperty("trade_id")
+    private String tradeId;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("price")
+    private ValueObjectDTO price;
+
+    @JsonProperty("opened_at")
+    private String openedAt;
+}
@@ -0,0 +1,48 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.MarginAlertTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarginAlertDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("type")
+    private MarginAlertTypeEnum type;
+
+    @JsonProperty("breached")
+    private boolean breached;
+
+    @JsonProperty("value")
+    private double value;
+
+    @JsonProperty("threshold")
+    private double threshold;
+
+    @JsonProperty("available_cash")
+    private double availableCash;
+
+    @JsonProperty("initial_margin")
+    private double initialMargin;
+
+    @JsonProperty("maintenance_margin")
+    private double maintenanceMargin;
+
+    @JsonProperty("utilization")
+    private double utilization;
+
+    @JsonProperty("timestamp")
+    private String timestamp;
+}
@@ -0,0 +1,50 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.MarginAlertTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarginStatusDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("available_cash")
+    private double availableCash;
+
+    @JsonProperty("initial_margin")
+    private double initialMargin;
+
+    @JsonProperty("maintenance_margin")
+    private double maintenanceMargin;
+
+    @JsonProperty("utilization")
+    private double utilization;
+
+    @JsonProperty("maintenance_ratio")
+    private double maintenanceRatio;
+
+    @JsonProperty("poll_interval_ms")
+    private long pollIntervalMs;
+
+    @JsonProperty("updated_at")
+    private String updatedAt;
+
+    @JsonProperty("breaches")
+    private List<MarginAlertTypeEnum> breaches;
+
+    @JsonProperty("thresholds")
+    private MarginThresholdsDTO thresholds;
+}
@@ -0,0 +1,29 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarginThresholdsDTO {
+    @JsonProperty("min_available_cash")
+    private Double minAvailableCash;
+
+    @JsonProperty("max_utilization")
+    private Double maxUtilization;
+
+    @JsonProperty("max_maintenance_ratio")
+    private Double maxMaintenanceRatio;
+
+    @JsonProperty("webhook_url")
+    private String webhookUrl;
+}
@@ -0,0 +1,34 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarkToMarketDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("unrealized_pnl")
+    private ValueObjectDTO unrealizedPnl;
+
+    @JsonProperty("exposure")
+    private ValueObjectDTO exposure;
+
+    @JsonProperty("positions_updated_at")
+    private String positionsUpdatedAt;
+
+    @JsonProperty("positions")
+    private List<MarkedPositionDTO> positions;
+}
@@ -0,0 +1,49 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.OrderEventTypeEnum;
+import finam.client.enums.OrderStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("client_order_id")
+    private String clientOrderId;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("type")
+    private OrderEventTypeEnum type;
+
+    @JsonProperty("previous_status")
+    private OrderStatusEnum previousStatus;
+
+    @JsonProperty("status")
+    private OrderStatusEnum status;
+
+    @JsonProperty("valid_transition")
+    private boolean validTransition;
+
+    @JsonProperty("timestamp")
+    private String timestamp;
+
+    @JsonProperty("state")
+    private OrderStateDTO state;
+}
@@ -0,0 +1,53 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderLatencyDTO {
+    @JsonProperty("metric")
+    private String metric;
+
+    @JsonProperty("order_type")
+    private String orderType;
+
+    @JsonProperty("time_in_force")
+    private String timeInForce;
+
+    @JsonProperty("symbol_class")
+    private String symbolClass;
+
+    @JsonProperty("outcome")
+    private String outcome;
+
+    @JsonProperty("count")
+    private long count;
+
+    @JsonProperty("mean_ms")
+    private double meanMs;
+
+    @JsonProperty("max_ms")
+    private double maxMs;
+
+    @JsonProperty("p50_ms")
+    private double p50Ms;
+
+    @JsonProperty("p90_ms")
+    private double p90Ms;
+
+    @JsonProperty("p99_ms")
+    private double p99Ms;
+
+    @JsonProperty("p999_ms")
+    private double p999Ms;
+}
@@ -0,0 +1,46 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderResultDTO {
+    @JsonProperty("index")
+    private Integer index;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("client_order_id")
+    private String clientOrderId;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("success")
+    private boolean success;
+
+    @JsonProperty("state")
+    private OrderStateDTO state;
+
+    @JsonProperty("error_status")
+    private Integer errorStatus;
+
+    @JsonProperty("error")
+    private String error;
+
+    @JsonProperty("latency_ms")
+    private long latencyMs;
+}
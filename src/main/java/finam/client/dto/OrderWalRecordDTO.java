@@ -0,0 +1,45 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.OrderStatusEnum;
+import finam.client.enums.OrderWalRecordTypeEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderWalRecordDTO {
+    @JsonProperty("type")
+    private OrderWalRecordTypeEnum type;
+
+    @JsonProperty("timestamp")
+    private String timestamp;
+
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("client_order_id")
+    private String clientOrderId;
+
+    @JsonProperty("order")
+    private OrderDTO order;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("status")
+    private OrderStatusEnum status;
+
+    @JsonProperty("error")
+    private String error;
+}
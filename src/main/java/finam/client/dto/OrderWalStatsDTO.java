@@ -0,0 +1,55 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderWalStatsDTO {
+    @JsonProperty("enabled")
+    private boolean enabled;
+
+    @JsonProperty("file_size")
+    private long fileSize;
+
+    @JsonProperty("records")
+    private long records;
+
+    @JsonProperty("batches")
+    private long batches;
+
+    @JsonProperty("mean_batch_size")
+    private double meanBatchSize;
+
+    @JsonProperty("mean_sync_us")
+    private double meanSyncUs;
+
+    @JsonProperty("mean_sync_per_record_us")
+    private double meanSyncPerRecordUs;
+
+    @JsonProperty("unresolved")
+    private int unresolved;
+
+    @JsonProperty("recovered")
+    private long recovered;
+
+    @JsonProperty("reconciled")
+    private long reconciled;
+
+    @JsonProperty("not_found")
+    private long notFound;
+
+    @JsonProperty("unresolved_client_order_ids")
+    private List<String> unresolvedClientOrderIds;
+}
@@ -0,0 +1,76 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.ExecutionAlgoEnum;
+import finam.client.enums.ExecutionStatusEnum;
+import finam.client.enums.SideEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParentOrderDTO {
+    @JsonProperty("execution_id")
+    private String executionId;
+
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("side")
+    private SideEnum side;
+
+    @JsonProperty("algo")
+    private ExecutionAlgoEnum algo;
+
+    @JsonProperty("status")
+    private ExecutionStatusEnum status;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("filled_quantity")
+    private ValueObjectDTO filledQuantity;
+
+    @JsonProperty("working_quantity")
+    private ValueObjectDTO workingQuantity;
+
+    @JsonProperty("start_time")
+    private String startTime;
+
+    @JsonProperty("end_time")
+    private String endTime;
+
+    @JsonProperty("slices_total")
+    private int slicesTotal;
+
+    @JsonProperty("slices_sent")
+    private int slicesSent;
+
+    @JsonProperty("next_slice_at")
+    private String nextSliceAt;
+
+    @JsonProperty("schedule")
+    private List<String> schedule;
+
+    @JsonProperty("weights")
+    private List<Double> weights;
+
+    @JsonProperty("children")
+    private List<ChildOrderDTO> children;
+
+    @JsonProperty("error")
+    private String error;
+}
@@ -0,0 +1,50 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.ExecutionAlgoEnum;
+import finam.client.enums.SideEnum;
+import finam.client.enums.TimeInForceEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParentOrderRequestDTO {
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("side")
+    private SideEnum side;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("algo")
+    private ExecutionAlgoEnum algo;
+
+    @JsonProperty("start_time")
+    private String startTime;
+
+    @JsonProperty("end_time")
+    private String endTime;
+
+    @JsonProperty("slices")
+    private Integer slices;
+
+    @JsonProperty("limit_price")
+    private ValueObjectDTO limitPrice;
+
+    @JsonProperty("time_in_force")
+    private TimeInForceEnum timeInForce;
+
+    @JsonProperty("profile_days")
+    private Integer profileDays;
+}
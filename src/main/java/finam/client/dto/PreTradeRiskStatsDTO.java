@@ -0,0 +1,38 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.PreTradeRejectReasonEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreTradeRiskStatsDTO {
+    @JsonProperty("enabled")
+    private boolean enabled;
+
+    @JsonProperty("checks")
+    private long checks;
+
+    @JsonProperty("rejects")
+    private long rejects;
+
+    @JsonProperty("rejects_by_reason")
+    private Map<PreTradeRejectReasonEnum, Long> rejectsByReason;
+
+    @JsonProperty("mean_check_nanos")
+    private long meanCheckNanos;
+
+    @JsonProperty("max_check_nanos")
+    private long maxCheckNanos;
+}
@@ -0,0 +1,45 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.EndpointClassEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitStatsDTO {
+    @JsonProperty("endpoint_class")
+    private EndpointClassEnum endpointClass;
+
+    @JsonProperty("rate")
+    private double rate;
+
+    @JsonProperty("burst")
+    private int burst;
+
+    @JsonProperty("global_reserve")
+    private double globalReserve;
+
+    @JsonProperty("available")
+    private double available;
+
+    @JsonProperty("acquired")
+    private long acquired;
+
+    @JsonProperty("delayed")
+    private long delayed;
+
+    @JsonProperty("rejected")
+    private long rejected;
+
+    @JsonProperty("total_wait_ms")
+    private long totalWaitMs;
+}
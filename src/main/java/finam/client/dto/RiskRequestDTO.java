@@ -0,0 +1,31 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskRequestDTO {
+    @JsonProperty("account_ids")
+    private List<String> accountIds;
+
+    @JsonProperty("confidence")
+    private Double confidence;
+
+    @JsonProperty("lookback_days")
+    private Integer lookbackDays;
+
+    @JsonProperty("scenarios")
+    private List<StressScenarioDTO> scenarios;
+}
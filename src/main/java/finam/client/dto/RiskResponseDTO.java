@@ -0,0 +1,29 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RiskResponseDTO {
+    @JsonProperty("results")
+    private List<AccountRiskDTO> results;
+
+    @JsonProperty("errors")
+    private Map<String, String> errors;
+
+    @JsonProperty("elapsed_ms")
+    private long elapsedMs;
+}
@@ -0,0 +1,28 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StressScenarioDTO {
+    @JsonProperty("name")
+    private String name;
+
+    @JsonProperty("shocks")
+    private Map<String, Double> shocks;
+
+    @JsonProperty("default_shock")
+    private Double defaultShock;
+}
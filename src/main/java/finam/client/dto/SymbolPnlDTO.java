@@ -0,0 +1,38 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SymbolPnlDTO {
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("currency")
+    private String currency;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("average_price")
+    private ValueObjectDTO averagePrice;
+
+    @JsonProperty("last_price")
+    private ValueObjectDTO lastPrice;
+
+    @JsonProperty("realized_pnl")
+    private ValueObjectDTO realizedPnl;
+
+    @JsonProperty("unrealized_pnl")
+    private ValueObjectDTO unrealizedPnl;
+}
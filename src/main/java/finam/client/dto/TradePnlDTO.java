@@ -0,0 +1,41 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TradePnlDTO {
+    @JsonProperty("trade_id")
+    private String tradeId;
+
+    @JsonProperty("symbol")
+    private String symbol;
+
+    @JsonProperty("side")
+    private String side;
+
+    @JsonProperty("quantity")
+    private ValueObjectDTO quantity;
+
+    @JsonProperty("price")
+    private ValueObjectDTO price;
+
+    @JsonProperty("closed_quantity")
+    private ValueObjectDTO closedQuantity;
+
+    @JsonProperty("realized_pnl")
+    private ValueObjectDTO realizedPnl;
+
+    @JsonProperty("timestamp")
+    private String timestamp;
+}
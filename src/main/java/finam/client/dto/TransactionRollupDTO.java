@@ -0,0 +1,37 @@
+package finam.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import finam.client.enums.RollupPeriodEnum;
+import finam.client.enums.TransactionCategoryEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionRollupDTO {
+    @JsonProperty("account_id")
+    private String accountId;
+
+    @JsonProperty("category")
+    private TransactionCategoryEnum category;
+
+    @JsonProperty("period")
+    private RollupPeriodEnum period;
+
+    @JsonProperty("bucket")
+    private String bucket;
+
+    @JsonProperty("amount")
+    private CashItemDTO amount;
+
+    @JsonProperty("count")
+    private long count;
+}
@@ -0,0 +1,19 @@
+package finam.client.enums;
+
+/**
+ * Статус связанной заявки.
+ */
+public enum ContingentStatusEnum {
+    PENDING_ENTRY,
+    ACTIVE,
+    TRIGGERED,
+    CANCELED,
+    FAILED;
+
+    /**
+     * @return true, если заявка больше не ожидает срабатывания
+     */
+    public boolean isTerminal() {
+        return this == TRIGGERED || this == CANCELED || this == FAILED;
+    }
+}
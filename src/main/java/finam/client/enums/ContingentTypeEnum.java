@@ -0,0 +1,15 @@
+package finam.client.enums;
+
+/**
+ * Тип связанной заявки, исполняемой локально.
+ */
+public enum ContingentTypeEnum {
+    /**
+     * One-cancels-other: срабатывание одной ноги снимает остальные.
+     */
+    OCO,
+    /**
+     * Входной ордер, после исполнения которого выставляются тейк-профит и стоп-лосс как OCO.
+     */
+    BRACKET
+}
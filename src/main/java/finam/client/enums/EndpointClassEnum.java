@@ -0,0 +1,40 @@
+package finam.client.enums;
+
+import lombok.Getter;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Класс конечных точек внешнего API для ограничения частоты запросов. Порядок перечисления задаёт приоритет:
+ * при нехватке общего лимита запросы ордеров обслуживаются раньше запросов рыночных данных.
+ */
+@Getter
+public enum EndpointClassEnum {
+    ORDERS("orders"),
+    ACCOUNTS("accounts"),
+    TOOLS("tools"),
+    MARKET_DATA("market-data");
+
+    private final String key;
+
+    EndpointClassEnum(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Лимит ордеров расходуют только размещение и отмена ордеров; чтение ордеров относится к запросам счетов.
+     *
+     * @param method HTTP-метод запроса
+     * @param path   путь запроса к внешнему API
+     * @return класс конечной точки
+     */
+    public static EndpointClassEnum of(HttpMethod method, String path) {
+        if (path.startsWith("/v1/accounts/")) {
+            return path.contains("/orders") && (HttpMethod.POST.equals(method) || HttpMethod.DELETE.equals(method))
+                    ? ORDERS : ACCOUNTS;
+        }
+        if (path.startsWith("/v1/instruments/")) {
+            return MARKET_DATA;
+        }
+        return TOOLS;
+    }
+}
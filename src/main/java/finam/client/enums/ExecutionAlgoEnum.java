@@ -0,0 +1,9 @@
+package finam.client.enums;
+
+/**
+ * Алгоритм исполнения родительского ордера: равномерно по времени (TWAP) или по историческому профилю объёма (VWAP).
+ */
+public enum ExecutionAlgoEnum {
+    TWAP,
+    VWAP
+}
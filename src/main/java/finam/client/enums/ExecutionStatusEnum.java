@@ -0,0 +1,19 @@
+package finam.client.enums;
+
+/**
+ * Статус исполнения родительского ордера.
+ */
+public enum ExecutionStatusEnum {
+    SCHEDULED,
+    WORKING,
+    COMPLETED,
+    CANCELED,
+    FAILED;
+
+    /**
+     * @return true, если исполнение завершено
+     */
+    public boolean isTerminal() {
+        return this == COMPLETED || this == CANCELED || this == FAILED;
+    }
+}
@@ -0,0 +1,9 @@
+package finam.client.enums;
+
+/**
+ * Порядок сопоставления закрывающей сделки с открытыми лотами.
+ */
+public enum LotMethodEnum {
+    FIFO,
+    LIFO
+}
@@ -0,0 +1,10 @@
+package finam.client.enums;
+
+/**
+ * Тип порога маржинального монитора.
+ */
+public enum MarginAlertTypeEnum {
+    AVAILABLE_CASH_LOW,
+    UTILIZATION_HIGH,
+    MAINTENANCE_MARGIN_HIGH
+}
@@ -0,0 +1,38 @@
+package finam.client.enums;
+
+/**
+ * Тип события жизненного цикла ордера.
+ */
+public enum OrderEventTypeEnum {
+    NEW,
+    PARTIALLY_FILLED,
+    FILLED,
+    CANCELED,
+    REJECTED,
+    UPDATED;
+
+    /**
+     * @return тип события, соответствующий статусу ордера
+     */
+    public static OrderEventTypeEnum of(OrderStatusEnum status) {
+        if (status == null) {
+            return UPDATED;
+        }
+        if (status.isFilled()) {
+            return FILLED;
+        }
+        if (status.isCanceled()) {
+            return CANCELED;
+        }
+        if (status.isRejected()) {
+            return REJECTED;
+        }
+        if (status == OrderStatusEnum.ORDER_STATUS_PARTIALLY_FILLED) {
+            return PARTIALLY_FILLED;
+        }
+        if (status == OrderStatusEnum.ORDER_STATUS_NEW) {
+            return NEW;
+        }
+        return UPDATED;
+    }
+}
@@ -39,4 +39,74 @@ public enum OrderStatusEnum {
     OrderStatusEnum(int number) {
         this.number = number;
     }
+
+    /**
+     * @return true, если ордер в этом статусе больше не может измениться
+     */
+    public boolean isTerminal() {
+        return isFilled() || isCanceled() || isRejected();
+    }
+
+    /**
+     * @return true, если ордер исполнен полностью
+     */
+    public boolean isFilled() {
+        return switch (this) {
+            case ORDER_STATUS_FILLED, ORDER_STATUS_EXECUTED, ORDER_STATUS_SL_EXECUTED, ORDER_STATUS_TP_EXECUTED -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return true, если ордер снят: отменён, истёк, заменён или снят по окончании дня
+     */
+    public boolean isCanceled() {
+        return switch (this) {
+            case ORDER_STATUS_CANCELED, ORDER_STATUS_EXPIRED, ORDER_STATUS_DONE_FOR_DAY, ORDER_STATUS_REPLACED,
+                    ORDER_STATUS_DISABLED -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return true, если ордер отклонён брокером или биржей
+     */
+    public boolean isRejected() {
+        return switch (this) {
+            case ORDER_STATUS_REJECTED, ORDER_STATUS_FAILED, ORDER_STATUS_DENIED_BY_BROKER,
+                    ORDER_STATUS_REJECTED_BY_EXCHANGE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @return true, если ордер ещё не принят к исполнению
+     */
+    public boolean isPending() {
+        return switch (this) {
+            case ORDER_STATUS_PENDING_NEW, ORDER_STATUS_FORWARDING, ORDER_STATUS_WAIT, ORDER_STATUS_LINK_WAIT,
+                    ORDER_STATUS_WATCHING -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Допустимость перехода ордера из этого статуса в указанный. Из конечного статуса переходов нет,
+     * а частично исполненный ордер не может вернуться в статус нового или ожидающего.
+     *
+     * @param next следующий статус
+     * @return true, если переход допустим
+     */
+    public boolean canTransitionTo(OrderStatusEnum next) {
+        if (next == this) {
+            return true;
+        }
+        if (isTerminal() || next == ORDER_STATUS_UNSPECIFIED) {
+            return false;
+        }
+        if (this == ORDER_STATUS_PARTIALLY_FILLED) {
+            return next != ORDER_STATUS_NEW && !next.isPending();
+        }
+        return true;
+    }
 }
\ No newline at end of file
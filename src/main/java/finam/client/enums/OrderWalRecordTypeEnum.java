@@ -0,0 +1,34 @@
+package finam.client.enums;
+
+/**
+ * Тип записи журнала упреждающей записи ордеров.
+ */
+public enum OrderWalRecordTypeEnum {
+    /**
+     * Намерение разместить ордер; записывается до отправки.
+     */
+    INTENT,
+    /**
+     * Ответ внешнего сервиса на размещение.
+     */
+    ACK,
+    /**
+     * Внешний сервис отклонил размещение.
+     */
+    REJECTED,
+    /**
+     * Ордер без ответа найден во внешнем сервисе при сверке.
+     */
+    RECONCILED,
+    /**
+     * Ордер без ответа не найден во внешнем сервисе при сверке.
+     */
+    NOT_FOUND;
+
+    /**
+     * @return true, если запись завершает намерение
+     */
+    public boolean isResolution() {
+        return this != INTENT;
+    }
+}
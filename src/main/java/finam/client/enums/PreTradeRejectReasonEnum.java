@@ -0,0 +1,15 @@
+package finam.client.enums;
+
+/**
+ * Причина отклонения ордера предторговой проверкой рисков.
+ */
+public enum PreTradeRejectReasonEnum {
+    INVALID_ORDER,
+    LOT_SIZE,
+    TICK_SIZE,
+    PRICE_COLLAR,
+    MAX_NOTIONAL,
+    MAX_POSITION,
+    NO_QUOTE,
+    NO_ASSET
+}
@@ -0,0 +1,23 @@
+package finam.client.enums;
+
+import java.time.LocalDate;
+
+/**
+ * Период агрегирования транзакций.
+ */
+public enum RollupPeriodEnum {
+    DAY,
+    MONTH,
+    YEAR;
+
+    /**
+     * @return первая дата периода, содержащего указанную дату
+     */
+    public LocalDate bucketStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+}
@@ -0,0 +1,333 @@
+package finam.client.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import finam.client.dto.AccountTradeDTO;
+import finam.client.dto.JournalSyncResultDTO;
+import finam.client.dto.TransactionDTO;
+import finam.client.util.JournalFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Сервис локального журнала сделок и транзакций по счетам.
+ * Для каждого счёта на диске ведутся два файла только на добавление. Периодическая синхронизация
+ * запрашивает у API лишь данные после последней сохранённой метки времени (с небольшим перекрытием,
+ * повторы отбрасываются), а исторические запросы обслуживаются из журнала по индексу времени.
+ * Журнал счёта создаётся только синхронизацией; чтение по счёту без журнала ничего не создаёт на диске.
+ * Новые записи публикуются подписчикам через {@link #tradeUpdates()} и {@link #transactionUpdates()}.
+ */
+@Service
+@Slf4j
+public class AccountJournalService {
+
+    private static final String TRADES_FILE = "trades.ndjson";
+    private static final String TRANSACTIONS_FILE = "transactions.ndjson";
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, AccountJournal> journals = new ConcurrentHashMap<>();
+    private final Set<String> syncing = ConcurrentHashMap.newKeySet();
+
+    private final Sinks.Many<JournalEntry<AccountTradeDTO>> tradeSink =
+            Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<JournalEntry<TransactionDTO>> transactionSink =
+            Sinks.many().multicast().directBestEffort();
+
+    @Value("${journal.dir:./journal}")
+    private String journalDir;
+
+    @Value("${journal.accounts:}")
+    private List<String> configuredAccounts;
+
+    @Value("${journal.start.date:2020-01-01}")
+    private String startDate;
+
+    @Value("${journal.overlap.days:1}")
+    private int overlapDays;
+
+    public AccountJournalService(AccountService accountService, TokenDetailsService tokenDetailsService,
+                                 ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Открывает журналы счетов, уже существующие в каталоге journal.dir.
+     */
+    @PostConstruct
+    public void openExistingJournals() throws IOException {
+        Path root = Paths.get(journalDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> accounts = Files.list(root)) {
+            accounts.filter(Files::isDirectory)
+                    .map(dir -> dir.getFileName().toString())
+                    .forEach(this::journal);
+        }
+        log.info("Opened {} account journals in {}", journals.size(), root.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void closeJournals() {
+        journals.values().forEach(AccountJournal::close);
+    }
+
+    /**
+     * Периодическая синхронизация журналов всех счетов.
+     */
+    @Scheduled(fixedDelayString = "${journal.sync.interval.ms:300000}",
+            initialDelayString = "${journal.sync.initial.delay.ms:30000}")
+    public void syncAll() {
+        resolveAccounts()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(accountId -> sync(accountId).onErrorResume(e -> {
+                    log.error("Journal sync failed for account ID: {}", accountId, e);
+                    return Mono.empty();
+                }))
+                .onErrorResume(e -> {
+                    log.error("Journal sync failed", e);
+                    return Mono.empty();
+                })
+                .blockLast();
+    }
+
+    /**
+     * Инкрементальная синхронизация журнала счёта: запрашиваются сделки и транзакции начиная с даты
+     * последней сохранённой записи минус journal.overlap.days дней.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return количество добавленных записей
+     */
+    public Mono<JournalSyncResultDTO> sync(String accountId) {
+        return Mono.defer(() -> {
+            AccountJournal journal = journal(accountId);
+            if (!syncing.add(accountId)) {
+                return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Journal sync is already running for account " + accountId));
+            }
+            String endDate = LocalDate.now(ZoneOffset.UTC).plusDays(1).toString();
+
+            Mono<List<AccountTradeDTO>> trades = accountService
+                    .streamAccountTrades(accountId, syncStartDate(journal.trades()), endDate)
+                    .collectList()
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(fetched -> appendTrades(accountId, journal, fetched));
+
+            Mono<List<TransactionDTO>> transactions = accountService
+                    .streamAccountTransactions(accountId, syncStartDate(journal.transactions()), endDate)
+                    .collectList()
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(fetched -> appendTransactions(accountId, journal, fetched));
+
+            return Mono.zip(trades, transactions)
+                    .map(result -> {
+                        log.info("Journal synced for account ID: {}, {} trades and {} transactions added",
+                                accountId, result.getT1().size(), result.getT2().size());
+                        return JournalSyncResultDTO.builder()
+                                .accountId(accountId)
+                                .tradesAdded(result.getT1().size())
+                                .transactionsAdded(result.getT2().size())
+                                .tradesTotal(journal.trades().size())
+                                .transactionsTotal(journal.transactions().size())
+                                .build();
+                    })
+                    .doFinally(signal -> syncing.remove(accountId));
+        });
+    }
+
+    /**
+     * Сделки счёта из журнала за интервал [from, to).
+     *
+     * @return пусто, если журнал счёта не открыт
+     */
+    public Optional<List<AccountTradeDTO>> getTrades(String accountId, Instant from, Instant to) {
+        return Optional.ofNullable(journals.get(accountId)).map(journal -> read(journal.trades(), from, to));
+    }
+
+    /**
+     * Все сделки счёта из журнала в порядке их добавления.
+     */
+    public List<AccountTradeDTO> getAllTrades(String accountId) {
+        AccountJournal journal = journals.get(accountId);
+        if (journal == null) {
+            return List.of();
+        }
+        try {
+            return journal.trades().readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Все транзакции счёта из журнала в порядке их добавления.
+     */
+    public List<TransactionDTO> getAllTransactions(String accountId) {
+        AccountJournal journal = journals.get(accountId);
+        if (journal == null) {
+            return List.of();
+        }
+        try {
+            return journal.transactions().readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Транзакции счёта из журнала за интервал [from, to).
+     *
+     * @return пусто, если журнал счёта не открыт
+     */
+    public Optional<List<TransactionDTO>> getTransactions(String accountId, Instant from, Instant to) {
+        return Optional.ofNullable(journals.get(accountId)).map(journal -> read(journal.transactions(), from, to));
+    }
+
+    /**
+     * @return идентификаторы счетов, для которых открыт журнал
+     */
+    public Set<String> getJournaledAccounts() {
+        return Set.copyOf(journals.keySet());
+    }
+
+    /**
+     * Поток сделок, добавляемых в журнал при синхронизации.
+     */
+    public Flux<JournalEntry<AccountTradeDTO>> tradeUpdates() {
+        return tradeSink.asFlux();
+    }
+
+    /**
+     * Поток транзакций, добавляемых в журнал при синхронизации.
+     */
+    public Flux<JournalEntry<TransactionDTO>> transactionUpdates() {
+        return transactionSink.asFlux();
+    }
+
+    private List<AccountTradeDTO> appendTrades(String accountId, AccountJournal journal, List<AccountTradeDTO> fetched) {
+        try {
+            List<AccountTradeDTO> added = journal.trades().append(fetched);
+            added.forEach(trade -> tradeSink.emitNext(new JournalEntry<>(accountId, trade),
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100))));
+            return added;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<TransactionDTO> appendTransactions(String accountId, AccountJournal journal, List<TransactionDTO> fetched) {
+        try {
+            List<TransactionDTO> added = journal.transactions().append(fetched);
+            added.forEach(transaction -> transactionSink.emitNext(new JournalEntry<>(accountId, transaction),
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100))));
+            return added;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> List<T> read(JournalFile<T> file, Instant from, Instant to) {
+        try {
+            return file.read(from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String syncStartDate(JournalFile<?> file) {
+        return file.lastTimestamp()
+                .map(last -> LocalDate.ofInstant(last, ZoneOffset.UTC).minusDays(overlapDays).toString())
+                .orElse(startDate);
+    }
+
+    private Mono<List<String>> resolveAccounts() {
+        List<String> configured = configuredAccounts.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        return configured.isEmpty() ? tokenDetailsService.getAccountIds() : Mono.just(configured);
+    }
+
+    private AccountJournal journal(String accountId) {
+        return journals.computeIfAbsent(accountId, this::openJournal);
+    }
+
+    private AccountJournal openJournal(String accountId) {
+        String name = accountId.replaceAll("[^A-Za-z0-9_.-]", "_");
+        if (name.isEmpty() || name.equals(".") || name.equals("..")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid account ID for journal: " + accountId);
+        }
+        Path dir = Paths.get(journalDir, name);
+        // Перекрытие журнала на сутки больше, чем перекрытие запроса: API принимает границы с точностью до дня.
+        Duration overlap = Duration.ofDays(overlapDays + 1L);
+
+        JournalFile<AccountTradeDTO> trades = new JournalFile<>(dir.resolve(TRADES_FILE), objectMapper,
+                AccountTradeDTO.class, trade -> trade.getTimestamp() == null ? null
+                : OffsetDateTime.parse(trade.getTimestamp()).toInstant(), AccountTradeDTO::getTradeId, overlap);
+        JournalFile<TransactionDTO> transactions = new JournalFile<>(dir.resolve(TRANSACTIONS_FILE), objectMapper,
+                TransactionDTO.class, transaction -> transaction.getTimestamp() == null ? null
+                : transaction.getTimestamp().toInstant(), TransactionDTO::getId, overlap);
+
+        try {
+            trades.open();
+            transactions.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal for account " + accountId, e);
+        }
+        log.info("Opened journal for account ID: {}, {} trades, {} transactions",
+                accountId, trades.size(), transactions.size());
+        return new AccountJournal(trades, transactions);
+    }
+
+    /**
+     * Запись журнала вместе со счётом, к которому она относится.
+     */
+    public record JournalEntry<T>(String accountId, T record) {
+    }
+
+    private record AccountJournal(JournalFile<AccountTradeDTO> trades, JournalFile<TransactionDTO> transactions) {
+
+        void close() {
+            List<IOException> errors = new ArrayList<>();
+            for (JournalFile<?> file : List.of(trades, transactions)) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    errors.add(e);
+                }
+            }
+            if (!errors.isEmpty()) {
+                log.warn("Failed to close account journal: {}", errors.get(0).getMessage());
+            }
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package finam.client.service;
 
 import finam.client.component.DateConverter;
+import finam.client.dto.AccountTradeDTO;
 import finam.client.dto.GetAccountResponseDTO;
 import finam.client.dto.TradesResponseDTO;
+import finam.client.dto.TransactionDTO;
 import finam.client.dto.TransactionsResponseDTO;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 /**
  *Сервис для работы с аккаунтами пользователя.
  */
@@ -19,6 +38,12 @@ public class AccountService {
     private final DateConverter dateConverter;
     private final WebClient authenticatedWebClient;
 
+    @Value("${accounts.history.window.days:30}")
+    private int historyWindowDays;
+
+    @Value("${accounts.history.concurrency:4}")
+    private int historyConcurrency;
+
     public AccountService(DateConverter dateConverter, @Qualifier("authenticatedWebClient") WebClient authenticatedWebClient) {
         this.dateConverter = dateConverter;
         this.authenticatedWebClient = authenticatedWebClient;
@@ -75,4 +100,143 @@ public class AccountService {
                 .retrieve()
                 .bodyToMono(TradesResponseDTO.class);
     }
+
+    /**
+     * Потоковое получение транзакций по счету за длительный период.
+     * Период разбивается на окна по accounts.history.window.days дней, окна запрашиваются параллельно
+     * (не более accounts.history.concurrency одновременно). Транзакции выдаются в порядке времени
+     * без повторов по идентификатору.
+     *
+     * @param accountId   ID счета - идентификационный номер аккаунта.
+     * @param startTime   начало периода в формате yyyy-MM-dd.
+     * @param endTime     конец периода в формате yyyy-MM-dd.
+     * @return Поток транзакций, упорядоченный по времени.
+     */
+    public Flux<TransactionDTO> streamAccountTransactions(String accountId, String startTime, String endTime) {
+        return fetchWindowed(startTime, endTime,
+                (from, to) -> getAccountTransactions(accountId, from, to)
+                        .mapNotNull(TransactionsResponseDTO::getTransactions),
+                Comparator.comparing(TransactionDTO::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())),
+                TransactionDTO::getId);
+    }
+
+    /**
+     * Получение транзакций по счету за длительный период одним ответом.
+     *
+     * @param accountId   ID счета - идентификационный номер аккаунта.
+     * @param startTime   начало периода в формате yyyy-MM-dd.
+     * @param endTime     конец периода в формате yyyy-MM-dd.
+     * @return Объект TransactionsResponseDTO с транзакциями всех окон, упорядоченными по времени,
+     * или пустой результат, если транзакций за период нет.
+     */
+    public Mono<TransactionsResponseDTO> collectAccountTransactions(String accountId, String startTime, String endTime) {
+        return streamAccountTransactions(accountId, startTime, endTime)
+                .collectList()
+                .filter(transactions -> !transactions.isEmpty())
+                .map(TransactionsResponseDTO::new);
+    }
+
+    /**
+     * Потоковое получение сделок по счету за длительный период.
+     * Период разбивается на окна так же, как для транзакций; сделки выдаются в порядке времени
+     * без повторов по идентификатору сделки.
+     *
+     * @param accountId   ID счета - уникальный идентификатор аккаунта.
+     * @param startTime   начало интервала в формате yyyy-MM-dd.
+     * @param endTime     конец интервала в формате yyyy-MM-dd.
+     * @return Поток сделок, упорядоченный по времени.
+     */
+    public Flux<AccountTradeDTO> streamAccountTrades(String accountId, String startTime, String endTime) {
+        return fetchWindowed(startTime, endTime,
+                (from, to) -> getAccountTrades(accountId, from, to)
+                        .mapNotNull(TradesResponseDTO::getTrades),
+                Comparator.comparing(trade -> parseTimestamp(trade.getTimestamp()),
+                        Comparator.nullsFirst(Comparator.naturalOrder())),
+                AccountTradeDTO::getTradeId);
+    }
+
+    /**
+     * Получение сделок по счету за длительный период одним ответом.
+     *
+     * @param accountId   ID счета - уникальный идентификатор аккаунта.
+     * @param startTime   начало интервала в формате yyyy-MM-dd.
+     * @param endTime     конец интервала в формате yyyy-MM-dd.
+     * @return Объект TradesResponseDTO со сделками всех окон, упорядоченными по времени,
+     * или пустой результат, если сделок за период нет.
+     */
+    public Mono<TradesResponseDTO> collectAccountTrades(String accountId, String startTime, String endTime) {
+        return streamAccountTrades(accountId, startTime, endTime)
+                .collectList()
+                .filter(trades -> !trades.isEmpty())
+                .map(TradesResponseDTO::new);
+    }
+
+    /**
+     * Разбивает период на окна и запрашивает их параллельно.
+     * Окна не пересекаются по времени, поэтому сортировки внутри каждого окна и сохранения порядка окон
+     * достаточно для общего упорядочивания. Повтор записи возможен только на границе соседних окон,
+     * поэтому идентификаторы хранятся лишь для предыдущего окна, а не для всего периода.
+     *
+     * @throws ResponseStatusException 400, если дата не в формате yyyy-MM-dd
+     */
+    private <T> Flux<T> fetchWindowed(String startTime, String endTime,
+                                      BiFunction<String, String, Mono<List<T>>> fetcher,
+                                      Comparator<T> order, Function<T, String> idExtractor) {
+        return Flux.defer(() -> {
+            List<LocalDate[]> windows = splitIntoWindows(parseDate(startTime), parseDate(endTime));
+            Set<Object> previous = new HashSet<>();
+
+            return Flux.fromIterable(windows)
+                    .flatMapSequential(window -> fetcher.apply(window[0].toString(), window[1].toString())
+                            .map(items -> {
+                                List<T> sorted = new ArrayList<>(items);
+                                sorted.sort(order);
+                                return sorted;
+                            })
+                            .defaultIfEmpty(List.of()), historyConcurrency)
+                    .concatMapIterable(items -> {
+                        Set<Object> current = new HashSet<>();
+                        List<T> unique = new ArrayList<>(items.size());
+                        for (T item : items) {
+                            Object id = Objects.requireNonNullElse((Object) idExtractor.apply(item), item);
+                            if (!previous.contains(id) && current.add(id)) {
+                                unique.add(item);
+                            }
+                        }
+                        previous.clear();
+                        previous.addAll(current);
+                        return unique;
+                    });
+        });
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date must be in yyyy-MM-dd format: " + date, e);
+        }
+    }
+
+    private List<LocalDate[]> splitIntoWindows(LocalDate start, LocalDate end) {
+        List<LocalDate[]> windows = new ArrayList<>();
+        if (!start.isBefore(end)) {
+            windows.add(new LocalDate[]{start, end});
+            return windows;
+        }
+        LocalDate from = start;
+        while (from.isBefore(end)) {
+            LocalDate to = from.plusDays(historyWindowDays);
+            if (to.isAfter(end)) {
+                to = end;
+            }
+            windows.add(new LocalDate[]{from, to});
+            from = to;
+        }
+        return windows;
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        return timestamp == null ? null : OffsetDateTime.parse(timestamp).toInstant();
+    }
 }
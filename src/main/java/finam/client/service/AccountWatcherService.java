@@ -0,0 +1,225 @@
+package finam.client.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import finam.client.dto.AccountUpdateDTO;
+import finam.client.dto.CashItemDTO;
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.PositionDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Сервис наблюдения за счетами. Для каждого счёта, на который есть подписчики, выполняется ровно один
+ * периодический опрос /v1/accounts/{accountId}, независимо от числа подписчиков. Очередной снимок
+ * сравнивается с предыдущим, и подписчикам передаются только изменившиеся поля: позиции, денежные
+ * средства и блоки маржинальных требований. Когда подписчиков не остаётся, опрос останавливается.
+ */
+@Service
+@Slf4j
+public class AccountWatcherService {
+
+    private final AccountService accountService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+
+    @Value("${accounts.watch.interval.ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${accounts.watch.grace.ms:5000}")
+    private long graceMs;
+
+    public AccountWatcherService(AccountService accountService, ObjectMapper objectMapper) {
+        this.accountService = accountService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Поток изменений счёта. Первым событием подписчик получает полный текущий снимок (если он уже известен),
+     * далее только изменения. Снимок берётся из того же потока, что и изменения, поэтому ни одно изменение
+     * между снимком и подпиской не теряется.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return поток изменений
+     */
+    public Flux<AccountUpdateDTO> watch(String accountId) {
+        return Flux.defer(() -> watch0(accountId).changes.index()
+                .map(indexed -> indexed.getT1() == 0
+                        ? fullUpdate(accountId, indexed.getT2().sequence(), indexed.getT2().snapshot())
+                        : indexed.getT2().update()));
+    }
+
+    /**
+     * Поток снимков счёта: текущий снимок (если известен) и далее каждый изменившийся снимок.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return поток снимков
+     */
+    public Flux<GetAccountResponseDTO> snapshots(String accountId) {
+        return Flux.defer(() -> watch0(accountId).changes.map(Change::snapshot));
+    }
+
+    private Watch watch0(String accountId) {
+        return watches.computeIfAbsent(accountId, Watch::new);
+    }
+
+    /**
+     * Сравнение снимков. При отсутствии предыдущего снимка возвращается полный снимок.
+     */
+    private AccountUpdateDTO diff(String accountId, long sequence, GetAccountResponseDTO previous,
+                                  GetAccountResponseDTO current) {
+        if (previous == null) {
+            return fullUpdate(accountId, sequence, current);
+        }
+        AccountUpdateDTO.AccountUpdateDTOBuilder update = AccountUpdateDTO.builder()
+                .accountId(accountId)
+                .sequence(sequence);
+        boolean changed = false;
+
+        if (!Objects.equals(previous.getStatus(), current.getStatus())) {
+            update.status(current.getStatus());
+            changed = true;
+        }
+        if (!sameJson(previous.getEquity(), current.getEquity())) {
+            update.equity(current.getEquity());
+            changed = true;
+        }
+        if (!sameJson(previous.getUnrealizedProfit(), current.getUnrealizedProfit())) {
+            update.unrealizedProfit(current.getUnrealizedProfit());
+            changed = true;
+        }
+
+        KeyedDiff<PositionDTO> positions = keyedDiff(previous.getPositions(), current.getPositions(), PositionDTO::getSymbol);
+        if (!positions.isEmpty()) {
+            update.positions(positions.changed().isEmpty() ? null : positions.changed());
+            update.removedPositions(positions.removed().isEmpty() ? null : positions.removed());
+            changed = true;
+        }
+        KeyedDiff<CashItemDTO> cash = keyedDiff(previous.getCash(), current.getCash(), CashItemDTO::getCurrencyCode);
+        if (!cash.isEmpty()) {
+            update.cash(cash.changed().isEmpty() ? null : cash.changed());
+            update.removedCash(cash.removed().isEmpty() ? null : cash.removed());
+            changed = true;
+        }
+
+        if (!sameJson(previous.getPortfolioMc(), current.getPortfolioMc())) {
+            update.portfolioMc(current.getPortfolioMc());
+            changed = true;
+        }
+        if (!sameJson(previous.getPortfolioMct(), current.getPortfolioMct())) {
+            update.portfolioMct(current.getPortfolioMct());
+            changed = true;
+        }
+        if (!sameJson(previous.getPortfolioForts(), current.getPortfolioForts())) {
+            update.portfolioForts(current.getPortfolioForts());
+            changed = true;
+        }
+        return changed ? update.build() : null;
+    }
+
+    private static AccountUpdateDTO fullUpdate(String accountId, long sequence, GetAccountResponseDTO snapshot) {
+        return AccountUpdateDTO.builder()
+                .accountId(accountId)
+                .sequence(sequence)
+                .snapshot(true)
+                .status(snapshot.getStatus())
+                .equity(snapshot.getEquity())
+                .unrealizedProfit(snapshot.getUnrealizedProfit())
+                .positions(snapshot.getPositions())
+                .cash(snapshot.getCash())
+                .portfolioMc(snapshot.getPortfolioMc())
+                .portfolioMct(snapshot.getPortfolioMct())
+                .portfolioForts(snapshot.getPortfolioForts())
+                .build();
+    }
+
+    private <T> KeyedDiff<T> keyedDiff(List<T> previous, List<T> current, Function<T, String> key) {
+        Map<String, JsonNode> before = new LinkedHashMap<>();
+        if (previous != null) {
+            previous.forEach(item -> before.put(key.apply(item), objectMapper.valueToTree(item)));
+        }
+        List<T> changed = new ArrayList<>();
+        if (current != null) {
+            for (T item : current) {
+                JsonNode old = before.remove(key.apply(item));
+                if (old == null || !old.equals(objectMapper.valueToTree(item))) {
+                    changed.add(item);
+                }
+            }
+        }
+        return new KeyedDiff<>(changed, new ArrayList<>(before.keySet()));
+    }
+
+    private boolean sameJson(Object previous, Object current) {
+        if (previous == null || current == null) {
+            return previous == current;
+        }
+        return objectMapper.valueToTree(previous).equals(objectMapper.valueToTree(current));
+    }
+
+    private record KeyedDiff<T>(List<T> changed, List<String> removed) {
+
+        boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    private record Change(long sequence, GetAccountResponseDTO snapshot, AccountUpdateDTO update) {
+    }
+
+    /**
+     * Общий опрос одного счёта, разделяемый всеми подписчиками. Последнее изменение вместе с полным снимком
+     * хранится для новых подписчиков (replay(1)); после остановки опроса запись удаляется из реестра.
+     */
+    private final class Watch {
+
+        private final AtomicReference<Change> last = new AtomicReference<>();
+        private final AtomicLong sequence = new AtomicLong();
+        private final Flux<Change> changes;
+
+        Watch(String accountId) {
+            this.changes = Flux.interval(Duration.ZERO, Duration.ofMillis(pollIntervalMs))
+                    .onBackpressureDrop()
+                    .concatMap(tick -> accountService.getAccountInfo(accountId)
+                            .onErrorResume(e -> {
+                                log.warn("Account watch poll failed for account ID: {}: {}", accountId, e.getMessage());
+                                return Mono.empty();
+                            }))
+                    .<Change>handle((snapshot, sink) -> {
+                        Change previous = last.get();
+                        long next = sequence.get() + 1;
+                        AccountUpdateDTO update = diff(accountId, next,
+                                previous == null ? null : previous.snapshot(), snapshot);
+                        if (update != null) {
+                            sequence.set(next);
+                            Change change = new Change(next, snapshot, update);
+                            last.set(change);
+                            sink.next(change);
+                        }
+                    })
+                    .doOnSubscribe(s -> log.info("Account watch started for account ID: {}", accountId))
+                    .doFinally(signal -> {
+                        last.set(null);
+                        watches.remove(accountId, this);
+                        log.info("Account watch stopped for account ID: {}", accountId);
+                    })
+                    .replay(1)
+                    .refCount(1, Duration.ofMillis(graceMs));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package finam.client.service;
+
+import finam.client.dto.AssetDetailsResponseDTO;
+import finam.client.dto.AssetsDTO;
+import finam.client.dto.AssetsResponseDTO;
+import finam.client.dto.GetAssetResponseDTO;
+import finam.client.util.TtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Сервис фоновой загрузки статических параметров финансовых инструментов
+ * (площадка, точность цены, шаг цены, размер лота, валюта котировки).
+ * Параметры загружаются заранее для всего каталога активов или для заданного набора символов
+ * и хранятся в памяти, так что расчёты по ордерам не обращаются к внешнему API.
+ * Символы, которые не удалось загрузить, не запрашиваются повторно при поиске в течение asset.hydrator.miss.ttl.ms.
+ * Счёт для запросов определяется один раз и запоминается.
+ */
+@Service
+@Slf4j
+public class AssetHydratorService {
+
+    private static final int MISS_CACHE_MAX_SIZE = 10_000;
+
+    private final ToolsService toolsService;
+    private final TokenDetailsService tokenDetailsService;
+
+    private final Map<String, GetAssetResponseDTO> assets = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean hydrating = new AtomicBoolean();
+    private final TtlCache<String, Boolean> misses;
+    private volatile String accountId;
+
+    @Value("${asset.hydrator.universe:}")
+    private List<String> universe;
+
+    @Value("${asset.hydrator.account.id:}")
+    private String configuredAccountId;
+
+    @Value("${asset.hydrator.concurrency:8}")
+    private int concurrency;
+
+    public AssetHydratorService(ToolsService toolsService, TokenDetailsService tokenDetailsService,
+                                @Value("${asset.hydrator.miss.ttl.ms:60000}") long missTtlMs) {
+        this.toolsService = toolsService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.misses = new TtlCache<>(Duration.ofMillis(missTtlMs), false, MISS_CACHE_MAX_SIZE);
+    }
+
+    /**
+     * Возвращает загруженные параметры инструмента без обращения к внешнему API.
+     *
+     * @param symbol символ финансового инструмента
+     * @return параметры инструмента, если они уже загружены
+     */
+    public Optional<GetAssetResponseDTO> getAsset(String symbol) {
+        return Optional.ofNullable(assets.get(symbol));
+    }
+
+    /**
+     * Пакетный поиск параметров инструментов в памяти.
+     * Отсутствующие символы ставятся в очередь фоновой загрузки и возвращаются в поле missing;
+     * символы с недавней неудачной загрузкой возвращаются в missing без повторного запроса.
+     *
+     * @param symbols символы финансовых инструментов
+     * @return найденные параметры и список отсутствующих символов
+     */
+    public AssetDetailsResponseDTO getAssets(Collection<String> symbols) {
+        List<GetAssetResponseDTO> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+
+        for (String symbol : symbols) {
+            GetAssetResponseDTO asset = assets.get(symbol);
+            if (asset != null) {
+                found.add(asset);
+            } else {
+                missing.add(symbol);
+            }
+        }
+
+        List<String> toFetch = missing.stream().filter(symbol -> misses.getIfPresent(symbol).isEmpty()).toList();
+        if (!toFetch.isEmpty()) {
+            log.debug("{} assets are not hydrated yet, scheduling background fetch", toFetch.size());
+            hydrateSymbols(toFetch).subscribe(
+                    count -> log.debug("Hydrated {} of {} missing assets", count, toFetch.size()),
+                    e -> log.warn("Background asset fetch failed: {}", e.getMessage()));
+        }
+
+        return AssetDetailsResponseDTO.builder()
+                .assets(found)
+                .missing(missing)
+                .build();
+    }
+
+    /**
+     * Периодическая загрузка параметров всех инструментов.
+     * Загрузка выполняется асинхронно, повторный запуск пропускается, пока не завершён предыдущий.
+     */
+    @Scheduled(fixedDelayString = "${asset.hydrator.refresh.interval.ms:3600000}",
+            initialDelayString = "${asset.hydrator.initial.delay.ms:15000}")
+    public void hydrate() {
+        if (!hydrating.compareAndSet(false, true)) {
+            log.info("Asset hydration is already in progress, skipping");
+            return;
+        }
+
+        log.info("Starting asset hydration");
+        long startedAt = System.currentTimeMillis();
+
+        resolveUniverse()
+                .flatMap(this::hydrateSymbols)
+                .doFinally(signal -> hydrating.set(false))
+                .subscribe(
+                        count -> log.info("Asset hydration completed: {} assets in {} ms, {} cached in total",
+                                count, System.currentTimeMillis() - startedAt, assets.size()),
+                        e -> log.error("Asset hydration failed", e));
+    }
+
+    /**
+     * Загружает параметры указанных инструментов с ограничением числа одновременных запросов.
+     * Символы, загрузка которых уже выполняется, пропускаются.
+     *
+     * @param symbols символы финансовых инструментов
+     * @return количество успешно загруженных инструментов
+     */
+    private Mono<Long> hydrateSymbols(Collection<String> symbols) {
+        return resolveAccountId()
+                .flatMap(accountId -> Flux.fromIterable(symbols)
+                        .filter(symbol -> pending.putIfAbsent(symbol, Boolean.TRUE) == null)
+                        .flatMap(symbol -> toolsService.getAsset(symbol, accountId)
+                                .mapNotNull(ResponseEntity::getBody)
+                                .doOnNext(asset -> {
+                                    assets.put(symbol, asset);
+                                    misses.invalidate(symbol);
+                                })
+                                .switchIfEmpty(Mono.fromRunnable(() -> misses.put(symbol, Boolean.TRUE)))
+                                .onErrorResume(e -> {
+                                    log.warn("Failed to hydrate asset {}: {}", symbol, e.getMessage());
+                                    misses.put(symbol, Boolean.TRUE);
+                                    return Mono.empty();
+                                })
+                                .doFinally(signal -> pending.remove(symbol)), concurrency)
+                        .count());
+    }
+
+    private Mono<List<String>> resolveUniverse() {
+        List<String> configured = universe.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        if (!configured.isEmpty()) {
+            return Mono.just(configured);
+        }
+        return toolsService.getAssets()
+                .mapNotNull(ResponseEntity::getBody)
+                .mapNotNull(AssetsResponseDTO::getAssets)
+                .map(list -> list.stream().map(AssetsDTO::getSymbol).filter(Objects::nonNull).toList());
+    }
+
+    private Mono<String> resolveAccountId() {
+        if (configuredAccountId != null && !configuredAccountId.isBlank()) {
+            return Mono.just(configuredAccountId);
+        }
+        String resolved = accountId;
+        if (resolved != null) {
+            return Mono.just(resolved);
+        }
+        return tokenDetailsService.getAccountIds()
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.error(new IllegalStateException("No accounts available for asset hydration"))
+                        : Mono.just(ids.get(0)))
+                .doOnNext(id -> accountId = id);
+    }
+}
@@ -0,0 +1,116 @@
+package finam.client.service;
+
+import finam.client.dto.BulkAssetParamsResponseDTO;
+import finam.client.dto.GetAssetParamsResponseDTO;
+import finam.client.util.TtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис пакетного получения параметров финансовых инструментов.
+ * Запросы к API выполняются параллельно с ограничением числа одновременных запросов,
+ * результаты кэшируются по паре (аккаунт, инструмент) на заданное время.
+ */
+@Service
+@Slf4j
+public class AssetParamsService {
+
+    private final ToolsService toolsService;
+    private final TtlCache<AssetParamsKey, GetAssetParamsResponseDTO> cache;
+    private final int concurrency;
+
+    public AssetParamsService(ToolsService toolsService,
+                              @Value("${asset.params.cache.ttl.ms:60000}") long ttlMs,
+                              @Value("${asset.params.concurrency:16}") int concurrency) {
+        this.toolsService = toolsService;
+        this.cache = new TtlCache<>(Duration.ofMillis(ttlMs));
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Получение параметров для набора инструментов одного аккаунта.
+     * Порядок результатов соответствует порядку символов в запросе, повторяющиеся символы отбрасываются.
+     * Ошибка по отдельному инструменту не прерывает обработку остальных и возвращается в поле errors.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param symbols   символы финансовых инструментов
+     * @return параметры найденных инструментов и ошибки по остальным или ошибка {@link ResponseStatusException} 400,
+     * если не задан аккаунт, список символов не задан или содержит пустой символ
+     */
+    public Mono<BulkAssetParamsResponseDTO> getAssetParams(String accountId, List<String> symbols) {
+        if (accountId == null || accountId.isBlank()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "account_id is required"));
+        }
+        if (symbols == null || symbols.stream().anyMatch(symbol -> symbol == null || symbol.isBlank())) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "symbols must be a list of non-empty symbols"));
+        }
+        List<String> uniqueSymbols = new ArrayList<>(new LinkedHashSet<>(symbols));
+        log.info("Fetching parameters for {} assets, account ID: {}", uniqueSymbols.size(), accountId);
+
+        return Flux.fromIterable(uniqueSymbols)
+                .flatMapSequential(symbol -> cache.get(new AssetParamsKey(accountId, symbol), this::load)
+                        .map(params -> new ParamsResult(symbol, params, null))
+                        .defaultIfEmpty(new ParamsResult(symbol, null, "Asset parameters not found"))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to fetch parameters for asset {}: {}", symbol, e.getMessage());
+                            return Mono.just(new ParamsResult(symbol, null, e.getMessage()));
+                        }), concurrency)
+                .collectList()
+                .map(results -> {
+                    List<GetAssetParamsResponseDTO> params = new ArrayList<>();
+                    Map<String, String> errors = new LinkedHashMap<>();
+                    for (ParamsResult result : results) {
+                        if (result.params() != null) {
+                            params.add(result.params());
+                        } else {
+                            errors.put(result.symbol(), result.error());
+                        }
+                    }
+                    return BulkAssetParamsResponseDTO.builder()
+                            .accountId(accountId)
+                            .params(params)
+                            .errors(errors)
+                            .build();
+                });
+    }
+
+    /**
+     * Сброс кэша параметров.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param symbol    символ инструмента; если не указан, сбрасываются все записи аккаунта
+     */
+    public void invalidate(String accountId, String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            log.info("Invalidating cached asset parameters for account ID: {}", accountId);
+            cache.invalidateIf(key -> key.accountId().equals(accountId));
+        } else {
+            log.info("Invalidating cached parameters for asset: {}, account ID: {}", symbol, accountId);
+            cache.invalidate(new AssetParamsKey(accountId, symbol));
+        }
+    }
+
+    private Mono<GetAssetParamsResponseDTO> load(AssetParamsKey key) {
+        return toolsService.getAssetParam(key.symbol(), key.accountId())
+                .mapNotNull(ResponseEntity::getBody);
+    }
+
+    private record AssetParamsKey(String accountId, String symbol) {
+    }
+
+    private record ParamsResult(String symbol, GetAssetParamsResponseDTO params, String error) {
+    }
+}
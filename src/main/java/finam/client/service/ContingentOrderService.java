@@ -0,0 +1,599 @@
+package finam.client.service;
+
+import finam.client.dto.ContingentLegDTO;
+import finam.client.dto.ContingentOrderDTO;
+import finam.client.dto.ContingentOrderRequestDTO;
+import finam.client.dto.ContingentStatsDTO;
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderEventDTO;
+import finam.client.dto.QuoteDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.ContingentStatusEnum;
+import finam.client.enums.ContingentTypeEnum;
+import finam.client.enums.OrderEventTypeEnum;
+import finam.client.enums.OrderTypeEnum;
+import finam.client.enums.SideEnum;
+import finam.client.enums.StopConditionEnum;
+import finam.client.enums.TimeInForceEnum;
+import finam.client.util.FixedPoint;
+import finam.client.util.TriggerBook;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервис локальной эмуляции связанных заявок OCO и bracket, которых нет во внешнем API.
+ * Уровни срабатывания ног хранятся в книгах {@link TriggerBook} по инструментам. На каждое обновление котировки
+ * из {@link QuoteCacheService} проверяется только книга этого инструмента: сработавшие ноги извлекаются
+ * за O(log n), по первой из них сразу отправляется дочерний ордер, а остальные ноги заявки снимаются.
+ * Bracket сначала выставляет входной ордер и взводит тейк-профит и стоп-лосс после его полного исполнения,
+ * которое определяется по событиям {@link OrderTrackerService}; если входной ордер снят после частичного
+ * исполнения, ноги взводятся на исполненный объём.
+ * Цена срабатывания — цена для переоценки ({@link QuoteCacheService#markPrice(QuoteDTO)}); задержка реакции
+ * ограничена периодом опроса котировок quotes.poll.interval.ms. Котировки старше contingent.quote.max.age.ms
+ * по биржевому времени или без времени не проверяются: ноги остаются взведёнными до свежей котировки.
+ * Заявки и триггеры хранятся только в памяти и не переживают перезапуск: при остановке приложения
+ * незавершённые заявки записываются в лог с уровнем WARN, их ноги нужно выставить заново.
+ */
+@Service
+@Slf4j
+public class ContingentOrderService {
+
+    private final OrdersService ordersService;
+    private final OrderTrackerService orderTrackerService;
+    private final QuoteCacheService quoteCacheService;
+    private final AccountService accountService;
+
+    private final Map<String, Contingent> contingents = new ConcurrentHashMap<>();
+    private final Map<String, TriggerBook<Leg>> books = new ConcurrentHashMap<>();
+    private final Map<String, Contingent> pendingEntries = new ConcurrentHashMap<>();
+    private final LongAdder triggered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder triggerToSendNanos = new LongAdder();
+    private final AtomicLong maxTriggerToSendNanos = new AtomicLong();
+    private Disposable quoteSubscription;
+    private Disposable eventSubscription;
+
+    @Value("${contingent.max.active:10000}")
+    private int maxActive;
+
+    @Value("${contingent.retention.ms:86400000}")
+    private long retentionMs;
+
+    @Value("${contingent.quote.max.age.ms:10000}")
+    private long quoteMaxAgeMs;
+
+    public ContingentOrderService(OrdersService ordersService, OrderTrackerService orderTrackerService,
+                                  QuoteCacheService quoteCacheService, AccountService accountService) {
+        this.ordersService = ordersService;
+        this.orderTrackerService = orderTrackerService;
+        this.quoteCacheService = quoteCacheService;
+        this.accountService = accountService;
+    }
+
+    /**
+     * Подписка на котировки и события ордеров после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        quoteSubscription = quoteCacheService.updates()
+                .subscribe(this::onQuote, e -> log.error("Contingent order quote stream terminated", e));
+        eventSubscription = orderTrackerService.events()
+                .subscribe(this::onOrderEvent, e -> log.error("Contingent order event stream terminated", e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (quoteSubscription != null) {
+            quoteSubscription.dispose();
+        }
+        if (eventSubscription != null) {
+            eventSubscription.dispose();
+        }
+        contingents.values().stream()
+                .filter(contingent -> !contingent.status.get().isTerminal())
+                .forEach(contingent -> log.warn("Dropping {} contingent {} for account ID: {} on {} at shutdown,"
+                                + " its legs are not persisted and must be re-submitted: {}", contingent.status.get(),
+                        contingent.id, contingent.accountId, contingent.symbol, contingent.legs.stream()
+                                .map(leg -> leg.side + " " + FixedPoint.format(leg.exitQuantity()) + " @ "
+                                        + FixedPoint.format(leg.level))
+                                .toList()));
+    }
+
+    /**
+     * Принимает связанную заявку. OCO взводится сразу, bracket — после исполнения входного ордера.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param request   параметры связанной заявки
+     * @return состояние заявки
+     */
+    public Mono<ContingentOrderDTO> submit(String accountId, ContingentOrderRequestDTO request) {
+        Contingent contingent;
+        try {
+            contingent = validate(accountId, request);
+        } catch (ResponseStatusException e) {
+            return Mono.error(e);
+        } catch (NumberFormatException | ArithmeticException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed number: " + e.getMessage(), e));
+        }
+        contingents.put(contingent.id, contingent);
+        if (contingent.type == ContingentTypeEnum.OCO) {
+            arm(contingent);
+            return Mono.fromSupplier(contingent::toDto);
+        }
+        OrderDTO entry = request.getEntry();
+        entry.setAccountId(accountId);
+        entry.setSymbol(contingent.symbol);
+        entry.setQuantity(value(contingent.quantity));
+        if (entry.getClientOrderId() == null) {
+            entry.setClientOrderId(contingent.shortId() + "-entry");
+        }
+        return ordersService.placeOrder(entry, accountId)
+                .map(state -> {
+                    contingent.entryOrderId = state.getOrderId();
+                    pendingEntries.put(state.getOrderId(), contingent);
+                    orderTrackerService.track(accountId, state);
+                    if (state.getStatus() != null && state.getStatus().isFilled()) {
+                        onEntryFilled(contingent);
+                    } else if (state.getStatus() != null && state.getStatus().isTerminal()) {
+                        onEntryTerminated(contingent, state.getStatus().name());
+                    }
+                    return contingent.toDto();
+                })
+                .doOnError(e -> {
+                    contingent.error = e.getMessage();
+                    contingent.finish(ContingentStatusEnum.PENDING_ENTRY, ContingentStatusEnum.FAILED);
+                });
+    }
+
+    /**
+     * @return связанные заявки счёта
+     */
+    public List<ContingentOrderDTO> getContingents(String accountId) {
+        return contingents.values().stream()
+                .filter(contingent -> contingent.accountId.equals(accountId))
+                .sorted(Comparator.comparing(contingent -> contingent.createdAt))
+                .map(Contingent::toDto)
+                .toList();
+    }
+
+    /**
+     * @return состояние связанной заявки
+     */
+    public Optional<ContingentOrderDTO> getContingent(String accountId, String contingentId) {
+        return find(accountId, contingentId).map(Contingent::toDto);
+    }
+
+    /**
+     * Отмена связанной заявки: ноги снимаются, невыполненный входной ордер bracket отменяется.
+     *
+     * @param accountId    уникальный идентификатор аккаунта
+     * @param contingentId идентификатор заявки
+     * @return состояние заявки или пустой Optional, если заявка не найдена
+     */
+    public Optional<ContingentOrderDTO> cancel(String accountId, String contingentId) {
+        return find(accountId, contingentId).map(contingent -> {
+            if (contingent.finish(ContingentStatusEnum.ACTIVE, ContingentStatusEnum.CANCELED)) {
+                disarm(contingent, null);
+            } else if (contingent.finish(ContingentStatusEnum.PENDING_ENTRY, ContingentStatusEnum.CANCELED)
+                    && contingent.entryOrderId != null) {
+                pendingEntries.remove(contingent.entryOrderId);
+                ordersService.cancelOrder(accountId, contingent.entryOrderId)
+                        .subscribe(state -> orderTrackerService.track(accountId, state),
+                                e -> log.warn("Failed to cancel entry order {} of contingent {}: {}",
+                                        contingent.entryOrderId, contingent.id, e.getMessage()));
+            }
+            return contingent.toDto();
+        });
+    }
+
+    /**
+     * @return число заявок и взведённых триггеров, счётчики срабатываний и задержка от срабатывания до отправки
+     */
+    public ContingentStatsDTO getStats() {
+        long count = triggered.sum();
+        return ContingentStatsDTO.builder()
+                .pendingEntry(contingents.values().stream()
+                        .filter(contingent -> contingent.status.get() == ContingentStatusEnum.PENDING_ENTRY).count())
+                .active(contingents.values().stream()
+                        .filter(contingent -> contingent.status.get() == ContingentStatusEnum.ACTIVE).count())
+                .armedTriggers(books.values().stream().mapToLong(TriggerBook::size).sum())
+                .symbols(books.size())
+                .triggered(count)
+                .failed(failed.sum())
+                .meanTriggerToSendUs(count == 0 ? 0 : triggerToSendNanos.sum() / 1_000.0 / count)
+                .maxTriggerToSendUs(maxTriggerToSendNanos.get() / 1_000)
+                .build();
+    }
+
+    /**
+     * Удаление завершённых заявок старше contingent.retention.ms и пустых книг триггеров.
+     */
+    @Scheduled(fixedDelayString = "${contingent.evict.interval.ms:60000}")
+    public void evict() {
+        Instant threshold = Instant.now().minusMillis(retentionMs);
+        contingents.values().removeIf(contingent -> contingent.finishedAt != null
+                && contingent.finishedAt.isBefore(threshold));
+        books.keySet().forEach(symbol -> books.computeIfPresent(symbol, (key, book) -> book.size() == 0 ? null : book));
+    }
+
+    private Optional<Contingent> find(String accountId, String contingentId) {
+        return Optional.ofNullable(contingents.get(contingentId))
+                .filter(contingent -> contingent.accountId.equals(accountId));
+    }
+
+    private Contingent validate(String accountId, ContingentOrderRequestDTO request) {
+        ContingentTypeEnum type = request.getType() == null ? ContingentTypeEnum.OCO : request.getType();
+        long quantity = parse(request.getQuantity());
+        if (request.getSymbol() == null || quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "symbol and positive quantity are required");
+        }
+        if (request.getLegs() == null || request.getLegs().size() < (type == ContingentTypeEnum.OCO ? 2 : 1)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, type == ContingentTypeEnum.OCO
+                    ? "OCO requires at least two legs" : "Bracket requires at least one exit leg");
+        }
+        SideEnum exitSide = null;
+        if (type == ContingentTypeEnum.BRACKET) {
+            if (request.getEntry() == null || request.getEntry().getSide() == null
+                    || request.getEntry().getSide() == SideEnum.SIDE_UNSPECIFIED) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Bracket requires an entry order with a side");
+            }
+            exitSide = request.getEntry().getSide() == SideEnum.SIDE_BUY ? SideEnum.SIDE_SELL : SideEnum.SIDE_BUY;
+        }
+        long open = contingents.values().stream().filter(contingent -> !contingent.status.get().isTerminal()).count();
+        if (open >= maxActive) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Too many active contingent orders: " + open);
+        }
+        Contingent contingent = new Contingent(accountId, type, request.getSymbol(), quantity);
+        for (ContingentLegDTO legRequest : request.getLegs()) {
+            long level = parse(legRequest.getStopPrice());
+            StopConditionEnum condition = legRequest.getStopCondition();
+            if (level <= 0 || condition == null || condition == StopConditionEnum.STOP_CONDITION_UNSPECIFIED) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each leg requires stop_price and stop_condition");
+            }
+            SideEnum side = legRequest.getSide() == null || legRequest.getSide() == SideEnum.SIDE_UNSPECIFIED
+                    ? exitSide : legRequest.getSide();
+            if (side == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each OCO leg requires a side");
+            }
+            long legQuantity = legRequest.getQuantity() == null ? quantity : parse(legRequest.getQuantity());
+            contingent.legs.add(new Leg(contingent, contingent.legs.size(), legRequest, side, legQuantity, level,
+                    condition == StopConditionEnum.STOP_CONDITION_LAST_UP));
+        }
+        return contingent;
+    }
+
+    private void onOrderEvent(OrderEventDTO event) {
+        Contingent contingent = pendingEntries.get(event.getOrderId());
+        if (contingent == null || event.getStatus() == null) {
+            return;
+        }
+        try {
+            if (event.getType() == OrderEventTypeEnum.PARTIALLY_FILLED) {
+                contingent.entryPartiallyFilled = true;
+            } else if (event.getType() == OrderEventTypeEnum.FILLED) {
+                onEntryFilled(contingent);
+            } else if (event.getStatus().isTerminal()) {
+                onEntryTerminated(contingent, event.getStatus().name());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to handle entry order event {} of contingent {}", event.getOrderId(), contingent.id, e);
+        }
+    }
+
+    private void onEntryFilled(Contingent contingent) {
+        pendingEntries.remove(contingent.entryOrderId);
+        if (contingent.status.compareAndSet(ContingentStatusEnum.PENDING_ENTRY, ContingentStatusEnum.ACTIVE)) {
+            log.info("Contingent {} entry order {} filled, arming exits", contingent.id, contingent.entryOrderId);
+            arm(contingent);
+        }
+    }
+
+    /**
+     * Входной ордер завершён без полного исполнения. Если он успел исполниться частично, ноги взводятся
+     * на исполненный объём, чтобы открытая позиция не осталась без выходов; исполненный объём определяется
+     * по сделкам счёта.
+     */
+    private void onEntryTerminated(Contingent contingent, String status) {
+        pendingEntries.remove(contingent.entryOrderId);
+        LocalDate from = contingent.createdAt.atOffset(ZoneOffset.UTC).toLocalDate();
+        LocalDate to = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        accountService.getAccountTrades(contingent.accountId, from.toString(), to.toString())
+                .map(response -> response.getTrades() == null ? 0L : response.getTrades().stream()
+                        .filter(trade -> contingent.entryOrderId.equals(trade.getOrderId()))
+                        .mapToLong(trade -> Math.abs(parse(trade.getSize())))
+                        .sum())
+                .defaultIfEmpty(0L)
+                .subscribe(filled -> onEntryTerminated(contingent, status, filled), e -> {
+                    log.warn("Failed to load fills of entry order {} of contingent {}: {}", contingent.entryOrderId,
+                            contingent.id, e.getMessage());
+                    contingent.error = "Entry order " + contingent.entryOrderId + " finished with status " + status
+                            + ", filled quantity is unknown: " + e.getMessage();
+                    contingent.finish(ContingentStatusEnum.PENDING_ENTRY, ContingentStatusEnum.FAILED);
+                });
+    }
+
+    private void onEntryTerminated(Contingent contingent, String status, long filled) {
+        if (filled <= 0) {
+            contingent.error = contingent.entryPartiallyFilled
+                    ? "Entry order " + contingent.entryOrderId + " was partially filled, but its trades were not found"
+                    : "Entry order " + contingent.entryOrderId + " finished with status " + status;
+            contingent.finish(ContingentStatusEnum.PENDING_ENTRY, contingent.entryPartiallyFilled
+                    ? ContingentStatusEnum.FAILED : ContingentStatusEnum.CANCELED);
+            return;
+        }
+        contingent.exitQuantity = Math.min(filled, contingent.quantity);
+        if (contingent.status.compareAndSet(ContingentStatusEnum.PENDING_ENTRY, ContingentStatusEnum.ACTIVE)) {
+            log.info("Contingent {} entry order {} finished with status {} after filling {}, arming exits",
+                    contingent.id, contingent.entryOrderId, status, FixedPoint.format(contingent.exitQuantity));
+            arm(contingent);
+        }
+    }
+
+    /**
+     * Взводит ноги заявки и сразу проверяет их по последней известной котировке.
+     */
+    private void arm(Contingent contingent) {
+        if (contingent.armed.compareAndSet(false, true)) {
+            quoteCacheService.track(List.of(contingent.symbol));
+        }
+        books.compute(contingent.symbol, (symbol, book) -> {
+            TriggerBook<Leg> target = book == null ? new TriggerBook<>() : book;
+            contingent.legs.forEach(leg -> leg.key = target.add(leg.level, leg.rising, leg));
+            return target;
+        });
+        if (contingent.status.get() != ContingentStatusEnum.ACTIVE) {
+            disarm(contingent, null);
+            return;
+        }
+        quoteCacheService.getQuote(contingent.symbol).ifPresent(this::onQuote);
+    }
+
+    /**
+     * Снимает все ноги заявки, кроме сработавшей, и исключает инструмент из опроса котировок.
+     */
+    private void disarm(Contingent contingent, Leg fired) {
+        TriggerBook<Leg> book = books.get(contingent.symbol);
+        if (book != null) {
+            contingent.legs.stream()
+                    .filter(leg -> leg != fired && leg.key != null)
+                    .forEach(leg -> book.remove(leg.key));
+        }
+        if (contingent.armed.compareAndSet(true, false)) {
+            quoteCacheService.untrack(List.of(contingent.symbol));
+        }
+    }
+
+    /**
+     * Обработка котировки. Ошибка разбора котировки или отправки ордера одной ноги не должна завершать подписку,
+     * иначе перестанут срабатывать все взведённые ноги.
+     */
+    private void onQuote(QuoteDTO quote) {
+        long received = System.nanoTime();
+        List<Leg> crossed;
+        long price;
+        try {
+            TriggerBook<Leg> book = books.get(quote.getSymbol());
+            if (book == null) {
+                return;
+            }
+            if (!QuoteCacheService.isFresh(quote, quoteMaxAgeMs)) {
+                log.debug("Skipping contingent triggers for stale quote of {} at {}", quote.getSymbol(),
+                        quote.getTimestamp());
+                return;
+            }
+            OptionalLong mark = QuoteCacheService.markPrice(quote);
+            if (mark.isEmpty()) {
+                return;
+            }
+            price = mark.getAsLong();
+            crossed = book.pollCrossed(price);
+        } catch (RuntimeException e) {
+            log.error("Failed to evaluate contingent triggers for quote {}", quote, e);
+            return;
+        }
+        for (Leg leg : crossed) {
+            try {
+                fire(leg, price, received);
+            } catch (RuntimeException e) {
+                log.error("Contingent {} leg {} failed to fire", leg.contingent.id, leg.index, e);
+                failed.increment();
+                leg.error = e.getMessage();
+                leg.contingent.status.set(ContingentStatusEnum.FAILED);
+            }
+        }
+    }
+
+    /**
+     * Срабатывание ноги: первая сработавшая нога заявки отправляет дочерний ордер, остальные снимаются.
+     */
+    private void fire(Leg leg, long price, long received) {
+        Contingent contingent = leg.contingent;
+        if (!contingent.finish(ContingentStatusEnum.ACTIVE, ContingentStatusEnum.TRIGGERED)) {
+            return;
+        }
+        disarm(contingent, leg);
+        leg.triggerPrice = price;
+        leg.triggeredAt = Instant.now();
+        ValueObjectDTO limitPrice = leg.request.getLimitPrice();
+        OrderDTO order = OrderDTO.builder()
+                .accountId(contingent.accountId)
+                .symbol(contingent.symbol)
+                .side(leg.side)
+                .quantity(value(leg.exitQuantity()))
+                .type(limitPrice == null ? OrderTypeEnum.ORDER_TYPE_MARKET : OrderTypeEnum.ORDER_TYPE_LIMIT)
+                .limitPrice(limitPrice)
+                .timeInForce(leg.request.getTimeInForce() == null
+                        ? TimeInForceEnum.TIME_IN_FORCE_DAY : leg.request.getTimeInForce())
+                .clientOrderId(contingent.shortId() + "-" + leg.index)
+                .build();
+        triggered.increment();
+        log.info("Contingent {} leg {} triggered at {}", contingent.id, leg.index, FixedPoint.format(price));
+        ordersService.placeOrder(order, contingent.accountId)
+                .doOnSubscribe(subscription -> {
+                    leg.triggerToSendNanos = System.nanoTime() - received;
+                    triggerToSendNanos.add(leg.triggerToSendNanos);
+                    maxTriggerToSendNanos.accumulateAndGet(leg.triggerToSendNanos, Math::max);
+                })
+                .subscribe(state -> {
+                    leg.orderId = state.getOrderId();
+                    orderTrackerService.track(contingent.accountId, state);
+                }, e -> {
+                    log.warn("Contingent {} leg {} order failed: {}", contingent.id, leg.index, e.getMessage());
+                    failed.increment();
+                    leg.error = e.getMessage();
+                    contingent.status.set(ContingentStatusEnum.FAILED);
+                });
+    }
+
+    private static long parse(ValueObjectDTO value) {
+        return value == null || value.getValue() == null || value.getValue().isBlank()
+                ? 0 : FixedPoint.parse(value.getValue());
+    }
+
+    private static ValueObjectDTO value(long fixedPoint) {
+        return ValueObjectDTO.builder().value(FixedPoint.format(fixedPoint)).build();
+    }
+
+    /**
+     * Связанная заявка.
+     */
+    private static final class Contingent {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String accountId;
+        private final ContingentTypeEnum type;
+        private final String symbol;
+        private final long quantity;
+        private final List<Leg> legs = new ArrayList<>();
+        private final AtomicReference<ContingentStatusEnum> status;
+        private final AtomicBoolean armed = new AtomicBoolean();
+        private final Instant createdAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile String entryOrderId;
+        private volatile boolean entryPartiallyFilled;
+        private volatile long exitQuantity;
+        private volatile String error;
+
+        Contingent(String accountId, ContingentTypeEnum type, String symbol, long quantity) {
+            this.accountId = accountId;
+            this.type = type;
+            this.symbol = symbol;
+            this.quantity = quantity;
+            this.exitQuantity = quantity;
+            this.status = new AtomicReference<>(type == ContingentTypeEnum.OCO
+                    ? ContingentStatusEnum.ACTIVE : ContingentStatusEnum.PENDING_ENTRY);
+        }
+
+        /**
+         * Переводит заявку из статуса expected в конечный статус; переход выполняется не более одного раза.
+         */
+        boolean finish(ContingentStatusEnum expected, ContingentStatusEnum next) {
+            if (!status.compareAndSet(expected, next)) {
+                return false;
+            }
+            finishedAt = Instant.now();
+            return true;
+        }
+
+        String shortId() {
+            return id.substring(0, 8);
+        }
+
+        ContingentOrderDTO toDto() {
+            return ContingentOrderDTO.builder()
+                    .contingentId(id)
+                    .accountId(accountId)
+                    .type(type)
+                    .symbol(symbol)
+                    .quantity(value(quantity))
+                    .status(status.get())
+                    .entryOrderId(entryOrderId)
+                    .legs(legs.stream().map(Leg::toDto).toList())
+                    .createdAt(createdAt.toString())
+                    .finishedAt(finishedAt == null ? null : finishedAt.toString())
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * Нога связанной заявки: уровень срабатывания и дочерний ордер.
+     */
+    private static final class Leg {
+
+        private final Contingent contingent;
+        private final int index;
+        private final ContingentLegDTO request;
+        private final SideEnum side;
+        private final long quantity;
+        private final long level;
+        private final boolean rising;
+        private volatile TriggerBook.Key key;
+        private volatile Long triggerPrice;
+        private volatile Instant triggeredAt;
+        private volatile Long triggerToSendNanos;
+        private volatile String orderId;
+        private volatile String error;
+
+        Leg(Contingent contingent, int index, ContingentLegDTO request, SideEnum side, long quantity, long level,
+            boolean rising) {
+            this.contingent = contingent;
+            this.index = index;
+            this.request = request;
+            this.side = side;
+            this.quantity = quantity;
+            this.level = level;
+            this.rising = rising;
+        }
+
+        /**
+         * @return объём ордера ноги, не больше исполненного объёма входного ордера bracket
+         */
+        long exitQuantity() {
+            return Math.min(quantity, contingent.exitQuantity);
+        }
+
+        ContingentLegDTO toDto() {
+            return ContingentLegDTO.builder()
+                    .stopPrice(value(level))
+                    .stopCondition(rising ? StopConditionEnum.STOP_CONDITION_LAST_UP : StopConditionEnum.STOP_CONDITION_LAST_DOWN)
+                    .side(side)
+                    .quantity(value(exitQuantity()))
+                    .limitPrice(request.getLimitPrice())
+                    .timeInForce(request.getTimeInForce())
+                    .triggered(triggeredAt != null)
+                    .triggerPrice(triggerPrice == null ? null : value(triggerPrice))
+                    .triggeredAt(triggeredAt == null ? null : triggeredAt.toString())
+                    .triggerToSendUs(triggerToSendNanos == null ? null : triggerToSendNanos / 1_000)
+                    .orderId(orderId)
+                    .clientOrderId(triggeredAt == null ? null : contingent.shortId() + "-" + index)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package finam.client.service;
+
+import finam.client.dto.CashItemDTO;
+import finam.client.dto.EquityHistoryDTO;
+import finam.client.dto.EquityPointDTO;
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.MarginDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.util.FixedPoint;
+import finam.client.util.Lttb;
+import finam.client.util.TimeSeriesFile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис истории оценки счетов. С периодом equity.history.interval.ms для каждого счёта записывается точка:
+ * оценка, нереализованная прибыль, денежные средства в валюте equity.history.cash.currency и маржинальные
+ * показатели. Точки хранятся в файлах {@link TimeSeriesFile} фиксированной длины, а при чтении длинного
+ * интервала прореживаются алгоритмом {@link Lttb} по оценке счёта до запрошенного числа точек.
+ */
+@Service
+@Slf4j
+public class EquityHistoryService {
+
+    private static final String FILE_NAME = "equity.bin";
+    private static final int EQUITY = 0;
+    private static final int UNREALIZED_PROFIT = 1;
+    private static final int CASH = 2;
+    private static final int AVAILABLE_CASH = 3;
+    private static final int INITIAL_MARGIN = 4;
+    private static final int MAINTENANCE_MARGIN = 5;
+    private static final int COLUMNS = 6;
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+
+    private final Map<String, TimeSeriesFile> files = new ConcurrentHashMap<>();
+
+    @Value("${equity.history.dir:./equity_history}")
+    private String historyDir;
+
+    @Value("${equity.history.accounts:}")
+    private List<String> configuredAccounts;
+
+    @Value("${equity.history.cash.currency:RUB}")
+    private String cashCurrency;
+
+    @Value("${equity.history.concurrency:8}")
+    private int concurrency;
+
+    @Value("${equity.history.max.points:5000}")
+    private int maxPointsLimit;
+
+    @Value("${equity.history.max.span.days:366}")
+    private long maxSpanDays;
+
+    public EquityHistoryService(AccountService accountService, TokenDetailsService tokenDetailsService) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+    }
+
+    @PreDestroy
+    public void closeFiles() {
+        files.values().forEach(file -> {
+            try {
+                file.close();
+            } catch (IOException e) {
+                log.warn("Failed to close equity history file: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Запись очередной точки истории по всем счетам.
+     */
+    @Scheduled(fixedDelayString = "${equity.history.interval.ms:60000}",
+            initialDelayString = "${equity.history.initial.delay.ms:15000}")
+    public void record() {
+        resolveAccounts()
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(accountId -> accountService.getAccountInfo(accountId)
+                        .doOnNext(account -> record(accountId, account))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to record equity for account ID: {}: {}", accountId, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .onErrorResume(e -> {
+                    log.error("Equity history recording failed", e);
+                    return Mono.empty();
+                })
+                .blockLast();
+    }
+
+    /**
+     * Запись точки истории по снимку счёта.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param account   снимок счёта
+     */
+    public void record(String accountId, GetAccountResponseDTO account) {
+        MarginDTO margin = account.getPortfolioForts() != null ? account.getPortfolioForts()
+                : account.getPortfolioMc() != null ? account.getPortfolioMc() : account.getPortfolioMct();
+        long[] values = new long[COLUMNS];
+        values[EQUITY] = parse(account.getEquity());
+        values[UNREALIZED_PROFIT] = parse(account.getUnrealizedProfit());
+        values[CASH] = cash(account.getCash());
+        if (margin != null) {
+            values[AVAILABLE_CASH] = parse(margin.getAvailableCash());
+            values[INITIAL_MARGIN] = parse(margin.getInitialMargin());
+            values[MAINTENANCE_MARGIN] = parse(margin.getMaintenanceMargin());
+        }
+        try {
+            file(accountId).append(System.currentTimeMillis(), values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * История счёта за интервал [from, to), прореженная до maxPoints точек, но не более equity.history.max.points.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param from      начало интервала
+     * @param to        конец интервала
+     * @param maxPoints максимальное число точек в ответе
+     * @return история оценки счёта; пусто, если история по счёту не записывалась
+     * @throws ResponseStatusException 400, если maxPoints не положительно или интервал длиннее
+     *                                 equity.history.max.span.days
+     */
+    public Optional<EquityHistoryDTO> getHistory(String accountId, Instant from, Instant to, int maxPoints) {
+        if (maxPoints <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "points must be positive: " + maxPoints);
+        }
+        if (Duration.between(from, to).compareTo(Duration.ofDays(maxSpanDays)) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Equity history interval must not exceed " + maxSpanDays + " days");
+        }
+        int points = Math.min(maxPoints, maxPointsLimit);
+        Optional<TimeSeriesFile> file = existingFile(accountId);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        TimeSeriesFile.Rows rows;
+        try {
+            rows = file.get().read(from.toEpochMilli(), to.toEpochMilli());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int[] selected = Lttb.downsample(rows.timestamps(), rows.values()[EQUITY], points);
+        List<EquityPointDTO> result = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            long[][] values = rows.values();
+            result.add(EquityPointDTO.builder()
+                    .timestamp(Instant.ofEpochMilli(rows.timestamps()[i]).toString())
+                    .equity(value(values[EQUITY][i]))
+                    .unrealizedProfit(value(values[UNREALIZED_PROFIT][i]))
+                    .cash(value(values[CASH][i]))
+                    .availableCash(value(values[AVAILABLE_CASH][i]))
+                    .initialMargin(value(values[INITIAL_MARGIN][i]))
+                    .maintenanceMargin(value(values[MAINTENANCE_MARGIN][i]))
+                    .build());
+        }
+        return Optional.of(EquityHistoryDTO.builder()
+                .accountId(accountId)
+                .cashCurrency(cashCurrency)
+                .totalPoints(rows.size())
+                .points(result)
+                .build());
+    }
+
+    /**
+     * Файл истории счёта, если он уже открыт или существует на диске; новый файл не создаётся.
+     */
+    private Optional<TimeSeriesFile> existingFile(String accountId) {
+        TimeSeriesFile file = files.get(accountId);
+        if (file != null) {
+            return Optional.of(file);
+        }
+        return Files.exists(path(accountId)) ? Optional.of(file(accountId)) : Optional.empty();
+    }
+
+    private Path path(String accountId) {
+        String name = accountId.replaceAll("[^A-Za-z0-9_.-]", "_");
+        if (name.isEmpty() || name.equals(".") || name.equals("..")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid account ID for equity history: " + accountId);
+        }
+        return Paths.get(historyDir, name, FILE_NAME);
+    }
+
+    private TimeSeriesFile file(String accountId) {
+        return files.computeIfAbsent(accountId, id -> {
+            Path path = path(id);
+            TimeSeriesFile file = new TimeSeriesFile(path, COLUMNS);
+            try {
+                file.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open equity history for account " + id, e);
+            }
+            return file;
+        });
+    }
+
+    private Mono<List<String>> resolveAccounts() {
+        List<String> configured = configuredAccounts.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        return configured.isEmpty() ? tokenDetailsService.getAccountIds() : Mono.just(configured);
+    }
+
+    /**
+     * Сумма денежных средств в валюте equity.history.cash.currency, в фиксированной точке.
+     */
+    private long cash(List<CashItemDTO> cash) {
+        if (cash == null) {
+            return 0;
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (CashItemDTO item : cash) {
+            if (cashCurrency.equals(item.getCurrencyCode())) {
+                long units = item.getUnits() == null ? 0 : item.getUnits();
+                int nanos = item.getNanos() == null ? 0 : item.getNanos();
+                total = total.add(BigDecimal.valueOf(units)).add(BigDecimal.valueOf(nanos, 9));
+            }
+        }
+        return FixedPoint.parse(total.toPlainString());
+    }
+
+    private static long parse(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return 0;
+        }
+        return FixedPoint.parse(value.getValue());
+    }
+
+    private static ValueObjectDTO value(long fixedPoint) {
+        return ValueObjectDTO.builder().value(FixedPoint.format(fixedPoint)).build();
+    }
+}
@@ -0,0 +1,659 @@
+package finam.client.service;
+
+import finam.client.dto.AccountTradeDTO;
+import finam.client.dto.BarDTO;
+import finam.client.dto.ChildOrderDTO;
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.dto.ParentOrderDTO;
+import finam.client.dto.ParentOrderRequestDTO;
+import finam.client.dto.SessionsDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.ExecutionAlgoEnum;
+import finam.client.enums.ExecutionStatusEnum;
+import finam.client.enums.OrderStatusEnum;
+import finam.client.enums.OrderTypeEnum;
+import finam.client.enums.SideEnum;
+import finam.client.enums.TimeFrameEnum;
+import finam.client.enums.TimeInForceEnum;
+import finam.client.util.FixedPoint;
+import finam.client.util.TimerWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис алгоритмического исполнения родительских ордеров. Родительский ордер делится на дочерние по расписанию:
+ * моменты отправки равномерно распределяются по торговому времени окна [start_time, end_time) с учётом торговых
+ * сессий инструмента, а доля объёма каждого среза равна для TWAP или пропорциональна историческому профилю объёма
+ * по пятиминутным барам за profile_days дней для VWAP. Срезы запускаются таймерами {@link TimerWheel}: один таймер
+ * на родительский ордер, поэтому сотни одновременных исполнений не создают нагрузки на планировщик.
+ * Исполнение дочерних ордеров отслеживается по сделкам счёта и статусам {@link OrderTrackerService}: каждый срез
+ * догоняет накопленную цель с учётом уже исполненного и ещё выставленного объёма. По окончании окна
+ * неисполненные дочерние ордера снимаются.
+ */
+@Service
+@Slf4j
+public class ExecutionAlgoService {
+
+    private static final int PROFILE_BUCKET_MINUTES = 5;
+    private static final int PROFILE_BUCKETS = 24 * 60 / PROFILE_BUCKET_MINUTES;
+
+    private final OrdersService ordersService;
+    private final OrderTrackerService orderTrackerService;
+    private final AccountService accountService;
+    private final ReferenceDataService referenceDataService;
+    private final MarketDataService marketDataService;
+
+    private final Map<String, Execution> executions = new ConcurrentHashMap<>();
+    private TimerWheel timerWheel;
+
+    @Value("${algo.timer.tick.ms:100}")
+    private long tickMs;
+
+    @Value("${algo.timer.slots:512}")
+    private int slots;
+
+    @Value("${algo.slice.interval.ms:60000}")
+    private long sliceIntervalMs;
+
+    @Value("${algo.max.slices:1000}")
+    private int maxSlices;
+
+    @Value("${algo.profile.days:10}")
+    private int defaultProfileDays;
+
+    @Value("${algo.session.types:CORE_TRADING}")
+    private List<String> sessionTypes;
+
+    @Value("${algo.completion.grace.ms:30000}")
+    private long completionGraceMs;
+
+    @Value("${algo.retention.ms:86400000}")
+    private long retentionMs;
+
+    public ExecutionAlgoService(OrdersService ordersService, OrderTrackerService orderTrackerService,
+                                AccountService accountService, ReferenceDataService referenceDataService,
+                                MarketDataService marketDataService) {
+        this.ordersService = ordersService;
+        this.orderTrackerService = orderTrackerService;
+        this.accountService = accountService;
+        this.referenceDataService = referenceDataService;
+        this.marketDataService = marketDataService;
+    }
+
+    @PostConstruct
+    public void init() {
+        timerWheel = new TimerWheel("execution-timer", Duration.ofMillis(tickMs), slots);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timerWheel.close();
+    }
+
+    /**
+     * Принимает родительский ордер: строит расписание срезов и ставит первый срез на таймер.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param request   параметры родительского ордера
+     * @return состояние исполнения
+     */
+    public Mono<ParentOrderDTO> submit(String accountId, ParentOrderRequestDTO request) {
+        long quantity;
+        Instant start;
+        Instant end;
+        Instant now = Instant.now();
+        try {
+            quantity = request.getQuantity() == null || request.getQuantity().getValue() == null
+                    ? 0 : FixedPoint.parse(request.getQuantity().getValue());
+            start = request.getStartTime() == null ? now : parseInstant(request.getStartTime());
+            end = request.getEndTime() == null ? null : parseInstant(request.getEndTime());
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Malformed quantity, start_time or end_time: " + e.getMessage(), e));
+        }
+        if (request.getSymbol() == null || quantity <= 0 || request.getSide() == null
+                || request.getSide() == SideEnum.SIDE_UNSPECIFIED || end == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "symbol, side, positive quantity and end_time are required"));
+        }
+        if (start.isBefore(now)) {
+            start = now;
+        }
+        if (!end.isAfter(start)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "end_time must be in the future and after start_time"));
+        }
+        ExecutionAlgoEnum algo = request.getAlgo() == null ? ExecutionAlgoEnum.TWAP : request.getAlgo();
+        Instant windowStart = start;
+
+        return Mono.zip(tradingIntervals(request.getSymbol(), windowStart, end), lotSize(request.getSymbol(), accountId))
+                .flatMap(tuple -> {
+                    List<Instant[]> intervals = tuple.getT1();
+                    long tradingMillis = intervals.stream()
+                            .mapToLong(interval -> Duration.between(interval[0], interval[1]).toMillis())
+                            .sum();
+                    if (tradingMillis <= 0) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                "No trading time between start_time and end_time"));
+                    }
+                    int count = request.getSlices() != null && request.getSlices() > 0
+                            ? Math.min(request.getSlices(), maxSlices)
+                            : (int) Math.max(1, Math.min(maxSlices, tradingMillis / sliceIntervalMs));
+                    List<Instant> times = sliceTimes(intervals, tradingMillis, count);
+                    Mono<double[]> weights = algo == ExecutionAlgoEnum.VWAP
+                            ? volumeWeights(request.getSymbol(), times,
+                            request.getProfileDays() == null ? defaultProfileDays : request.getProfileDays())
+                            : Mono.just(equalWeights(count));
+                    return weights.map(w -> {
+                        Execution execution = new Execution(accountId, request, algo, quantity, tuple.getT2(), times, w);
+                        executions.put(execution.id, execution);
+                        log.info("Execution {} accepted: {} {} {} of {} in {} slices until {}", execution.id, algo,
+                                request.getSide(), FixedPoint.format(quantity), request.getSymbol(), count, end);
+                        execution.scheduleNext();
+                        return execution.toDto();
+                    });
+                });
+    }
+
+    /**
+     * @return исполнения счёта
+     */
+    public List<ParentOrderDTO> getExecutions(String accountId) {
+        return executions.values().stream()
+                .filter(execution -> execution.accountId.equals(accountId))
+                .map(Execution::toDto)
+                .sorted(Comparator.comparing(ParentOrderDTO::getStartTime))
+                .toList();
+    }
+
+    /**
+     * @return состояние исполнения
+     */
+    public Optional<ParentOrderDTO> getExecution(String accountId, String executionId) {
+        return find(accountId, executionId).map(Execution::toDto);
+    }
+
+    /**
+     * Отмена исполнения: оставшиеся срезы не отправляются, выставленные дочерние ордера снимаются.
+     *
+     * @param accountId   уникальный идентификатор аккаунта
+     * @param executionId идентификатор исполнения
+     * @return состояние исполнения или пустой Optional, если исполнение не найдено
+     */
+    public Optional<ParentOrderDTO> cancel(String accountId, String executionId) {
+        return find(accountId, executionId).map(execution -> {
+            execution.finish(ExecutionStatusEnum.CANCELED);
+            return execution.toDto();
+        });
+    }
+
+    /**
+     * Обновление исполненного объёма дочерних ордеров по сделкам счетов с активными исполнениями
+     * и удаление давно завершённых исполнений.
+     */
+    @Scheduled(fixedDelayString = "${algo.fills.interval.ms:2000}",
+            initialDelayString = "${algo.fills.initial.delay.ms:2000}")
+    public void pollFills() {
+        Instant threshold = Instant.now().minusMillis(retentionMs);
+        executions.values().removeIf(execution -> execution.finishedAt != null
+                && execution.finishedAt.isBefore(threshold));
+
+        Map<String, List<Execution>> active = new HashMap<>();
+        executions.values().stream()
+                .filter(execution -> !execution.status.isTerminal() && execution.hasChildren())
+                .forEach(execution -> active.computeIfAbsent(execution.accountId, id -> new ArrayList<>()).add(execution));
+        if (active.isEmpty()) {
+            return;
+        }
+        Flux.fromIterable(active.entrySet())
+                .flatMap(entry -> {
+                    LocalDate from = entry.getValue().stream()
+                            .map(execution -> execution.times.get(0).atOffset(ZoneOffset.UTC).toLocalDate())
+                            .min(LocalDate::compareTo)
+                            .orElse(LocalDate.now(ZoneOffset.UTC));
+                    LocalDate to = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+                    return accountService.getAccountTrades(entry.getKey(), from.toString(), to.toString())
+                            .map(response -> filledByOrder(response.getTrades()))
+                            .doOnNext(filled -> entry.getValue().forEach(execution -> execution.update(filled)))
+                            .onErrorResume(e -> {
+                                log.warn("Failed to poll execution fills for account ID: {}: {}", entry.getKey(),
+                                        e.getMessage());
+                                return Mono.empty();
+                            });
+                })
+                .onErrorResume(e -> {
+                    log.error("Execution fill poll failed", e);
+                    return Mono.empty();
+                })
+                .blockLast();
+    }
+
+    private Optional<Execution> find(String accountId, String executionId) {
+        return Optional.ofNullable(executions.get(executionId))
+                .filter(execution -> execution.accountId.equals(accountId));
+    }
+
+    /**
+     * Торговые интервалы инструмента внутри окна. Если в расписании нет сессий типов algo.session.types,
+     * торговым считается всё окно.
+     */
+    private Mono<List<Instant[]>> tradingIntervals(String symbol, Instant start, Instant end) {
+        List<Instant[]> whole = List.<Instant[]>of(new Instant[]{start, end});
+        return referenceDataService.getSchedule(symbol)
+                .map(schedule -> {
+                    List<SessionsDTO> sessions = schedule.getSessions() == null ? List.of() : schedule.getSessions();
+                    List<Instant[]> intervals = new ArrayList<>();
+                    boolean matched = false;
+                    for (SessionsDTO session : sessions) {
+                        if (session.getInterval() == null || !sessionTypes.contains(session.getType())) {
+                            continue;
+                        }
+                        matched = true;
+                        try {
+                            Instant from = parseInstant(session.getInterval().getStartTime());
+                            Instant to = parseInstant(session.getInterval().getEndTime());
+                            Instant clippedFrom = from.isAfter(start) ? from : start;
+                            Instant clippedTo = to.isBefore(end) ? to : end;
+                            if (clippedTo.isAfter(clippedFrom)) {
+                                intervals.add(new Instant[]{clippedFrom, clippedTo});
+                            }
+                        } catch (DateTimeParseException | NullPointerException e) {
+                            log.debug("Skipping session with unparseable interval for {}: {}", symbol, session);
+                        }
+                    }
+                    if (!matched) {
+                        log.warn("No {} sessions in schedule of {}, using the whole window", sessionTypes, symbol);
+                        return whole;
+                    }
+                    intervals.sort(Comparator.comparing(interval -> interval[0]));
+                    return intervals;
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to load schedule of {}, using the whole window: {}", symbol, e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(whole);
+    }
+
+    /**
+     * Моменты начала срезов: торговое время делится на count равных частей, и каждая доля переносится
+     * на календарное время внутри торговых интервалов. Последний элемент списка — конец торгового времени.
+     */
+    private static List<Instant> sliceTimes(List<Instant[]> intervals, long tradingMillis, int count) {
+        List<Instant> times = new ArrayList<>(count + 1);
+        for (int slice = 0; slice <= count; slice++) {
+            long offset = tradingMillis * slice / count;
+            for (Instant[] interval : intervals) {
+                long length = Duration.between(interval[0], interval[1]).toMillis();
+                if (offset < length || interval == intervals.get(intervals.size() - 1)) {
+                    times.add(interval[0].plusMillis(Math.min(offset, length)));
+                    break;
+                }
+                offset -= length;
+            }
+        }
+        return times;
+    }
+
+    private static double[] equalWeights(int count) {
+        double[] weights = new double[count];
+        Arrays.fill(weights, 1.0 / count);
+        return weights;
+    }
+
+    /**
+     * Веса срезов по историческому профилю объёма: средний объём пятиминутных баров по времени суток (UTC),
+     * просуммированный по интервалу каждого среза. При отсутствии истории используются равные веса.
+     */
+    private Mono<double[]> volumeWeights(String symbol, List<Instant> times, int profileDays) {
+        int count = times.size() - 1;
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        return marketDataService.getHistoricalBars(symbol, TimeFrameEnum.TIME_FRAME_M5,
+                        today.minusDays(profileDays).toString(), today.toString())
+                .map(response -> {
+                    double[] profile = new double[PROFILE_BUCKETS];
+                    if (response.getBars() != null) {
+                        for (BarDTO bar : response.getBars()) {
+                            if (bar.getTimestamp() != null && bar.getVolume() != null && bar.getVolume().getValue() != null) {
+                                profile[bucket(bar.getTimestamp().toInstant())] += Double.parseDouble(bar.getVolume().getValue());
+                            }
+                        }
+                    }
+                    double[] weights = new double[count];
+                    double total = 0;
+                    for (int slice = 0; slice < count; slice++) {
+                        Instant from = times.get(slice);
+                        Instant to = times.get(slice + 1);
+                        for (Instant t = from; t.isBefore(to); t = t.plusSeconds(PROFILE_BUCKET_MINUTES * 60L)) {
+                            weights[slice] += profile[bucket(t)];
+                        }
+                        total += weights[slice];
+                    }
+                    if (total <= 0) {
+                        log.warn("No volume profile for {}, falling back to equal weights", symbol);
+                        return equalWeights(count);
+                    }
+                    for (int slice = 0; slice < count; slice++) {
+                        weights[slice] /= total;
+                    }
+                    return weights;
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to load volume profile for {}, falling back to equal weights: {}", symbol,
+                            e.getMessage());
+                    return Mono.just(equalWeights(count));
+                })
+                .defaultIfEmpty(equalWeights(count));
+    }
+
+    private static int bucket(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC).toLocalTime().toSecondOfDay() / (PROFILE_BUCKET_MINUTES * 60);
+    }
+
+    private Mono<Long> lotSize(String symbol, String accountId) {
+        return referenceDataService.getAsset(symbol, accountId)
+                .mapNotNull(asset -> asset.getLotSize() == null || asset.getLotSize().getValue() == null
+                        ? null : FixedPoint.parse(asset.getLotSize().getValue()))
+                .filter(lot -> lot > 0)
+                .onErrorResume(e -> Mono.empty())
+                .defaultIfEmpty(FixedPoint.ONE);
+    }
+
+    private static Map<String, Long> filledByOrder(List<AccountTradeDTO> trades) {
+        Map<String, Long> filled = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        if (trades == null) {
+            return filled;
+        }
+        for (AccountTradeDTO trade : trades) {
+            if (trade.getOrderId() == null || trade.getSize() == null || trade.getSize().getValue() == null
+                    || (trade.getTradeId() != null && !seen.add(trade.getTradeId()))) {
+                continue;
+            }
+            filled.merge(trade.getOrderId(), Math.abs(FixedPoint.parse(trade.getSize().getValue())), Long::sum);
+        }
+        return filled;
+    }
+
+    private static Instant parseInstant(String value) {
+        return OffsetDateTime.parse(value).toInstant();
+    }
+
+    private static ValueObjectDTO value(long fixedPoint) {
+        return ValueObjectDTO.builder().value(FixedPoint.format(fixedPoint)).build();
+    }
+
+    /**
+     * Исполнение одного родительского ордера.
+     */
+    private final class Execution {
+
+        private final String id = UUID.randomUUID().toString();
+        private final String accountId;
+        private final ParentOrderRequestDTO request;
+        private final ExecutionAlgoEnum algo;
+        private final long quantity;
+        private final long lot;
+        private final List<Instant> times;
+        private final double[] weights;
+        private final double[] cumulative;
+        private final List<Child> children = new ArrayList<>();
+        private volatile ExecutionStatusEnum status = ExecutionStatusEnum.SCHEDULED;
+        private volatile Instant finishedAt;
+        private int nextSlice;
+        private TimerWheel.Timeout timeout;
+        private String error;
+
+        Execution(String accountId, ParentOrderRequestDTO request, ExecutionAlgoEnum algo, long quantity, long lot,
+                  List<Instant> times, double[] weights) {
+            this.accountId = accountId;
+            this.request = request;
+            this.algo = algo;
+            this.quantity = quantity;
+            this.lot = lot;
+            this.times = times;
+            this.weights = weights;
+            this.cumulative = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+        }
+
+        synchronized void scheduleNext() {
+            if (status.isTerminal()) {
+                return;
+            }
+            if (nextSlice < weights.length) {
+                timeout = timerWheel.schedule(this::onSlice, Duration.between(Instant.now(), times.get(nextSlice)));
+            } else {
+                Instant finish = times.get(times.size() - 1).plusMillis(completionGraceMs);
+                timeout = timerWheel.schedule(() -> finish(ExecutionStatusEnum.COMPLETED),
+                        Duration.between(Instant.now(), finish));
+            }
+        }
+
+        /**
+         * Срез: дочерний ордер на разницу между накопленной целью и уже исполненным и выставленным объёмом.
+         */
+        void onSlice() {
+            Child child;
+            synchronized (this) {
+                if (status.isTerminal()) {
+                    return;
+                }
+                status = ExecutionStatusEnum.WORKING;
+                int slice = nextSlice++;
+                long target = slice == weights.length - 1 ? quantity
+                        : roundToLot((long) (quantity * Math.min(1.0, cumulative[slice])));
+                long outstanding = roundToLot(target - filled() - working());
+                child = outstanding > 0 ? new Child(slice, id.substring(0, 8) + "-" + slice, outstanding) : null;
+                if (child != null) {
+                    children.add(child);
+                }
+                scheduleNext();
+            }
+            if (child != null) {
+                send(child);
+            }
+        }
+
+        private void send(Child child) {
+            OrderDTO order = OrderDTO.builder()
+                    .accountId(accountId)
+                    .symbol(request.getSymbol())
+                    .side(request.getSide())
+                    .quantity(value(child.quantity))
+                    .type(request.getLimitPrice() == null ? OrderTypeEnum.ORDER_TYPE_MARKET : OrderTypeEnum.ORDER_TYPE_LIMIT)
+                    .limitPrice(request.getLimitPrice())
+                    .timeInForce(request.getTimeInForce() == null ? TimeInForceEnum.TIME_IN_FORCE_DAY : request.getTimeInForce())
+                    .clientOrderId(child.clientOrderId)
+                    .build();
+            ordersService.placeOrder(order, accountId)
+                    .subscribe(state -> {
+                        orderTrackerService.track(accountId, state);
+                        boolean orphaned;
+                        synchronized (this) {
+                            child.orderId = state.getOrderId();
+                            child.status = state.getStatus();
+                            orphaned = status.isTerminal() && child.isWorking() && child.orderId != null;
+                        }
+                        if (orphaned) {
+                            log.info("Execution {} finished while slice {} was being placed, cancelling order {}",
+                                    id, child.slice, child.orderId);
+                            cancelChild(child);
+                        }
+                    }, e -> {
+                        log.warn("Execution {} slice {} failed: {}", id, child.slice, e.getMessage());
+                        synchronized (this) {
+                            child.error = e.getMessage();
+                        }
+                    });
+        }
+
+        /**
+         * Обновление исполненного объёма и статусов дочерних ордеров; при полном исполнении исполнение завершается.
+         */
+        void update(Map<String, Long> filledByOrder) {
+            boolean complete;
+            synchronized (this) {
+                for (Child child : children) {
+                    if (child.orderId == null) {
+                        continue;
+                    }
+                    child.filled = Math.max(child.filled, filledByOrder.getOrDefault(child.orderId, 0L));
+                    orderTrackerService.getOrder(accountId, child.orderId)
+                            .map(OrderStateDTO::getStatus)
+                            .ifPresent(status -> child.status = status);
+                    if (child.status != null && child.status.isFilled()) {
+                        child.filled = child.quantity;
+                    }
+                }
+                complete = !status.isTerminal() && filled() >= quantity;
+            }
+            if (complete) {
+                finish(ExecutionStatusEnum.COMPLETED);
+            }
+        }
+
+        /**
+         * Завершение исполнения: таймер отменяется, выставленные дочерние ордера снимаются; ордер среза,
+         * ответ на размещение которого ещё не получен, снимается по получении ответа.
+         */
+        void finish(ExecutionStatusEnum finalStatus) {
+            List<Child> working;
+            synchronized (this) {
+                if (status.isTerminal()) {
+                    return;
+                }
+                status = finalStatus;
+                finishedAt = Instant.now();
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                working = children.stream().filter(Child::isWorking).filter(child -> child.orderId != null).toList();
+            }
+            log.info("Execution {} {}: filled {} of {}", id, finalStatus, FixedPoint.format(filled()),
+                    FixedPoint.format(quantity));
+            working.forEach(this::cancelChild);
+        }
+
+        private void cancelChild(Child child) {
+            ordersService.cancelOrder(accountId, child.orderId)
+                    .subscribe(state -> orderTrackerService.track(accountId, state),
+                            e -> log.warn("Failed to cancel child order {} of execution {}: {}", child.orderId, id,
+                                    e.getMessage()));
+        }
+
+        boolean hasChildren() {
+            synchronized (this) {
+                return !children.isEmpty();
+            }
+        }
+
+        private synchronized long filled() {
+            return children.stream().mapToLong(child -> child.filled).sum();
+        }
+
+        private synchronized long working() {
+            return children.stream().filter(Child::isWorking).mapToLong(child -> child.quantity - child.filled).sum();
+        }
+
+        private long roundToLot(long value) {
+            return value <= 0 ? 0 : value - value % lot;
+        }
+
+        synchronized ParentOrderDTO toDto() {
+            return ParentOrderDTO.builder()
+                    .executionId(id)
+                    .accountId(accountId)
+                    .symbol(request.getSymbol())
+                    .side(request.getSide())
+                    .algo(algo)
+                    .status(status)
+                    .quantity(value(quantity))
+                    .filledQuantity(value(filled()))
+                    .workingQuantity(value(working()))
+                    .startTime(times.get(0).toString())
+                    .endTime(times.get(times.size() - 1).toString())
+                    .slicesTotal(weights.length)
+                    .slicesSent(nextSlice)
+                    .nextSliceAt(status.isTerminal() || nextSlice >= weights.length ? null
+                            : times.get(nextSlice).toString())
+                    .schedule(times.subList(0, weights.length).stream().map(Instant::toString).toList())
+                    .weights(Arrays.stream(weights).boxed().toList())
+                    .children(children.stream().map(Child::toDto).toList())
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * Дочерний ордер среза.
+     */
+    private static final class Child {
+
+        private final int slice;
+        private final String clientOrderId;
+        private final long quantity;
+        private final Instant sentAt = Instant.now();
+        private String orderId;
+        private OrderStatusEnum status;
+        private long filled;
+        private String error;
+
+        Child(int slice, String clientOrderId, long quantity) {
+            this.slice = slice;
+            this.clientOrderId = clientOrderId;
+            this.quantity = quantity;
+        }
+
+        /**
+         * Ордер ещё может быть исполнен: ожидает ответа на размещение или не достиг конечного статуса.
+         */
+        boolean isWorking() {
+            return error == null && (status == null || !status.isTerminal());
+        }
+
+        ChildOrderDTO toDto() {
+            return ChildOrderDTO.builder()
+                    .slice(slice)
+                    .orderId(orderId)
+                    .clientOrderId(clientOrderId)
+                    .quantity(value(quantity))
+                    .filledQuantity(value(filled))
+                    .status(status)
+                    .sentAt(sentAt.toString())
+                    .error(error)
+                    .build();
+        }
+    }
+}
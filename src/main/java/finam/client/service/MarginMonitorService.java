@@ -0,0 +1,331 @@
+package finam.client.service;
+
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.MarginAlertDTO;
+import finam.client.dto.MarginDTO;
+import finam.client.dto.MarginStatusDTO;
+import finam.client.dto.MarginThresholdsDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.MarginAlertTypeEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Монитор маржинальных показателей счетов. Для каждого наблюдаемого счёта блок маржинальных требований
+ * (FORTS, MC или MCT) опрашивается с адаптивным периодом: чем выше загрузка маржи, тем чаще опрос,
+ * от margin.monitor.max.interval.ms при низкой загрузке до margin.monitor.min.interval.ms при высокой.
+ * На каждом обновлении проверяются пороги счёта; пересечение порога в любую сторону порождает уведомление,
+ * которое публикуется в поток {@link #alerts()} и, если задан webhook_url, отправляется POST-запросом.
+ * Адреса webhook ограничены списком хостов margin.monitor.webhook.allowed.hosts.
+ */
+@Service
+@Slf4j
+public class MarginMonitorService {
+
+    private final AccountService accountService;
+    private final WebClient webhookClient;
+
+    private final Map<String, Monitor> monitors = new ConcurrentHashMap<>();
+    private final Sinks.Many<MarginAlertDTO> alertSink = Sinks.many().multicast().directBestEffort();
+
+    @Value("${margin.monitor.accounts:}")
+    private List<String> configuredAccounts;
+
+    @Value("${margin.monitor.default.max.utilization:0.8}")
+    private double defaultMaxUtilization;
+
+    @Value("${margin.monitor.min.interval.ms:250}")
+    private long minIntervalMs;
+
+    @Value("${margin.monitor.max.interval.ms:10000}")
+    private long maxIntervalMs;
+
+    @Value("${margin.monitor.low.utilization:0.3}")
+    private double lowUtilization;
+
+    @Value("${margin.monitor.high.utilization:0.9}")
+    private double highUtilization;
+
+    @Value("${margin.monitor.webhook.allowed.hosts:}")
+    private List<String> webhookAllowedHosts;
+
+    public MarginMonitorService(AccountService accountService, WebClient baseWebClient) {
+        this.accountService = accountService;
+        this.webhookClient = baseWebClient;
+    }
+
+    /**
+     * Проверка настроек и запуск мониторинга счетов из margin.monitor.accounts с порогами по умолчанию.
+     */
+    @PostConstruct
+    public void init() {
+        if (!(minIntervalMs > 0 && minIntervalMs <= maxIntervalMs)) {
+            throw new IllegalStateException("margin.monitor.min.interval.ms must be positive and not exceed "
+                    + "margin.monitor.max.interval.ms");
+        }
+        if (!(lowUtilization >= 0 && lowUtilization < highUtilization && highUtilization <= 1)) {
+            throw new IllegalStateException("margin.monitor.low.utilization and margin.monitor.high.utilization "
+                    + "must satisfy 0 <= low < high <= 1");
+        }
+        webhookAllowedHosts = webhookAllowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .toList();
+        configuredAccounts.stream()
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .forEach(accountId -> setThresholds(accountId, MarginThresholdsDTO.builder()
+                        .maxUtilization(defaultMaxUtilization)
+                        .build()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        monitors.values().forEach(monitor -> monitor.loop.dispose());
+    }
+
+    /**
+     * Устанавливает пороги счёта и запускает мониторинг, если он ещё не запущен.
+     *
+     * @param accountId  уникальный идентификатор аккаунта
+     * @param thresholds пороги: минимальные свободные средства, максимальная загрузка маржи,
+     *                   максимальное отношение минимальной маржи к капиталу и адрес webhook
+     * @return текущее состояние мониторинга
+     * @throws ResponseStatusException 400, если порог вне допустимого диапазона или хост webhook не разрешён
+     */
+    public MarginStatusDTO setThresholds(String accountId, MarginThresholdsDTO thresholds) {
+        validate(thresholds);
+        Monitor monitor = monitors.computeIfAbsent(accountId, Monitor::new);
+        monitor.thresholds = thresholds;
+        monitor.start();
+        return monitor.status();
+    }
+
+    /**
+     * Останавливает мониторинг счёта.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return true, если мониторинг был запущен
+     */
+    public boolean stop(String accountId) {
+        Monitor monitor = monitors.remove(accountId);
+        if (monitor == null) {
+            return false;
+        }
+        monitor.loop.dispose();
+        return true;
+    }
+
+    /**
+     * @return текущее состояние мониторинга счёта
+     */
+    public Optional<MarginStatusDTO> getStatus(String accountId) {
+        return Optional.ofNullable(monitors.get(accountId)).map(Monitor::status);
+    }
+
+    /**
+     * Поток уведомлений о пересечении порогов по всем счетам.
+     */
+    public Flux<MarginAlertDTO> alerts() {
+        return alertSink.asFlux();
+    }
+
+    private void validate(MarginThresholdsDTO thresholds) {
+        if (thresholds.getMinAvailableCash() != null && !Double.isFinite(thresholds.getMinAvailableCash())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "min_available_cash must be a finite number");
+        }
+        if (thresholds.getMaxUtilization() != null
+                && !(thresholds.getMaxUtilization() > 0 && thresholds.getMaxUtilization() <= 1)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "max_utilization must be in (0, 1]");
+        }
+        if (thresholds.getMaxMaintenanceRatio() != null
+                && !(thresholds.getMaxMaintenanceRatio() > 0 && Double.isFinite(thresholds.getMaxMaintenanceRatio()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "max_maintenance_ratio must be positive");
+        }
+        String webhookUrl = thresholds.getWebhookUrl();
+        if (webhookUrl != null && !webhookUrl.isBlank()) {
+            URI uri;
+            try {
+                uri = URI.create(webhookUrl.trim());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "webhook_url is not a valid URI", e);
+            }
+            String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+            if (!(scheme.equals("http") || scheme.equals("https")) || !webhookAllowedHosts.contains(host)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "webhook_url host is not in margin.monitor.webhook.allowed.hosts");
+            }
+        }
+    }
+
+    /**
+     * Период опроса: линейная интерполяция между max и min интервалом по загрузке маржи
+     * в диапазоне [low.utilization, high.utilization]; при нарушенном пороге используется минимальный интервал.
+     */
+    private long pollInterval(double utilization, boolean breached) {
+        if (breached) {
+            return minIntervalMs;
+        }
+        double ratio = (utilization - lowUtilization) / (highUtilization - lowUtilization);
+        ratio = Double.isNaN(ratio) ? 1 : Math.max(0, Math.min(1, ratio));
+        return Math.round(maxIntervalMs - ratio * (maxIntervalMs - minIntervalMs));
+    }
+
+    private void publish(MarginAlertDTO alert, MarginThresholdsDTO thresholds) {
+        log.warn("Margin alert for account ID: {}: {} {} (value {}, threshold {})", alert.getAccountId(),
+                alert.getType(), alert.isBreached() ? "breached" : "recovered", alert.getValue(), alert.getThreshold());
+        alertSink.emitNext(alert, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+
+        if (thresholds.getWebhookUrl() != null && !thresholds.getWebhookUrl().isBlank()) {
+            webhookClient.post()
+                    .uri(URI.create(thresholds.getWebhookUrl().trim()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(alert)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(Duration.ofSeconds(5))
+                    .subscribe(response -> { },
+                            e -> log.warn("Margin alert webhook failed for account ID: {}: {}",
+                                    alert.getAccountId(), e.getMessage()));
+        }
+    }
+
+    private static double number(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return 0;
+        }
+        return Double.parseDouble(value.getValue().trim());
+    }
+
+    /**
+     * Состояние мониторинга одного счёта и цикл его адаптивного опроса.
+     */
+    private final class Monitor {
+
+        private final String accountId;
+        private final Set<MarginAlertTypeEnum> breaches = EnumSet.noneOf(MarginAlertTypeEnum.class);
+        private volatile MarginThresholdsDTO thresholds;
+        private volatile Disposable loop;
+        private volatile long intervalMs = maxIntervalMs;
+        private double availableCash;
+        private double initialMargin;
+        private double maintenanceMargin;
+        private double utilization;
+        private double maintenanceRatio;
+        private Instant updatedAt;
+
+        Monitor(String accountId) {
+            this.accountId = accountId;
+        }
+
+        synchronized void start() {
+            if (loop != null && !loop.isDisposed()) {
+                return;
+            }
+            loop = Mono.defer(() -> accountService.getAccountInfo(accountId))
+                    .doOnNext(this::update)
+                    .onErrorResume(e -> {
+                        log.warn("Margin monitor poll failed for account ID: {}: {}", accountId, e.getMessage());
+                        return Mono.empty();
+                    })
+                    .then(Mono.defer(() -> Mono.delay(Duration.ofMillis(intervalMs))))
+                    .repeat()
+                    .subscribe();
+            log.info("Margin monitor started for account ID: {}", accountId);
+        }
+
+        void update(GetAccountResponseDTO account) {
+            MarginDTO margin = account.getPortfolioForts() != null ? account.getPortfolioForts()
+                    : account.getPortfolioMc() != null ? account.getPortfolioMc() : account.getPortfolioMct();
+            if (margin == null) {
+                intervalMs = maxIntervalMs;
+                return;
+            }
+            List<MarginAlertDTO> alerts = new ArrayList<>();
+            MarginThresholdsDTO current = thresholds;
+            synchronized (this) {
+                availableCash = number(margin.getAvailableCash());
+                initialMargin = number(margin.getInitialMargin());
+                maintenanceMargin = number(margin.getMaintenanceMargin());
+                double capacity = availableCash + initialMargin;
+                utilization = capacity <= 0 ? (initialMargin > 0 ? 1 : 0) : initialMargin / capacity;
+                maintenanceRatio = capacity <= 0 ? (maintenanceMargin > 0 ? 1 : 0) : maintenanceMargin / capacity;
+                updatedAt = Instant.now();
+
+                if (current.getMinAvailableCash() != null) {
+                    check(MarginAlertTypeEnum.AVAILABLE_CASH_LOW, availableCash < current.getMinAvailableCash(),
+                            availableCash, current.getMinAvailableCash(), alerts);
+                }
+                if (current.getMaxUtilization() != null) {
+                    check(MarginAlertTypeEnum.UTILIZATION_HIGH, utilization > current.getMaxUtilization(),
+                            utilization, current.getMaxUtilization(), alerts);
+                }
+                if (current.getMaxMaintenanceRatio() != null) {
+                    check(MarginAlertTypeEnum.MAINTENANCE_MARGIN_HIGH,
+                            maintenanceRatio > current.getMaxMaintenanceRatio(),
+                            maintenanceRatio, current.getMaxMaintenanceRatio(), alerts);
+                }
+                intervalMs = pollInterval(utilization, !breaches.isEmpty());
+            }
+            alerts.forEach(alert -> publish(alert, current));
+        }
+
+        private void check(MarginAlertTypeEnum type, boolean breached, double value, double threshold,
+                           List<MarginAlertDTO> alerts) {
+            boolean changed = breached ? breaches.add(type) : breaches.remove(type);
+            if (changed) {
+                alerts.add(MarginAlertDTO.builder()
+                        .accountId(accountId)
+                        .type(type)
+                        .breached(breached)
+                        .value(value)
+                        .threshold(threshold)
+                        .availableCash(availableCash)
+                        .initialMargin(initialMargin)
+                        .maintenanceMargin(maintenanceMargin)
+                        .utilization(utilization)
+                        .timestamp(updatedAt.toString())
+                        .build());
+            }
+        }
+
+        synchronized MarginStatusDTO status() {
+            return MarginStatusDTO.builder()
+                    .accountId(accountId)
+                    .availableCash(availableCash)
+                    .initialMargin(initialMargin)
+                    .maintenanceMargin(maintenanceMargin)
+                    .utilization(utilization)
+                    .maintenanceRatio(maintenanceRatio)
+                    .pollIntervalMs(intervalMs)
+                    .updatedAt(updatedAt == null ? null : updatedAt.toString())
+                    .breaches(List.copyOf(breaches))
+                    .thresholds(thresholds)
+                    .build();
+        }
+    }
+}
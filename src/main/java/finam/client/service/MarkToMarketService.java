@@ -0,0 +1,268 @@
+package finam.client.service;
+
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.MarkToMarketDTO;
+import finam.client.dto.MarkedPositionDTO;
+import finam.client.dto.PositionDTO;
+import finam.client.dto.QuoteDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис переоценки позиций по рынку. Позиции счетов хранятся в памяти и обновляются из API редко
+ * (mtm.positions.refresh.ms), а переоценка выполняется на каждое изменение котировки из {@link QuoteCacheService}.
+ * Нереализованный P&L и стоимость позиций пересчитываются только по инструменту, чья котировка изменилась,
+ * итоги по счёту корректируются на разницу.
+ */
+@Service
+@Slf4j
+public class MarkToMarketService {
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+    private final QuoteCacheService quoteCacheService;
+
+    private final Map<String, AccountMarks> accounts = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> accountsBySymbol = new ConcurrentHashMap<>();
+    private Disposable subscription;
+
+    @Value("${mtm.accounts:}")
+    private List<String> configuredAccounts;
+
+    public MarkToMarketService(AccountService accountService, TokenDetailsService tokenDetailsService,
+                               QuoteCacheService quoteCacheService) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.quoteCacheService = quoteCacheService;
+    }
+
+    @PostConstruct
+    public void init() {
+        subscription = quoteCacheService.updates()
+                .subscribe(this::onQuote, e -> log.error("Mark-to-market quote stream terminated", e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Периодическое обновление позиций счетов из API.
+     */
+    @Scheduled(fixedDelayString = "${mtm.positions.refresh.ms:60000}",
+            initialDelayString = "${mtm.positions.initial.delay.ms:10000}")
+    public void refreshPositions() {
+        resolveAccounts()
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(accountId -> accountService.getAccountInfo(accountId)
+                        .doOnNext(account -> updatePositions(accountId, account))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to refresh positions for account ID: {}: {}", accountId, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .onErrorResume(e -> {
+                    log.error("Mark-to-market position refresh failed", e);
+                    return Mono.empty();
+                })
+                .blockLast();
+    }
+
+    /**
+     * Переоценка счёта на последних котировках.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return позиции счёта с текущими ценами или пустой Optional, если позиции счёта ещё не загружены
+     */
+    public Optional<MarkToMarketDTO> getMarkToMarket(String accountId) {
+        return Optional.ofNullable(accounts.get(accountId)).map(marks -> marks.toDto(accountId));
+    }
+
+    /**
+     * Заменяет позиции счёта снимком из API и обновляет набор отслеживаемых котировок.
+     */
+    void updatePositions(String accountId, GetAccountResponseDTO account) {
+        AccountMarks marks = accounts.computeIfAbsent(accountId, id -> new AccountMarks());
+        Set<String> before;
+        Set<String> after;
+        synchronized (marks) {
+            before = new HashSet<>(marks.positions.keySet());
+            marks.replace(account.getPositions());
+            after = new HashSet<>(marks.positions.keySet());
+        }
+
+        Set<String> added = new HashSet<>(after);
+        added.removeAll(before);
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+
+        added.forEach(symbol -> accountsBySymbol.computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet()).add(accountId));
+        removed.forEach(symbol -> accountsBySymbol.computeIfPresent(symbol, (s, ids) -> {
+            ids.remove(accountId);
+            return ids.isEmpty() ? null : ids;
+        }));
+        quoteCacheService.track(added);
+        quoteCacheService.untrack(removed);
+    }
+
+    /**
+     * Переоценка позиций по котировке. Ошибки перехватываются, чтобы не отменить подписку на поток котировок:
+     * исключение в обработчике подписки завершает её.
+     */
+    private void onQuote(QuoteDTO quote) {
+        Set<String> holders = accountsBySymbol.get(quote.getSymbol());
+        if (holders == null) {
+            return;
+        }
+        OptionalLong price;
+        Instant pricedAt;
+        try {
+            price = QuoteCacheService.markPrice(quote);
+            pricedAt = quote.getTimestamp() == null ? Instant.now() : quote.getTimestamp().toInstant();
+        } catch (RuntimeException e) {
+            log.warn("Failed to price quote for symbol: {}: {}", quote.getSymbol(), e.getMessage());
+            return;
+        }
+        if (price.isEmpty()) {
+            return;
+        }
+        for (String accountId : holders) {
+            AccountMarks marks = accounts.get(accountId);
+            if (marks == null) {
+                continue;
+            }
+            try {
+                synchronized (marks) {
+                    marks.revalue(quote.getSymbol(), price.getAsLong(), pricedAt);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to revalue {} for account ID: {}: {}", quote.getSymbol(), accountId, e.getMessage());
+            }
+        }
+    }
+
+    private Mono<List<String>> resolveAccounts() {
+        List<String> configured = configuredAccounts.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        return configured.isEmpty() ? tokenDetailsService.getAccountIds() : Mono.just(configured);
+    }
+
+    private static long parse(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return 0;
+        }
+        return FixedPoint.parse(value.getValue());
+    }
+
+    private static ValueObjectDTO value(long fixedPoint) {
+        return ValueObjectDTO.builder().value(FixedPoint.format(fixedPoint)).build();
+    }
+
+    /**
+     * Позиции одного счёта и итоги по ним. Доступ синхронизируется по экземпляру.
+     */
+    private final class AccountMarks {
+
+        private final Map<String, Mark> positions = new LinkedHashMap<>();
+        private long unrealized;
+        private long exposure;
+        private Instant positionsUpdatedAt;
+
+        void replace(List<PositionDTO> snapshot) {
+            positions.clear();
+            unrealized = 0;
+            exposure = 0;
+            if (snapshot != null) {
+                for (PositionDTO position : snapshot) {
+                    Mark mark = new Mark(parse(position.getQuantity()), parse(position.getAveragePrice()));
+                    OptionalLong cached = quoteCacheService.getQuote(position.getSymbol())
+                            .map(QuoteCacheService::markPrice)
+                            .orElse(OptionalLong.empty());
+                    mark.revalue(cached.orElse(parse(position.getCurrentPrice())), null);
+                    positions.put(position.getSymbol(), mark);
+                    unrealized += mark.unrealized;
+                    exposure += mark.exposure;
+                }
+            }
+            positionsUpdatedAt = Instant.now();
+        }
+
+        void revalue(String symbol, long price, Instant pricedAt) {
+            Mark mark = positions.get(symbol);
+            if (mark == null) {
+                return;
+            }
+            long oldUnrealized = mark.unrealized;
+            long oldExposure = mark.exposure;
+            mark.revalue(price, pricedAt);
+            unrealized += mark.unrealized - oldUnrealized;
+            exposure += mark.exposure - oldExposure;
+        }
+
+        synchronized MarkToMarketDTO toDto(String accountId) {
+            return MarkToMarketDTO.builder()
+                    .accountId(accountId)
+                    .unrealizedPnl(value(unrealized))
+                    .exposure(value(exposure))
+                    .positionsUpdatedAt(positionsUpdatedAt == null ? null : positionsUpdatedAt.toString())
+                    .positions(positions.entrySet().stream()
+                            .map(entry -> entry.getValue().toDto(entry.getKey()))
+                            .toList())
+                    .build();
+        }
+    }
+
+    private static final class Mark {
+
+        private final long quantity;
+        private final long averagePrice;
+        private long price;
+        private long unrealized;
+        private long exposure;
+        private Instant pricedAt;
+
+        Mark(long quantity, long averagePrice) {
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+        }
+
+        void revalue(long newPrice, Instant newPricedAt) {
+            price = newPrice;
+            pricedAt = newPricedAt;
+            unrealized = FixedPoint.multiply(newPrice - averagePrice, quantity);
+            exposure = FixedPoint.multiply(newPrice, quantity);
+        }
+
+        MarkedPositionDTO toDto(String symbol) {
+            return MarkedPositionDTO.builder()
+                    .symbol(symbol)
+                    .quantity(value(quantity))
+                    .averagePrice(value(averagePrice))
+                    .currentPrice(value(price))
+                    .unrealizedPnl(value(unrealized))
+                    .exposure(value(exposure))
+                    .pricedAt(pricedAt == null ? null : pricedAt.toString())
+                    .build();
+        }
+    }
+}
@@ -36,7 +36,7 @@ public class MarketDataService {
      * @return Монореспонс последнего значения котировки
      */
     public Mono<QuoteResponseDTO> getLatestQuote(String symbol) {
-        log.info("Fetching latest quote for symbol: {}", symbol);
+        log.debug("Fetching latest quote for symbol: {}", symbol);
         return authenticatedWebClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/v1/instruments/{symbol}/quotes/latest").build(symbol))
                 .accept(MediaType.APPLICATION_JSON)
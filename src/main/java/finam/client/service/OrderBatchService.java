@@ -0,0 +1,198 @@
+package finam.client.service;
+
+import finam.client.dto.BulkOrderRequestDTO;
+import finam.client.dto.BulkOrderResponseDTO;
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderResultDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.enums.SideEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис пакетных операций с ордерами. Ордера пакета отправляются через {@link OrdersService} конвейером:
+ * одновременно выполняется не более max_in_flight запросов, и время исполнения пакета из N ордеров
+ * сокращается примерно до N / max_in_flight обращений к внешнему сервису. Массовая отмена выполняется
+ * одной параллельной волной. Ошибка одного ордера не прерывает пакет, а попадает в результат этого ордера.
+ */
+@Service
+@Slf4j
+public class OrderBatchService {
+
+    private final OrdersService ordersService;
+    private final OrderTrackerService orderTrackerService;
+
+    @Value("${orders.bulk.max.in.flight:16}")
+    private int defaultMaxInFlight;
+
+    @Value("${orders.bulk.max.orders:1000}")
+    private int maxOrders;
+
+    @Value("${orders.cancel.max.in.flight:256}")
+    private int cancelMaxInFlight;
+
+    public OrderBatchService(OrdersService ordersService, OrderTrackerService orderTrackerService) {
+        this.ordersService = ordersService;
+        this.orderTrackerService = orderTrackerService;
+    }
+
+    /**
+     * Размещение пакета ордеров. При preserve_symbol_order ордера одного инструмента отправляются
+     * строго последовательно в порядке пакета, а параллельно обрабатываются разные инструменты.
+     *
+     * @param request   пакет ордеров и параметры отправки
+     * @param accountId уникальный идентификатор аккаунта
+     * @return результаты размещения в порядке ордеров пакета
+     */
+    public Mono<BulkOrderResponseDTO> placeOrders(BulkOrderRequestDTO request, String accountId) {
+        List<OrderDTO> orders = request.getOrders() == null ? List.of() : request.getOrders();
+        if (orders.size() > maxOrders) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch exceeds " + maxOrders + " orders"));
+        }
+        int maxInFlight = request.getMaxInFlight() == null || request.getMaxInFlight() <= 0
+                ? defaultMaxInFlight : Math.min(request.getMaxInFlight(), defaultMaxInFlight);
+        long started = System.nanoTime();
+        OrderResultDTO[] results = new OrderResultDTO[orders.size()];
+        log.info("Placing batch of {} orders for account ID: {} with {} in flight", orders.size(), accountId, maxInFlight);
+
+        Flux<OrderResultDTO> placed;
+        if (request.isPreserveSymbolOrder()) {
+            Map<String, List<Integer>> bySymbol = new LinkedHashMap<>();
+            for (int i = 0; i < orders.size(); i++) {
+                String symbol = orders.get(i).getSymbol() == null ? "" : orders.get(i).getSymbol();
+                bySymbol.computeIfAbsent(symbol, s -> new ArrayList<>()).add(i);
+            }
+            placed = Flux.fromIterable(bySymbol.values())
+                    .flatMap(indexes -> Flux.fromIterable(indexes)
+                            .concatMap(i -> place(i, orders.get(i), accountId)), maxInFlight);
+        } else {
+            placed = Flux.range(0, orders.size())
+                    .flatMap(i -> place(i, orders.get(i), accountId), maxInFlight);
+        }
+
+        return placed
+                .doOnNext(result -> results[result.getIndex()] = result)
+                .then(Mono.fromSupplier(() -> {
+                    int succeeded = (int) Arrays.stream(results).filter(OrderResultDTO::isSuccess).count();
+                    return BulkOrderResponseDTO.builder()
+                            .accountId(accountId)
+                            .submitted(results.length)
+                            .succeeded(succeeded)
+                            .failed(results.length - succeeded)
+                            .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                            .results(Arrays.asList(results))
+                            .build();
+                }));
+    }
+
+    /**
+     * Массовая отмена активных ордеров счёта. Ордера выбираются из текущего списка ордеров по фильтру,
+     * и запросы отмены отправляются одновременно одной волной (до orders.cancel.max.in.flight запросов).
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param symbol    тикер инструмента; null для всех инструментов
+     * @param side      направление; null для обоих направлений
+     * @return результаты отмены по каждому выбранному ордеру
+     */
+    public Mono<BulkOrderResponseDTO> cancelOrders(String accountId, String symbol, SideEnum side) {
+        long started = System.nanoTime();
+        return ordersService.getOrders(accountId)
+                .map(response -> response.getOrders() == null ? List.<OrderStateDTO>of() : response.getOrders())
+                .map(orders -> orders.stream()
+                        .filter(state -> state.getOrderId() != null)
+                        .filter(state -> state.getStatus() == null || !state.getStatus().isTerminal())
+                        .filter(state -> symbol == null
+                                || (state.getOrder() != null && symbol.equals(state.getOrder().getSymbol())))
+                        .filter(state -> side == null || (state.getOrder() != null && side == state.getOrder().getSide()))
+                        .toList())
+                .flatMap(selected -> {
+                    log.warn("Mass cancel of {} orders for account ID: {} (symbol: {}, side: {})",
+                            selected.size(), accountId, symbol, side);
+                    return Flux.fromIterable(selected)
+                            .flatMapSequential(state -> cancel(state, accountId),
+                                    Math.max(1, Math.min(selected.size(), cancelMaxInFlight)))
+                            .collectList();
+                })
+                .map(results -> {
+                    int succeeded = (int) results.stream().filter(OrderResultDTO::isSuccess).count();
+                    return BulkOrderResponseDTO.builder()
+                            .accountId(accountId)
+                            .submitted(results.size())
+                            .succeeded(succeeded)
+                            .failed(results.size() - succeeded)
+                            .elapsedMs((System.nanoTime() - started) / 1_000_000)
+                            .results(results)
+                            .build();
+                });
+    }
+
+    private Mono<OrderResultDTO> cancel(OrderStateDTO order, String accountId) {
+        long started = System.nanoTime();
+        return ordersService.cancelOrder(accountId, order.getOrderId())
+                .doOnNext(state -> orderTrackerService.track(accountId, state))
+                .map(state -> success(state, started))
+                .switchIfEmpty(Mono.fromSupplier(() -> OrderResultDTO.builder()
+                        .success(true)
+                        .latencyMs((System.nanoTime() - started) / 1_000_000)
+                        .build()))
+                .onErrorResume(e -> Mono.just(failure(e, e.getMessage(), started)))
+                .map(result -> {
+                    result.setOrderId(order.getOrderId());
+                    if (order.getOrder() != null) {
+                        result.setSymbol(order.getOrder().getSymbol());
+                        result.setClientOrderId(order.getOrder().getClientOrderId());
+                    }
+                    return result;
+                });
+    }
+
+    private Mono<OrderResultDTO> place(int index, OrderDTO order, String accountId) {
+        long started = System.nanoTime();
+        return ordersService.placeOrder(order, accountId)
+                .doOnNext(state -> orderTrackerService.track(accountId, state))
+                .map(state -> success(state, started))
+                .switchIfEmpty(Mono.fromSupplier(() -> failure(null, "Empty response", started)))
+                .onErrorResume(e -> Mono.just(failure(e, e.getMessage(), started)))
+                .map(result -> {
+                    result.setIndex(index);
+                    result.setSymbol(order.getSymbol());
+                    result.setClientOrderId(order.getClientOrderId());
+                    return result;
+                });
+    }
+
+    private static OrderResultDTO success(OrderStateDTO state, long started) {
+        return OrderResultDTO.builder()
+                .orderId(state.getOrderId())
+                .success(true)
+                .state(state)
+                .latencyMs((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private static OrderResultDTO failure(Throwable e, String message, long started) {
+        OrderResultDTO.OrderResultDTOBuilder result = OrderResultDTO.builder()
+                .success(false)
+                .error(message)
+                .latencyMs((System.nanoTime() - started) / 1_000_000);
+        if (e instanceof WebClientResponseException response) {
+            result.errorStatus(response.getStatusCode().value())
+                    .error(response.getResponseBodyAsString());
+        } else if (e instanceof PreTradeRiskService.RejectedException) {
+            result.errorStatus(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        }
+        return result.build();
+    }
+}
@@ -0,0 +1,216 @@
+package finam.client.service;
+
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderEventDTO;
+import finam.client.dto.OrderLatencyDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.enums.OrderEventTypeEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис измерения задержек ордеров. Гистограммы Micrometer с процентилями ведутся с разбивкой по типу ордера,
+ * сроку действия и классу инструмента (площадке из символа вида SBER@MISX):
+ * <ul>
+ *     <li>orders.placement.latency — от отправки ордера до ответа внешнего сервиса (request-to-ack);</li>
+ *     <li>orders.cancel.latency — от запроса отмены до ответа;</li>
+ *     <li>orders.fill.latency — от принятия ордера до полного исполнения (ack-to-fill): по меткам accept_at и
+ *     transact_at внешнего сервиса, а при их отсутствии по моменту, когда {@link OrderTrackerService} увидел
+ *     исполнение.</li>
+ * </ul>
+ * Метрики доступны через Micrometer (/actuator/metrics) и в виде сводки процентилей.
+ */
+@Service
+@Slf4j
+public class OrderLatencyService {
+
+    public static final String PLACEMENT = "orders.placement.latency";
+    public static final String CANCEL = "orders.cancel.latency";
+    public static final String FILL = "orders.fill.latency";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<OrderTrackerService> orderTrackerService;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Ack> acks = new ConcurrentHashMap<>();
+    private Disposable subscription;
+
+    @Value("${orders.latency.expiry.ms:300000}")
+    private long expiryMs;
+
+    @Value("${orders.latency.pending.max.size:100000}")
+    private int maxPendingAcks;
+
+    @Value("${orders.latency.pending.ttl.ms:86400000}")
+    private long pendingTtlMs;
+
+    public OrderLatencyService(MeterRegistry meterRegistry, ObjectProvider<OrderTrackerService> orderTrackerService) {
+        this.meterRegistry = meterRegistry;
+        this.orderTrackerService = orderTrackerService;
+    }
+
+    /**
+     * Подписка на события исполнения после старта приложения, когда все сервисы ордеров созданы.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        subscription = orderTrackerService.getObject().events()
+                .subscribe(this::onEvent, e -> log.error("Order latency event stream terminated", e));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Учитывает задержку размещения ордера и запоминает момент подтверждения для расчёта ack-to-fill.
+     *
+     * @param order        ордер
+     * @param state        ответ внешнего сервиса; null при ошибке
+     * @param elapsedNanos время от отправки до ответа
+     */
+    public void recordPlacement(OrderDTO order, OrderStateDTO state, long elapsedNanos) {
+        TimerKey key = TimerKey.of(PLACEMENT, order, state == null ? "error" : "success");
+        timer(key).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (state != null && state.getOrderId() != null) {
+            long now = System.nanoTime();
+            if (acks.size() >= maxPendingAcks) {
+                acks.values().removeIf(ack -> now - ack.ackNanos() > pendingTtlMs * 1_000_000);
+            }
+            if (acks.size() < maxPendingAcks) {
+                acks.put(state.getOrderId(), new Ack(now, TimerKey.of(FILL, order, "filled")));
+            }
+        }
+    }
+
+    /**
+     * Учитывает задержку отмены ордера.
+     *
+     * @param accountId    уникальный идентификатор аккаунта
+     * @param orderId      уникальный идентификатор ордера
+     * @param state        ответ внешнего сервиса; null при ошибке
+     * @param elapsedNanos время от запроса отмены до ответа
+     */
+    public void recordCancel(String accountId, String orderId, OrderStateDTO state, long elapsedNanos) {
+        OrderDTO order = state != null && state.getOrder() != null ? state.getOrder()
+                : orderTrackerService.getObject().getOrder(accountId, orderId).map(OrderStateDTO::getOrder).orElse(null);
+        timer(TimerKey.of(CANCEL, order, state == null ? "error" : "success"))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        acks.remove(orderId);
+    }
+
+    /**
+     * Сводка процентилей по всем гистограммам.
+     *
+     * @param metric имя метрики; null для всех метрик
+     * @return задержки в миллисекундах
+     */
+    public List<OrderLatencyDTO> getLatencies(String metric) {
+        List<OrderLatencyDTO> result = new ArrayList<>();
+        timers.forEach((key, timer) -> {
+            if (metric != null && !metric.equals(key.metric())) {
+                return;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            OrderLatencyDTO.OrderLatencyDTOBuilder dto = OrderLatencyDTO.builder()
+                    .metric(key.metric())
+                    .orderType(key.orderType())
+                    .timeInForce(key.timeInForce())
+                    .symbolClass(key.symbolClass())
+                    .outcome(key.outcome())
+                    .count(snapshot.count())
+                    .meanMs(snapshot.mean(TimeUnit.MILLISECONDS))
+                    .maxMs(snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                double ms = value.value(TimeUnit.MILLISECONDS);
+                if (value.percentile() == 0.5) {
+                    dto.p50Ms(ms);
+                } else if (value.percentile() == 0.9) {
+                    dto.p90Ms(ms);
+                } else if (value.percentile() == 0.99) {
+                    dto.p99Ms(ms);
+                } else if (value.percentile() == 0.999) {
+                    dto.p999Ms(ms);
+                }
+            }
+            result.add(dto.build());
+        });
+        result.sort(Comparator.comparing(OrderLatencyDTO::getMetric)
+                .thenComparing(OrderLatencyDTO::getOrderType)
+                .thenComparing(OrderLatencyDTO::getTimeInForce)
+                .thenComparing(OrderLatencyDTO::getSymbolClass)
+                .thenComparing(OrderLatencyDTO::getOutcome));
+        return result;
+    }
+
+    private void onEvent(OrderEventDTO event) {
+        if (event.getStatus() == null || !event.getStatus().isTerminal()) {
+            return;
+        }
+        Ack ack = acks.remove(event.getOrderId());
+        if (ack == null || event.getType() != OrderEventTypeEnum.FILLED) {
+            return;
+        }
+        OrderStateDTO state = event.getState();
+        long elapsedNanos = state.getAcceptAt() != null && state.getTransactAt() != null
+                ? Duration.between(state.getAcceptAt(), state.getTransactAt()).toNanos()
+                : System.nanoTime() - ack.ackNanos();
+        if (elapsedNanos >= 0) {
+            timer(ack.fillKey()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(k.metric())
+                .tag("order_type", k.orderType())
+                .tag("time_in_force", k.timeInForce())
+                .tag("symbol_class", k.symbolClass())
+                .tag("outcome", k.outcome())
+                .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .distributionStatisticExpiry(Duration.ofMillis(expiryMs))
+                .register(meterRegistry));
+    }
+
+    private record Ack(long ackNanos, TimerKey fillKey) {
+    }
+
+    private record TimerKey(String metric, String orderType, String timeInForce, String symbolClass, String outcome) {
+
+        static TimerKey of(String metric, OrderDTO order, String outcome) {
+            if (order == null) {
+                return new TimerKey(metric, UNKNOWN, UNKNOWN, UNKNOWN, outcome);
+            }
+            String symbol = order.getSymbol();
+            int separator = symbol == null ? -1 : symbol.lastIndexOf('@');
+            return new TimerKey(metric,
+                    order.getType() == null ? UNKNOWN : order.getType().name(),
+                    order.getTimeInForce() == null ? UNKNOWN : order.getTimeInForce().name(),
+                    separator < 0 ? UNKNOWN : symbol.substring(separator + 1),
+                    outcome);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package finam.client.service;
+
+import finam.client.dto.OrderEventDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.enums.OrderEventTypeEnum;
+import finam.client.enums.OrderStatusEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис отслеживания состояния ордеров. С периодом order.tracker.interval.ms для каждого счёта выполняется
+ * один запрос списка ордеров, и состояния сравниваются с ранее известными. Смена статуса проверяется
+ * по {@link OrderStatusEnum#canTransitionTo(OrderStatusEnum)} и публикуется событием в поток {@link #events()};
+ * обновления ордера, уже достигшего конечного статуса, отбрасываются.
+ * Если активный ордер пропал из списка, его итоговое состояние запрашивается отдельно.
+ * Ордера в конечном статусе хранятся order.tracker.retention.ms и затем удаляются.
+ * Опрос выполняется неблокирующим циклом вне общего пула {@code @Scheduled}, поэтому медленные ответы
+ * не задерживают другие периодические задания.
+ */
+@Service
+@Slf4j
+public class OrderTrackerService {
+
+    private final OrdersService ordersService;
+    private final TokenDetailsService tokenDetailsService;
+
+    private final Map<String, Map<String, Tracked>> accounts = new ConcurrentHashMap<>();
+    private final Sinks.Many<OrderEventDTO> eventSink = Sinks.many().multicast().directBestEffort();
+
+    @Value("${order.tracker.accounts:}")
+    private List<String> configuredAccounts;
+
+    @Value("${order.tracker.retention.ms:3600000}")
+    private long retentionMs;
+
+    @Value("${order.tracker.concurrency:8}")
+    private int concurrency;
+
+    @Value("${order.tracker.interval.ms:1000}")
+    private long intervalMs;
+
+    @Value("${order.tracker.initial.delay.ms:5000}")
+    private long initialDelayMs;
+
+    private Disposable loop;
+
+    public OrderTrackerService(OrdersService ordersService, TokenDetailsService tokenDetailsService) {
+        this.ordersService = ordersService;
+        this.tokenDetailsService = tokenDetailsService;
+    }
+
+    /**
+     * Запуск цикла опроса: первый опрос через order.tracker.initial.delay.ms, следующие —
+     * через order.tracker.interval.ms после завершения предыдущего.
+     */
+    @PostConstruct
+    public void start() {
+        loop = Mono.delay(Duration.ofMillis(initialDelayMs))
+                .then(Mono.defer(this::poll)
+                        .then(Mono.defer(() -> Mono.delay(Duration.ofMillis(intervalMs))))
+                        .repeat()
+                        .then())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loop != null) {
+            loop.dispose();
+        }
+    }
+
+    /**
+     * Опрос ордеров по всем отслеживаемым счетам.
+     *
+     * @return завершение опроса; ошибки отдельных счетов логируются и не прерывают опрос
+     */
+    public Mono<Void> poll() {
+        return resolveAccounts()
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(accountId -> poll(accountId)
+                        .onErrorResume(e -> {
+                            log.warn("Order tracker poll failed for account ID: {}: {}", accountId, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .onErrorResume(e -> {
+                    log.error("Order tracker poll failed", e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * Опрос ордеров счёта: обновление известных состояний, дозапрос пропавших из списка активных ордеров
+     * и удаление устаревших ордеров в конечном статусе.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return завершение опроса
+     */
+    public Mono<Void> poll(String accountId) {
+        return ordersService.getOrders(accountId)
+                .map(response -> response.getOrders() == null ? List.<OrderStateDTO>of() : response.getOrders())
+                .flatMapMany(orders -> {
+                    Set<String> listed = new HashSet<>();
+                    for (OrderStateDTO state : orders) {
+                        if (state.getOrderId() != null) {
+                            listed.add(state.getOrderId());
+                            track(accountId, state);
+                        }
+                    }
+                    List<String> missing = orders(accountId).values().stream()
+                            .filter(tracked -> !tracked.status().isTerminal() && !listed.contains(tracked.orderId()))
+                            .map(Tracked::orderId)
+                            .toList();
+                    return Flux.fromIterable(missing);
+                })
+                .flatMap(orderId -> ordersService.getOrder(accountId, orderId)
+                        .doOnNext(state -> track(accountId, state))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to resolve order {} for account ID: {}: {}", orderId, accountId,
+                                    e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .then(Mono.fromRunnable(() -> evict(accountId)));
+    }
+
+    /**
+     * Учитывает состояние ордера, полученное из опроса или из ответа на размещение и отмену.
+     * При смене статуса публикуется событие. Состояние ордера в конечном статусе не меняется:
+     * запоздавшие ответы после исполнения или отмены отбрасываются.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param state     состояние ордера
+     */
+    public void track(String accountId, OrderStateDTO state) {
+        if (state == null || state.getOrderId() == null || state.getStatus() == null) {
+            return;
+        }
+        Map<String, Tracked> orders = orders(accountId);
+        OrderEventDTO event;
+        synchronized (orders) {
+            Tracked previous = orders.get(state.getOrderId());
+            OrderStatusEnum previousStatus = previous == null ? null : previous.status();
+            boolean changed = previous == null || previousStatus != state.getStatus()
+                    || (state.getStatus() == OrderStatusEnum.ORDER_STATUS_PARTIALLY_FILLED
+                    && !Objects.equals(previous.state().getExecId(), state.getExecId()));
+            if (!changed) {
+                return;
+            }
+            if (previousStatus != null && previousStatus.isTerminal()) {
+                log.warn("Ignoring stale status of order {} for account ID: {}: {} -> {}",
+                        state.getOrderId(), accountId, previousStatus, state.getStatus());
+                return;
+            }
+            boolean valid = previousStatus == null || previousStatus.canTransitionTo(state.getStatus());
+            if (!valid) {
+                log.warn("Unexpected status transition of order {} for account ID: {}: {} -> {}",
+                        state.getOrderId(), accountId, previousStatus, state.getStatus());
+            }
+            orders.put(state.getOrderId(), new Tracked(state.getOrderId(), state.getStatus(), state, Instant.now()));
+            event = OrderEventDTO.builder()
+                    .accountId(accountId)
+                    .orderId(state.getOrderId())
+                    .clientOrderId(state.getOrder() == null ? null : state.getOrder().getClientOrderId())
+                    .symbol(state.getOrder() == null ? null : state.getOrder().getSymbol())
+                    .type(previous == null && !state.getStatus().isTerminal()
+                            ? OrderEventTypeEnum.NEW : OrderEventTypeEnum.of(state.getStatus()))
+                    .previousStatus(previousStatus)
+                    .status(state.getStatus())
+                    .validTransition(valid)
+                    .timestamp(Instant.now().toString())
+                    .state(state)
+                    .build();
+        }
+        eventSink.emitNext(event, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * @return известные состояния ордеров счёта
+     */
+    public List<OrderStateDTO> getOrders(String accountId) {
+        Map<String, Tracked> orders = accounts.get(accountId);
+        if (orders == null) {
+            return List.of();
+        }
+        return orders.values().stream().map(Tracked::state).toList();
+    }
+
+    /**
+     * @return известное состояние ордера
+     */
+    public Optional<OrderStateDTO> getOrder(String accountId, String orderId) {
+        return Optional.ofNullable(accounts.get(accountId))
+                .map(orders -> orders.get(orderId))
+                .map(Tracked::state);
+    }
+
+    /**
+     * Поток событий жизненного цикла ордеров по всем отслеживаемым счетам.
+     */
+    public Flux<OrderEventDTO> events() {
+        return eventSink.asFlux();
+    }
+
+    private Map<String, Tracked> orders(String accountId) {
+        return accounts.computeIfAbsent(accountId, id -> new ConcurrentHashMap<>());
+    }
+
+    private void evict(String accountId) {
+        Instant threshold = Instant.now().minusMillis(retentionMs);
+        orders(accountId).values().removeIf(tracked -> tracked.status().isTerminal()
+                && tracked.updatedAt().isBefore(threshold));
+    }
+
+    /**
+     * Счета из order.tracker.accounts или все счета токена, а также счета, ордера которых уже отслеживаются.
+     */
+    private Mono<List<String>> resolveAccounts() {
+        List<String> configured = configuredAccounts.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        Mono<List<String>> base = configured.isEmpty() ? tokenDetailsService.getAccountIds() : Mono.just(configured);
+        return base.map(ids -> {
+            Set<String> all = new LinkedHashSet<>(ids);
+            all.addAll(accounts.keySet());
+            return new ArrayList<>(all);
+        });
+    }
+
+    private record Tracked(String orderId, OrderStatusEnum status, OrderStateDTO state, Instant updatedAt) {
+    }
+}
@@ -0,0 +1,334 @@
+package finam.client.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.dto.OrderWalRecordDTO;
+import finam.client.dto.OrderWalStatsDTO;
+import finam.client.enums.OrderWalRecordTypeEnum;
+import finam.client.util.WriteAheadLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Журнал упреждающей записи размещаемых ордеров ({@link WriteAheadLog}). Намерение разместить ордер фиксируется
+ * на диске до отправки, ответ внешнего сервиса — после, поэтому при аварийном завершении между отправкой и ответом
+ * ордер не теряется. Ордерам без client_order_id он присваивается до записи намерения.
+ * При запуске журнал воспроизводится, а намерения без ответа сверяются со списком ордеров счёта по client_order_id.
+ * Так же периодически сверяются намерения, размещение которых завершилось ошибкой без ответа сервиса
+ * (таймаут, обрыв соединения). Журнал сжимается до незавершённых намерений при запуске и по достижении
+ * orders.wal.compact.bytes.
+ */
+@Service
+@Slf4j
+public class OrderWalService {
+
+    private static final int CLIENT_ORDER_ID_LENGTH = 20;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OrdersService> ordersService;
+
+    private final Map<IntentKey, Intent> unresolved = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder reconciled = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private WriteAheadLog<OrderWalRecordDTO> wal;
+
+    @Value("${orders.wal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.wal.dir:./wal}")
+    private String walDir;
+
+    @Value("${orders.wal.max.batch:1024}")
+    private int maxBatch;
+
+    @Value("${orders.wal.compact.bytes:67108864}")
+    private long compactBytes;
+
+    @Value("${orders.wal.reconcile.after.ms:60000}")
+    private long reconcileAfterMs;
+
+    public OrderWalService(ObjectMapper objectMapper, ObjectProvider<OrdersService> ordersService) {
+        this.objectMapper = objectMapper;
+        this.ordersService = ordersService;
+    }
+
+    /**
+     * Открывает журнал, восстанавливает намерения без ответа и сжимает журнал до них.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        wal = new WriteAheadLog<>(Path.of(walDir, "orders.wal"), objectMapper, OrderWalRecordDTO.class, maxBatch);
+        for (OrderWalRecordDTO record : wal.open()) {
+            IntentKey key = new IntentKey(record.getAccountId(), record.getClientOrderId());
+            if (record.getType() == OrderWalRecordTypeEnum.INTENT) {
+                unresolved.put(key, new Intent(record, false));
+            } else if (record.getType() != null && record.getType().isResolution()) {
+                unresolved.remove(key);
+            }
+        }
+        recovered.add(unresolved.size());
+        wal.compact(this::liveRecords);
+        if (!unresolved.isEmpty()) {
+            log.warn("Recovered {} order intents without acknowledgement from the write-ahead log", unresolved.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * Сверка восстановленных намерений после старта приложения, когда сервис ордеров доступен.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileRecovered() {
+        if (!unresolved.isEmpty()) {
+            reconcile(0).subscribe();
+        }
+    }
+
+    /**
+     * Записывает намерение разместить ордер. Ордеру без client_order_id идентификатор присваивается.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param order     ордер
+     * @return завершается после фиксации записи на диске
+     */
+    public Mono<Void> logIntent(String accountId, OrderDTO order) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            if (order.getClientOrderId() == null || order.getClientOrderId().isBlank()) {
+                order.setClientOrderId(UUID.randomUUID().toString().replace("-", "").substring(0, CLIENT_ORDER_ID_LENGTH));
+            }
+            OrderWalRecordDTO record = record(OrderWalRecordTypeEnum.INTENT, accountId, order.getClientOrderId())
+                    .order(order)
+                    .build();
+            IntentKey key = new IntentKey(accountId, order.getClientOrderId());
+            unresolved.put(key, new Intent(record, true));
+            return Mono.fromFuture(wal.append(record))
+                    .doOnError(e -> unresolved.remove(key));
+        });
+    }
+
+    /**
+     * Записывает ответ внешнего сервиса на размещение. Запись не ожидает фиксации: при её потере
+     * намерение будет сверено после перезапуска.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param order     ордер
+     * @param state     ответ внешнего сервиса
+     */
+    public void logAck(String accountId, OrderDTO order, OrderStateDTO state) {
+        if (enabled) {
+            resolve(record(OrderWalRecordTypeEnum.ACK, accountId, order.getClientOrderId())
+                    .orderId(state.getOrderId())
+                    .status(state.getStatus())
+                    .build());
+        }
+    }
+
+    /**
+     * Записывает ошибку размещения. Ответ сервиса с ошибкой завершает намерение, а ошибка без ответа
+     * оставляет его для сверки: ордер мог быть принят.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param order     ордер
+     * @param error     ошибка размещения
+     */
+    public void logFailure(String accountId, OrderDTO order, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            resolve(record(OrderWalRecordTypeEnum.REJECTED, accountId, order.getClientOrderId())
+                    .error(error.getMessage())
+                    .build());
+            return;
+        }
+        Intent intent = unresolved.get(new IntentKey(accountId, order.getClientOrderId()));
+        if (intent != null) {
+            intent.inFlight = false;
+            log.warn("Outcome of order {} for account ID: {} is unknown, it will be reconciled: {}",
+                    order.getClientOrderId(), accountId, error.getMessage());
+        }
+    }
+
+    /**
+     * Периодическая сверка намерений без ответа старше orders.wal.reconcile.after.ms.
+     */
+    @Scheduled(fixedDelayString = "${orders.wal.reconcile.interval.ms:60000}",
+            initialDelayString = "${orders.wal.reconcile.initial.delay.ms:60000}")
+    public void reconcileUnresolved() {
+        if (!unresolved.isEmpty()) {
+            reconcile(reconcileAfterMs).block();
+        }
+    }
+
+    /**
+     * Сжатие журнала до незавершённых намерений по достижении orders.wal.compact.bytes.
+     */
+    @Scheduled(fixedDelayString = "${orders.wal.compact.interval.ms:60000}")
+    public void compact() throws IOException {
+        if (wal != null && wal.size() > compactBytes) {
+            long before = wal.size();
+            wal.compact(this::liveRecords);
+            log.info("Compacted order write-ahead log from {} to {} bytes", before, wal.size());
+        }
+    }
+
+    /**
+     * @return счётчики журнала и незавершённые намерения
+     */
+    public OrderWalStatsDTO getStats() {
+        if (wal == null) {
+            return OrderWalStatsDTO.builder().enabled(false).unresolvedClientOrderIds(List.of()).build();
+        }
+        long records = wal.records();
+        long batches = wal.batches();
+        long syncNanos = wal.syncNanos();
+        return OrderWalStatsDTO.builder()
+                .enabled(true)
+                .fileSize(wal.size())
+                .records(records)
+                .batches(batches)
+                .meanBatchSize(batches == 0 ? 0 : (double) records / batches)
+                .meanSyncUs(batches == 0 ? 0 : syncNanos / 1_000.0 / batches)
+                .meanSyncPerRecordUs(records == 0 ? 0 : syncNanos / 1_000.0 / records)
+                .unresolved(unresolved.size())
+                .recovered(recovered.sum())
+                .reconciled(reconciled.sum())
+                .notFound(notFound.sum())
+                .unresolvedClientOrderIds(unresolved.keySet().stream().map(IntentKey::clientOrderId).sorted().toList())
+                .build();
+    }
+
+    /**
+     * Сверка намерений без ответа, не ожидающих ответа сервиса, со списками ордеров их счетов по client_order_id.
+     *
+     * @param minAgeMs минимальный возраст намерения
+     */
+    private Mono<Void> reconcile(long minAgeMs) {
+        if (!reconciling.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        Instant threshold = Instant.now().minusMillis(minAgeMs);
+        Map<String, List<Intent>> byAccount = unresolved.values().stream()
+                .filter(intent -> !intent.inFlight && !Instant.parse(intent.record.getTimestamp()).isAfter(threshold))
+                .collect(Collectors.groupingBy(intent -> intent.record.getAccountId()));
+        return Flux.fromIterable(byAccount.entrySet())
+                .flatMap(entry -> ordersService.getObject().getOrders(entry.getKey())
+                        .doOnNext(response -> {
+                            Map<String, OrderStateDTO> byClientOrderId = response.getOrders() == null ? Map.of()
+                                    : response.getOrders().stream()
+                                    .filter(state -> state.getOrder() != null && state.getOrder().getClientOrderId() != null)
+                                    .collect(Collectors.toMap(state -> state.getOrder().getClientOrderId(),
+                                            Function.identity(), (first, second) -> first, HashMap::new));
+                            entry.getValue().forEach(intent -> reconcileIntent(intent, byClientOrderId));
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Failed to reconcile order intents for account ID: {}: {}", entry.getKey(),
+                                    e.getMessage());
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> reconciling.set(false))
+                .then();
+    }
+
+    private void reconcileIntent(Intent intent, Map<String, OrderStateDTO> byClientOrderId) {
+        String accountId = intent.record.getAccountId();
+        String clientOrderId = intent.record.getClientOrderId();
+        OrderStateDTO state = byClientOrderId.get(clientOrderId);
+        if (state != null) {
+            reconciled.increment();
+            log.info("Order intent {} for account ID: {} reconciled with order {} ({})", clientOrderId, accountId,
+                    state.getOrderId(), state.getStatus());
+            resolve(record(OrderWalRecordTypeEnum.RECONCILED, accountId, clientOrderId)
+                    .orderId(state.getOrderId())
+                    .status(state.getStatus())
+                    .build());
+        } else {
+            notFound.increment();
+            log.warn("Order intent {} for account ID: {} was not found upstream and is considered not placed",
+                    clientOrderId, accountId);
+            resolve(record(OrderWalRecordTypeEnum.NOT_FOUND, accountId, clientOrderId).build());
+        }
+    }
+
+    private void resolve(OrderWalRecordDTO record) {
+        if (unresolved.remove(new IntentKey(record.getAccountId(), record.getClientOrderId())) == null) {
+            return;
+        }
+        wal.append(record).whenComplete((ignored, e) -> {
+            if (e != null) {
+                log.warn("Failed to log {} of order {}: {}", record.getType(), record.getClientOrderId(), e.getMessage());
+            }
+        });
+    }
+
+    private List<OrderWalRecordDTO> liveRecords() {
+        List<OrderWalRecordDTO> records = new ArrayList<>();
+        unresolved.values().forEach(intent -> records.add(intent.record));
+        return records;
+    }
+
+    private static OrderWalRecordDTO.OrderWalRecordDTOBuilder record(OrderWalRecordTypeEnum type, String accountId,
+                                                                     String clientOrderId) {
+        return OrderWalRecordDTO.builder()
+                .type(type)
+                .timestamp(Instant.now().toString())
+                .accountId(accountId)
+                .clientOrderId(clientOrderId);
+    }
+
+    private record IntentKey(String accountId, String clientOrderId) {
+    }
+
+    /**
+     * Намерение без ответа; inFlight — ответ сервиса ещё ожидается в этом процессе.
+     */
+    private static final class Intent {
+
+        private final OrderWalRecordDTO record;
+        private volatile boolean inFlight;
+
+        Intent(OrderWalRecordDTO record, boolean inFlight) {
+            this.record = record;
+            this.inFlight = inFlight;
+        }
+    }
+}
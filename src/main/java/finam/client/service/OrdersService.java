@@ -1,27 +1,64 @@
 package finam.client.service;
 
+import finam.client.dto.CacheStatsDTO;
 import finam.client.dto.OrderDTO;
 import finam.client.dto.OrderStateDTO;
 import finam.client.dto.OrdersResponseDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.OrderTypeEnum;
+import finam.client.enums.SideEnum;
+import finam.client.util.FixedPoint;
+import finam.client.util.TtlCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Сервис для взаимодействия с внешним REST-сервисом ордеров.
  * Предоставляет методы для получения списка ордеров, отдельного ордера, отмены ордера и размещения нового ордера.
+ * Размещение ордера с client_order_id идемпотентно: повторный запрос с тем же идентификатором в течение
+ * orders.idempotency.ttl.ms получает результат первого размещения или присоединяется к ещё выполняющемуся.
+ * Повторный запрос с тем же идентификатором, но другим инструментом, направлением, количеством, типом или ценами
+ * отклоняется ошибкой {@link ResponseStatusException} 409. Ключ освобождается только при отказе 4xx или сбое
+ * до отправки; при прочих ошибках исход считается неизвестным, и повторный запрос сначала сверяется
+ * со списком ордеров аккаунта.
+ * Перед отправкой ордер проходит предторговую проверку {@link PreTradeRiskService}; отклонённый ордер не отправляется.
+ * Задержки размещения и отмены учитываются в {@link OrderLatencyService}.
+ * Намерение разместить ордер и ответ на размещение записываются в журнал {@link OrderWalService}:
+ * ордер отправляется только после фиксации намерения на диске.
  */
 @Service
 @Slf4j
 public class OrdersService {
 
     private final WebClient authenticatedWebClient;
+    private final PreTradeRiskService preTradeRiskService;
+    private final OrderLatencyService orderLatencyService;
+    private final OrderWalService orderWalService;
+    private final TtlCache<SubmissionKey, Submission> submissions;
 
-    public OrdersService(@Qualifier("authenticatedWebClient") WebClient authenticatedWebClient) {
+    public OrdersService(@Qualifier("authenticatedWebClient") WebClient authenticatedWebClient,
+                         PreTradeRiskService preTradeRiskService,
+                         OrderLatencyService orderLatencyService,
+                         OrderWalService orderWalService,
+                         @Value("${orders.idempotency.ttl.ms:86400000}") long idempotencyTtlMs,
+                         @Value("${orders.idempotency.max.size:100000}") int idempotencyMaxSize) {
         this.authenticatedWebClient = authenticatedWebClient;
+        this.preTradeRiskService = preTradeRiskService;
+        this.orderLatencyService = orderLatencyService;
+        this.orderWalService = orderWalService;
+        this.submissions = new TtlCache<>(Duration.ofMillis(idempotencyTtlMs), false, idempotencyMaxSize);
     }
 
     /**
@@ -31,7 +68,7 @@ public class OrdersService {
      * @return объект-обертка с информацией обо всех ордерах указанного аккаунта
      */
     public Mono<OrdersResponseDTO> getOrders(String accountId) {
-        log.info("Fetching orders for account ID: {}", accountId);
+        log.debug("Fetching orders for account ID: {}", accountId);
         return authenticatedWebClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders").build(accountId))
                 .accept(MediaType.APPLICATION_JSON)
@@ -47,7 +84,7 @@ public class OrdersService {
      * @return объект с состоянием выбранного ордера
      */
     public Mono<OrderStateDTO> getOrder(String accountId, String orderId) {
-        log.info("Fetching state of order {} for account ID: {}", orderId, accountId);
+        log.debug("Fetching state of order {} for account ID: {}", orderId, accountId);
         return authenticatedWebClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders/{order_id}").build(accountId, orderId))
                 .accept(MediaType.APPLICATION_JSON)
@@ -64,28 +101,178 @@ public class OrdersService {
      */
     public Mono<OrderStateDTO> cancelOrder(String accountId, String orderId) {
         log.info("Cancelling order {} for account ID: {}", orderId, accountId);
-        return authenticatedWebClient.delete()
-                .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders/{order_id}").build(accountId, orderId))
-                .accept(MediaType.APPLICATION_JSON)
-                .retrieve()
-                .bodyToMono(OrderStateDTO.class);
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return authenticatedWebClient.delete()
+                    .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders/{order_id}").build(accountId, orderId))
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToMono(OrderStateDTO.class)
+                    .doOnNext(state -> orderLatencyService.recordCancel(accountId, orderId, state,
+                            System.nanoTime() - started))
+                    .doOnError(e -> orderLatencyService.recordCancel(accountId, orderId, null,
+                            System.nanoTime() - started));
+        });
     }
 
     /**
      * Метод для размещения нового ордера на указанный аккаунт.
+     * Повторный вызов с тем же client_order_id не отправляет ордер заново, а возвращает результат первого вызова.
+     * Если исход первого размещения неизвестен (таймаут, обрыв соединения, ответ 5xx), повторный вызов сначала ищет
+     * ордер с тем же client_order_id среди ордеров аккаунта и отправляет его заново, только если ордер не найден.
      *
      * @param order     объект ордера, содержащий необходимую информацию
      * @param accountId уникальный идентификатор аккаунта
-     * @return объект с результатом операции размещения ордера
+     * @return объект с результатом операции размещения ордера или ошибка {@link ResponseStatusException} 409,
+     * если client_order_id уже использован для другого ордера
      */
     public Mono<OrderStateDTO> placeOrder(OrderDTO order, String accountId) {
-        log.info("Placing new order for account ID: {}", accountId);
-        return authenticatedWebClient.post()
-                .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders").build(accountId))
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .bodyValue(order)
-                .retrieve()
-                .bodyToMono(OrderStateDTO.class);
+        String clientOrderId = order.getClientOrderId();
+        if (clientOrderId == null || clientOrderId.isBlank()) {
+            return submitOrder(order, accountId, new AtomicBoolean());
+        }
+        SubmissionKey submissionKey = new SubmissionKey(accountId, clientOrderId);
+        Payload payload = Payload.of(order);
+        return submissions.get(submissionKey, key -> submit(key, order, payload))
+                .flatMap(submission -> {
+                    if (!submission.payload().equals(payload)) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "client_order_id "
+                                + clientOrderId + " was already used for a different order"));
+                    }
+                    if (submission.state() != null) {
+                        return Mono.just(submission.state());
+                    }
+                    return submissions.reload(submissionKey, key -> reconcile(key, order, payload))
+                            .map(Submission::state);
+                });
+    }
+
+    /**
+     * Статистика кэша идемпотентности размещения ордеров.
+     *
+     * @return снимок счётчиков кэша
+     */
+    public CacheStatsDTO getIdempotencyStats() {
+        return submissions.stats("order-submissions");
+    }
+
+    /**
+     * Отправляет ордер под client_order_id. Если запрос ушёл на сервер, но ответ не является отказом 4xx,
+     * ордер мог быть принят: ключ остаётся в кэше в неизвестном состоянии, и повтор начинается со сверки.
+     */
+    private Mono<Submission> submit(SubmissionKey key, OrderDTO order, Payload payload) {
+        AtomicBoolean sent = new AtomicBoolean();
+        return submitOrder(order, key.accountId(), sent)
+                .map(state -> new Submission(payload, state))
+                .doOnError(e -> {
+                    if (sent.get() && !isRejection(e)) {
+                        log.warn("Outcome of order {} for account ID: {} is unknown, a retry will reconcile it first",
+                                key.clientOrderId(), key.accountId());
+                        submissions.put(key, new Submission(payload, null));
+                    }
+                });
+    }
+
+    /**
+     * Ищет ордер с неизвестным исходом размещения среди ордеров аккаунта по client_order_id;
+     * если ордер не найден, отправляет его заново.
+     */
+    private Mono<Submission> reconcile(SubmissionKey key, OrderDTO order, Payload payload) {
+        return getOrders(key.accountId())
+                .mapNotNull(response -> response.getOrders() == null ? null : response.getOrders().stream()
+                        .filter(state -> state.getOrder() != null
+                                && key.clientOrderId().equals(state.getOrder().getClientOrderId()))
+                        .findFirst()
+                        .orElse(null))
+                .map(state -> {
+                    log.info("Order {} for account ID: {} was found upstream, not resubmitting",
+                            key.clientOrderId(), key.accountId());
+                    return new Submission(payload, state);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Order {} for account ID: {} was not found upstream, resubmitting",
+                            key.clientOrderId(), key.accountId());
+                    return submit(key, order, payload);
+                }));
+    }
+
+    private static boolean isRejection(Throwable e) {
+        return e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    private Mono<OrderStateDTO> submitOrder(OrderDTO order, String accountId, AtomicBoolean sent) {
+        return preTradeRiskService.check(order, accountId)
+                .then(orderWalService.logIntent(accountId, order)
+                        .doOnError(e -> {
+                            log.error("Failed to log order intent for account ID: {}", accountId, e);
+                            preTradeRiskService.release(order, accountId);
+                        })
+                        .doOnCancel(() -> abandon(order, accountId)))
+                .then(Mono.defer(() -> {
+                    log.info("Placing new order for account ID: {}", accountId);
+                    long started = System.nanoTime();
+                    sent.set(true);
+                    return authenticatedWebClient.post()
+                            .uri(uriBuilder -> uriBuilder.path("/v1/accounts/{account_id}/orders").build(accountId))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .bodyValue(order)
+                            .retrieve()
+                            .bodyToMono(OrderStateDTO.class)
+                            .doOnNext(state -> {
+                                orderLatencyService.recordPlacement(order, state, System.nanoTime() - started);
+                                orderWalService.logAck(accountId, order, state);
+                            })
+                            .doOnError(e -> {
+                                orderLatencyService.recordPlacement(order, null, System.nanoTime() - started);
+                                orderWalService.logFailure(accountId, order, e);
+                                preTradeRiskService.release(order, accountId);
+                            })
+                            .doOnCancel(() -> abandon(order, accountId));
+                }));
+    }
+
+    /**
+     * Размещение отменено подписчиком до ответа (отключение клиента, таймаут): ордер мог быть принят,
+     * поэтому намерение передаётся на сверку, а резерв позиции снимается до обновления позиций.
+     */
+    private void abandon(OrderDTO order, String accountId) {
+        log.warn("Order placement for account ID: {} was cancelled before a response", accountId);
+        orderWalService.logFailure(accountId, order,
+                new CancellationException("Order placement cancelled before a response"));
+        preTradeRiskService.release(order, accountId);
+    }
+
+    private record SubmissionKey(String accountId, String clientOrderId) {
+    }
+
+    /**
+     * Результат размещения вместе с параметрами ордера, под которыми он был получен;
+     * state равен null, пока исход размещения неизвестен.
+     */
+    private record Submission(Payload payload, OrderStateDTO state) {
+    }
+
+    /**
+     * Существенные параметры ордера для сравнения повторных запросов; числа приводятся к общему виду.
+     */
+    private record Payload(String symbol, SideEnum side, String quantity, OrderTypeEnum type,
+                           String limitPrice, String stopPrice) {
+
+        static Payload of(OrderDTO order) {
+            return new Payload(order.getSymbol(), order.getSide(), amount(order.getQuantity()), order.getType(),
+                    amount(order.getLimitPrice()), amount(order.getStopPrice()));
+        }
+
+        private static String amount(ValueObjectDTO value) {
+            if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+                return null;
+            }
+            try {
+                return FixedPoint.format(FixedPoint.parse(value.getValue()));
+            } catch (NumberFormatException | ArithmeticException e) {
+                return value.getValue().trim();
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,403 @@
+package finam.client.service;
+
+import finam.client.dto.AccountPnlDTO;
+import finam.client.dto.AccountTradeDTO;
+import finam.client.dto.DailyPnlDTO;
+import finam.client.dto.GetAssetResponseDTO;
+import finam.client.dto.LotDTO;
+import finam.client.dto.SymbolPnlDTO;
+import finam.client.dto.TradePnlDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.LotMethodEnum;
+import finam.client.enums.SideEnum;
+import finam.client.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис расчёта реализованного и нереализованного P&L по счетам с учётом лотов (FIFO или LIFO).
+ * Состояние лотов и агрегаты P&L поддерживаются инкрементально: при старте история сделок однократно
+ * воспроизводится из локального журнала, далее обрабатываются только новые сделки из потока журнала.
+ * Все суммы считаются в фиксированной точке ({@link FixedPoint}), поэтому результат не зависит от
+ * накопления ошибок округления double.
+ * Суммы по счёту и P&L по дням считаются только по инструментам в валюте pnl.currency: валюта котировки
+ * берётся из параметров инструментов {@link AssetHydratorService}. Инструменты в другой валюте и инструменты,
+ * параметры которых ещё не загружены, показываются в разбивке со своей валютой, но в суммы не входят;
+ * параметры отсутствующих инструментов запрашиваются в фоне.
+ */
+@Service
+@Slf4j
+public class PnlService {
+
+    private final AccountJournalService accountJournalService;
+    private final AssetHydratorService assetHydratorService;
+    private final LotMethodEnum lotMethod;
+    private final String currency;
+
+    private final Map<String, AccountBook> books = new ConcurrentHashMap<>();
+    private Disposable subscription;
+
+    public PnlService(AccountJournalService accountJournalService,
+                      AssetHydratorService assetHydratorService,
+                      @Value("${pnl.lot.method:FIFO}") LotMethodEnum lotMethod,
+                      @Value("${pnl.currency:RUB}") String currency) {
+        this.accountJournalService = accountJournalService;
+        this.assetHydratorService = assetHydratorService;
+        this.lotMethod = lotMethod;
+        this.currency = currency;
+    }
+
+    /**
+     * Подписка на новые сделки журнала и воспроизведение уже сохранённой истории.
+     * Подписка оформляется до воспроизведения, чтобы не пропустить сделки; повторы отбрасываются по trade_id.
+     */
+    @PostConstruct
+    public void init() {
+        subscription = accountJournalService.tradeUpdates()
+                .subscribe(entry -> onTrade(entry.accountId(), entry.record()),
+                        e -> log.error("P&L trade stream terminated", e));
+
+        for (String accountId : accountJournalService.getJournaledAccounts()) {
+            List<AccountTradeDTO> history = accountJournalService.getAllTrades(accountId);
+            history.forEach(trade -> onTrade(accountId, trade));
+            log.info("P&L state restored for account ID: {} from {} trades", accountId, history.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Учитывает сделку в состоянии счёта. Сделки без цены, объёма или направления пропускаются.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @param trade     сделка
+     */
+    public void onTrade(String accountId, AccountTradeDTO trade) {
+        if (trade.getTradeId() == null || trade.getSymbol() == null || trade.getPrice() == null
+                || trade.getSize() == null || trade.getTimestamp() == null) {
+            return;
+        }
+        SideEnum side;
+        try {
+            side = SideEnum.valueOf(trade.getSide());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Skipping trade {} with unknown side {}", trade.getTradeId(), trade.getSide());
+            return;
+        }
+        if (side == SideEnum.SIDE_UNSPECIFIED) {
+            return;
+        }
+        try {
+            long price = FixedPoint.parse(trade.getPrice().getValue());
+            long quantity = Math.abs(FixedPoint.parse(trade.getSize().getValue()));
+            books.computeIfAbsent(accountId, id -> new AccountBook())
+                    .apply(trade, side, price, quantity);
+        } catch (RuntimeException e) {
+            log.warn("Skipping trade {} for account ID: {}: {}", trade.getTradeId(), accountId, e.getMessage());
+        }
+    }
+
+    /**
+     * Сводный P&L по счёту с разбивкой по инструментам. Суммы по счёту — в валюте pnl.currency.
+     *
+     * @param accountId уникальный идентификатор аккаунта
+     * @return P&L счёта или пустой Optional, если по счёту нет сделок
+     */
+    public Optional<AccountPnlDTO> getAccountPnl(String accountId) {
+        return Optional.ofNullable(books.get(accountId)).map(book -> book.summary(accountId, new Currencies()));
+    }
+
+    /**
+     * P&L по инструменту.
+     */
+    public Optional<SymbolPnlDTO> getSymbolPnl(String accountId, String symbol) {
+        return Optional.ofNullable(books.get(accountId)).flatMap(book -> book.symbol(symbol, new Currencies()));
+    }
+
+    /**
+     * Реализованный P&L, зафиксированный конкретной сделкой.
+     */
+    public Optional<TradePnlDTO> getTradePnl(String accountId, String tradeId) {
+        return Optional.ofNullable(books.get(accountId)).flatMap(book -> book.trade(tradeId));
+    }
+
+    /**
+     * Реализованный P&L по дням (UTC) за интервал [from, to) по инструментам в валюте pnl.currency.
+     */
+    public List<DailyPnlDTO> getDailyPnl(String accountId, LocalDate from, LocalDate to) {
+        AccountBook book = books.get(accountId);
+        return book == null ? List.of() : book.daily(from, to, new Currencies());
+    }
+
+    /**
+     * Открытые лоты по инструменту в порядке открытия.
+     */
+    public List<LotDTO> getLots(String accountId, String symbol) {
+        AccountBook book = books.get(accountId);
+        return book == null ? List.of() : book.lots(symbol);
+    }
+
+    private static ValueObjectDTO value(long fixedPoint) {
+        return ValueObjectDTO.builder().value(FixedPoint.format(fixedPoint)).build();
+    }
+
+    /**
+     * Состояние счёта: очереди лотов и агрегаты P&L. Все операции выполняются под монитором книги.
+     */
+    private final class AccountBook {
+
+        private final Map<String, SymbolBook> symbols = new HashMap<>();
+        private final Map<String, TradePnl> trades = new HashMap<>();
+        private final TreeMap<LocalDate, Map<String, Long>> realizedByDay = new TreeMap<>();
+
+        synchronized void apply(AccountTradeDTO trade, SideEnum side, long price, long quantity) {
+            if (trades.containsKey(trade.getTradeId())) {
+                return;
+            }
+            SymbolBook book = symbols.computeIfAbsent(trade.getSymbol(), s -> new SymbolBook());
+            long signed = side == SideEnum.SIDE_BUY ? quantity : -quantity;
+            long[] closed = book.match(signed, price, trade);
+
+            if (closed[1] != 0) {
+                LocalDate day = OffsetDateTime.parse(trade.getTimestamp()).atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+                realizedByDay.computeIfAbsent(day, d -> new HashMap<>()).merge(trade.getSymbol(), closed[1], Long::sum);
+            }
+            trades.put(trade.getTradeId(), new TradePnl(trade.getSymbol(), trade.getSide(), quantity, price,
+                    closed[0], closed[1], trade.getTimestamp()));
+        }
+
+        synchronized AccountPnlDTO summary(String accountId, Currencies currencies) {
+            long realized = 0;
+            long unrealized = 0;
+            List<SymbolPnlDTO> result = new ArrayList<>(symbols.size());
+            for (Map.Entry<String, SymbolBook> entry : symbols.entrySet()) {
+                String symbolCurrency = currencies.of(entry.getKey());
+                if (currency.equals(symbolCurrency)) {
+                    realized += entry.getValue().realized;
+                    unrealized += entry.getValue().unrealized();
+                }
+                result.add(entry.getValue().toDto(entry.getKey(), symbolCurrency));
+            }
+            currencies.fetchMissing();
+            return AccountPnlDTO.builder()
+                    .accountId(accountId)
+                    .lotMethod(lotMethod)
+                    .tradesProcessed(trades.size())
+                    .currency(currency)
+                    .realizedPnl(value(realized))
+                    .unrealizedPnl(value(unrealized))
+                    .symbols(result)
+                    .build();
+        }
+
+        synchronized Optional<SymbolPnlDTO> symbol(String symbol, Currencies currencies) {
+            Optional<SymbolPnlDTO> result = Optional.ofNullable(symbols.get(symbol))
+                    .map(book -> book.toDto(symbol, currencies.of(symbol)));
+            currencies.fetchMissing();
+            return result;
+        }
+
+        synchronized Optional<TradePnlDTO> trade(String tradeId) {
+            return Optional.ofNullable(trades.get(tradeId)).map(pnl -> pnl.toDto(tradeId));
+        }
+
+        synchronized List<DailyPnlDTO> daily(LocalDate from, LocalDate to, Currencies currencies) {
+            List<DailyPnlDTO> result = new ArrayList<>();
+            for (Map.Entry<LocalDate, Map<String, Long>> day : realizedByDay.subMap(from, true, to, false).entrySet()) {
+                long realized = 0;
+                boolean closed = false;
+                for (Map.Entry<String, Long> entry : day.getValue().entrySet()) {
+                    if (currency.equals(currencies.of(entry.getKey()))) {
+                        realized += entry.getValue();
+                        closed = true;
+                    }
+                }
+                if (closed) {
+                    result.add(DailyPnlDTO.builder()
+                            .date(day.getKey().toString())
+                            .currency(currency)
+                            .realizedPnl(value(realized))
+                            .build());
+                }
+            }
+            currencies.fetchMissing();
+            return result;
+        }
+
+        synchronized List<LotDTO> lots(String symbol) {
+            SymbolBook book = symbols.get(symbol);
+            if (book == null) {
+                return List.of();
+            }
+            return book.lots.stream()
+                    .map(lot -> LotDTO.builder()
+                            .tradeId(lot.tradeId)
+                            .symbol(symbol)
+                            .quantity(value(lot.quantity))
+                            .price(value(lot.price))
+                            .openedAt(lot.openedAt)
+                            .build())
+                    .toList();
+        }
+    }
+
+    /**
+     * Лоты и агрегаты по одному инструменту. Количество лота положительно для длинной позиции
+     * и отрицательно для короткой; стоимость позиции хранится как сумма стоимостей лотов.
+     */
+    private final class SymbolBook {
+
+        private final Deque<Lot> lots = new ArrayDeque<>();
+        private long quantity;
+        private long cost;
+        private long realized;
+        private long lastPrice;
+
+        /**
+         * Закрывает встречные лоты в порядке lotMethod и открывает новый лот на остаток.
+         *
+         * @return {закрытое количество, реализованный P&L}
+         */
+        long[] match(long signed, long price, AccountTradeDTO trade) {
+            lastPrice = price;
+            long remaining = signed;
+            long closedQuantity = 0;
+            long pnl = 0;
+
+            while (remaining != 0 && !lots.isEmpty()) {
+                Lot lot = lotMethod == LotMethodEnum.FIFO ? lots.peekFirst() : lots.peekLast();
+                if (Long.signum(lot.quantity) == Long.signum(remaining)) {
+                    break;
+                }
+                long matched = Math.min(Math.abs(remaining), Math.abs(lot.quantity));
+                long direction = Long.signum(lot.quantity);
+                pnl += FixedPoint.multiply(direction > 0 ? price - lot.price : lot.price - price, matched);
+
+                long oldCost = lot.cost;
+                lot.quantity -= direction * matched;
+                lot.cost = FixedPoint.multiply(lot.price, lot.quantity);
+                cost += lot.cost - oldCost;
+                quantity -= direction * matched;
+                remaining += direction * matched;
+                closedQuantity += matched;
+
+                if (lot.quantity == 0) {
+                    if (lotMethod == LotMethodEnum.FIFO) {
+                        lots.pollFirst();
+                    } else {
+                        lots.pollLast();
+                    }
+                }
+            }
+
+            if (remaining != 0) {
+                Lot lot = new Lot(trade.getTradeId(), remaining, price, trade.getTimestamp());
+                lots.addLast(lot);
+                cost += lot.cost;
+                quantity += remaining;
+            }
+            realized += pnl;
+            return new long[]{closedQuantity, pnl};
+        }
+
+        /**
+         * Нереализованный P&L относительно цены последней сделки по инструменту.
+         */
+        long unrealized() {
+            return FixedPoint.multiply(lastPrice, quantity) - cost;
+        }
+
+        SymbolPnlDTO toDto(String symbol, String symbolCurrency) {
+            return SymbolPnlDTO.builder()
+                    .symbol(symbol)
+                    .currency(symbolCurrency)
+                    .quantity(value(quantity))
+                    .averagePrice(value(quantity == 0 ? 0 : FixedPoint.divide(cost, quantity)))
+                    .lastPrice(value(lastPrice))
+                    .realizedPnl(value(realized))
+                    .unrealizedPnl(value(unrealized()))
+                    .build();
+        }
+    }
+
+    /**
+     * Валюты котировки инструментов из параметров, уже загруженных в память. Инструменты без параметров
+     * запоминаются, и их загрузка запускается в фоне после построения ответа.
+     */
+    private final class Currencies {
+
+        private final Set<String> missing = new HashSet<>();
+
+        String of(String symbol) {
+            Optional<GetAssetResponseDTO> asset = assetHydratorService.getAsset(symbol);
+            if (asset.isEmpty()) {
+                missing.add(symbol);
+            }
+            return asset.map(GetAssetResponseDTO::getQuoteCurrency).orElse(null);
+        }
+
+        void fetchMissing() {
+            if (!missing.isEmpty()) {
+                assetHydratorService.getAssets(missing);
+            }
+        }
+    }
+
+    private static final class Lot {
+
+        private final String tradeId;
+        private final long price;
+        private final String openedAt;
+        private long quantity;
+        private long cost;
+
+        Lot(String tradeId, long quantity, long price, String openedAt) {
+            this.tradeId = tradeId;
+            this.quantity = quantity;
+            this.price = price;
+            this.openedAt = openedAt;
+            this.cost = FixedPoint.multiply(price, quantity);
+        }
+    }
+
+    private record TradePnl(String symbol, String side, long quantity, long price,
+                            long closedQuantity, long realized, String timestamp) {
+
+        TradePnlDTO toDto(String tradeId) {
+            return TradePnlDTO.builder()
+                    .tradeId(tradeId)
+                    .symbol(symbol)
+                    .side(side)
+                    .quantity(value(quantity))
+                    .price(value(price))
+                    .closedQuantity(value(closedQuantity))
+                    .realizedPnl(value(realized))
+                    .timestamp(timestamp)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package finam.client.service;
+
+import finam.client.dto.AggregatePortfolioDTO;
+import finam.client.dto.CashItemDTO;
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.PositionDTO;
+import finam.client.dto.ValueObjectDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сервис сводного портфеля по всем счетам, доступным токену.
+ * Счета запрашиваются параллельно, поэтому время ответа определяется самым медленным счётом, а не их суммой.
+ * Ошибка, таймаут или неразбираемое число в ответе по отдельному счёту попадает в errors и не прерывает
+ * сборку сводного портфеля: ответ счёта разбирается целиком до слияния, так что счёт с ошибкой не учитывается
+ * частично.
+ */
+@Service
+@Slf4j
+public class PortfolioService {
+
+    private static final BigDecimal NANOS_PER_UNIT = BigDecimal.valueOf(1_000_000_000L);
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+
+    @Value("${accounts.aggregate.concurrency:16}")
+    private int concurrency;
+
+    @Value("${accounts.aggregate.timeout.ms:10000}")
+    private long timeoutMs;
+
+    public PortfolioService(AccountService accountService, TokenDetailsService tokenDetailsService) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+    }
+
+    /**
+     * Сводный портфель: суммарные оценка, денежные средства по валютам и нереализованная прибыль,
+     * позиции неттированы по символу.
+     *
+     * @return сводный портфель по всем счетам токена
+     */
+    public Mono<AggregatePortfolioDTO> getAggregatePortfolio() {
+        return tokenDetailsService.getAccountIds()
+                .flatMap(this::aggregate);
+    }
+
+    private Mono<AggregatePortfolioDTO> aggregate(List<String> accountIds) {
+        return Flux.fromIterable(accountIds)
+                .flatMap(accountId -> accountService.getAccountInfo(accountId)
+                        .timeout(Duration.ofMillis(timeoutMs))
+                        .map(account -> AccountResult.success(accountId, AccountTotals.of(account)))
+                        .defaultIfEmpty(AccountResult.failure(accountId, "Empty response"))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to load account ID: {} for aggregate portfolio: {}", accountId, e.getMessage());
+                            return Mono.just(AccountResult.failure(accountId, e.getMessage()));
+                        }), concurrency)
+                .collectList()
+                .map(this::merge);
+    }
+
+    private AggregatePortfolioDTO merge(List<AccountResult> results) {
+        List<String> accountIds = new ArrayList<>();
+        Map<String, String> errors = new TreeMap<>();
+        BigDecimal equity = BigDecimal.ZERO;
+        BigDecimal unrealizedProfit = BigDecimal.ZERO;
+        Map<String, BigDecimal> cash = new TreeMap<>();
+        Map<String, NetPosition> positions = new TreeMap<>();
+
+        for (AccountResult result : results) {
+            if (result.error() != null) {
+                errors.put(result.accountId(), result.error());
+                continue;
+            }
+            AccountTotals account = result.account();
+            accountIds.add(result.accountId());
+            equity = equity.add(account.equity());
+            unrealizedProfit = unrealizedProfit.add(account.unrealizedProfit());
+            account.cash().forEach((currencyCode, amount) -> cash.merge(currencyCode, amount, BigDecimal::add));
+            for (PositionTotals position : account.positions()) {
+                positions.computeIfAbsent(position.symbol(), s -> new NetPosition()).add(position);
+            }
+        }
+
+        return AggregatePortfolioDTO.builder()
+                .accountIds(accountIds)
+                .equity(value(equity))
+                .unrealizedProfit(value(unrealizedProfit))
+                .cash(cash.entrySet().stream().map(entry -> cashItem(entry.getKey(), entry.getValue())).toList())
+                .positions(positions.entrySet().stream()
+                        .map(entry -> entry.getValue().toDto(entry.getKey()))
+                        .filter(position -> position != null)
+                        .toList())
+                .errors(errors)
+                .build();
+    }
+
+    private static BigDecimal decimal(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            return new BigDecimal(value.getValue().trim());
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Malformed number: " + value.getValue());
+        }
+    }
+
+    private static BigDecimal decimal(CashItemDTO item) {
+        long units = item.getUnits() == null ? 0 : item.getUnits();
+        int nanos = item.getNanos() == null ? 0 : item.getNanos();
+        return BigDecimal.valueOf(units).add(BigDecimal.valueOf(nanos, 9));
+    }
+
+    private static CashItemDTO cashItem(String currencyCode, BigDecimal amount) {
+        BigDecimal units = amount.setScale(0, RoundingMode.DOWN);
+        return CashItemDTO.builder()
+                .currencyCode(currencyCode)
+                .units(units.longValueExact())
+                .nanos(amount.subtract(units).multiply(NANOS_PER_UNIT).intValue())
+                .build();
+    }
+
+    private static ValueObjectDTO value(BigDecimal value) {
+        return ValueObjectDTO.builder().value(value.stripTrailingZeros().toPlainString()).build();
+    }
+
+    /**
+     * Неттированная позиция по символу: количество, стоимость открытия и P&L суммируются по счетам,
+     * средняя цена пересчитывается как стоимость открытия, делённая на количество.
+     */
+    private static final class NetPosition {
+
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal cost = BigDecimal.ZERO;
+        private BigDecimal dailyPnl = BigDecimal.ZERO;
+        private BigDecimal unrealizedPnl = BigDecimal.ZERO;
+        private ValueObjectDTO currentPrice;
+
+        void add(PositionTotals position) {
+            quantity = quantity.add(position.quantity());
+            cost = cost.add(position.cost());
+            dailyPnl = dailyPnl.add(position.dailyPnl());
+            unrealizedPnl = unrealizedPnl.add(position.unrealizedPnl());
+            if (position.currentPrice() != null) {
+                currentPrice = position.currentPrice();
+            }
+        }
+
+        PositionDTO toDto(String symbol) {
+            if (quantity.signum() == 0 && unrealizedPnl.signum() == 0 && dailyPnl.signum() == 0) {
+                return null;
+            }
+            BigDecimal averagePrice = quantity.signum() == 0 ? BigDecimal.ZERO
+                    : cost.divide(quantity, 8, RoundingMode.HALF_UP);
+            return PositionDTO.builder()
+                    .symbol(symbol)
+                    .quantity(value(quantity))
+                    .averagePrice(value(averagePrice))
+                    .currentPrice(currentPrice)
+                    .dailyPnl(value(dailyPnl))
+                    .unrealizedPnl(value(unrealizedPnl))
+                    .build();
+        }
+    }
+
+    /**
+     * Разобранные суммы одного счёта.
+     */
+    private record AccountTotals(BigDecimal equity, BigDecimal unrealizedProfit, Map<String, BigDecimal> cash,
+                                 List<PositionTotals> positions) {
+
+        /**
+         * @throws NumberFormatException если в ответе счёта есть неразбираемое число
+         */
+        static AccountTotals of(GetAccountResponseDTO account) {
+            Map<String, BigDecimal> cash = new TreeMap<>();
+            if (account.getCash() != null) {
+                for (CashItemDTO item : account.getCash()) {
+                    cash.merge(item.getCurrencyCode(), decimal(item), BigDecimal::add);
+                }
+            }
+            List<PositionTotals> positions = new ArrayList<>();
+            if (account.getPositions() != null) {
+                for (PositionDTO position : account.getPositions()) {
+                    positions.add(PositionTotals.of(position));
+                }
+            }
+            return new AccountTotals(decimal(account.getEquity()), decimal(account.getUnrealizedProfit()), cash,
+                    positions);
+        }
+    }
+
+    private record PositionTotals(String symbol, BigDecimal quantity, BigDecimal cost, BigDecimal dailyPnl,
+                                  BigDecimal unrealizedPnl, ValueObjectDTO currentPrice) {
+
+        static PositionTotals of(PositionDTO position) {
+            BigDecimal quantity = decimal(position.getQuantity());
+            return new PositionTotals(position.getSymbol(), quantity,
+                    quantity.multiply(decimal(position.getAveragePrice())), decimal(position.getDailyPnl()),
+                    decimal(position.getUnrealizedPnl()), position.getCurrentPrice());
+        }
+    }
+
+    private record AccountResult(String accountId, AccountTotals account, String error) {
+
+        static AccountResult success(String accountId, AccountTotals account) {
+            return new AccountResult(accountId, account, null);
+        }
+
+        static AccountResult failure(String accountId, String error) {
+            return new AccountResult(accountId, null, error);
+        }
+    }
+}
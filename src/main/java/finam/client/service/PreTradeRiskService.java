@@ -0,0 +1,486 @@
+package finam.client.service;
+
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.GetAssetResponseDTO;
+import finam.client.dto.OrderDTO;
+import finam.client.dto.OrderStateDTO;
+import finam.client.dto.PositionDTO;
+import finam.client.dto.PreTradeRiskStatsDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.OrderTypeEnum;
+import finam.client.enums.PreTradeRejectReasonEnum;
+import finam.client.enums.SideEnum;
+import finam.client.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Предторговая проверка рисков перед отправкой ордера. Проверяются кратность количества лоту, кратность цены
+ * шагу цены, отклонение лимитной цены от последней котировки, максимальный объём ордера в деньгах и
+ * максимальная позиция по инструменту с учётом активных ордеров. Все данные берутся из памяти: котировки
+ * из {@link QuoteCacheService}, параметры инструментов из кэша {@link ReferenceDataService}, позиции из
+ * периодически обновляемых снимков счетов. Резерв позиции под отправленные ордера изменяется атомарно
+ * без блокировок, так что одновременные ордера не могут вместе превысить лимит.
+ * Отклонённый ордер не покидает процесс: вызывающему возвращается {@link RejectedException}.
+ * По умолчанию выполняются только проверки полноты ордера; лимиты, ценовой коридор и кратность лоту и шагу цены
+ * включаются настройками risk.pretrade.*. Параметры инструментов запрашиваются только при включённой проверке
+ * кратности или risk.pretrade.require.asset и прогреваются при обновлении позиций для инструментов из позиций
+ * и активных ордеров, чтобы первый ордер по инструменту не ждал загрузки.
+ * Котировки старше risk.pretrade.quote.max.age.ms по биржевому времени считаются отсутствующими: ценовой коридор
+ * и объём рыночного ордера по ним не проверяются, а при risk.pretrade.require.quote ордер отклоняется.
+ * Инструмент исключается из опроса котировок, если по нему не было ордеров дольше risk.pretrade.quote.idle.ms.
+ */
+@Service
+@Slf4j
+public class PreTradeRiskService {
+
+    private static final Duration ASSET_TIMEOUT = Duration.ofSeconds(5);
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+    private final QuoteCacheService quoteCacheService;
+    private final ReferenceDataService referenceDataService;
+    private final ObjectProvider<OrderTrackerService> orderTrackerService;
+
+    private final Map<PositionKey, Position> positions = new ConcurrentHashMap<>();
+    private final Map<String, Long> quotedSymbols = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder checkNanos = new LongAdder();
+    private final AtomicLong maxCheckNanos = new AtomicLong();
+    private final Map<PreTradeRejectReasonEnum, LongAdder> rejects = new EnumMap<>(PreTradeRejectReasonEnum.class);
+
+    @Value("${risk.pretrade.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk.pretrade.accounts:}")
+    private List<String> configuredAccounts;
+
+    @Value("${risk.pretrade.max.notional:0}")
+    private String maxNotional;
+
+    @Value("${risk.pretrade.max.position:0}")
+    private String maxPosition;
+
+    private long notionalLimit;
+    private long positionLimit;
+
+    @Value("${risk.pretrade.price.collar:0}")
+    private double priceCollar;
+
+    @Value("${risk.pretrade.check.increments:false}")
+    private boolean checkIncrements;
+
+    @Value("${risk.pretrade.require.quote:false}")
+    private boolean requireQuote;
+
+    @Value("${risk.pretrade.require.asset:false}")
+    private boolean requireAsset;
+
+    @Value("${risk.pretrade.quote.max.age.ms:10000}")
+    private long quoteMaxAgeMs;
+
+    @Value("${risk.pretrade.quote.idle.ms:600000}")
+    private long quoteIdleMs;
+
+    public PreTradeRiskService(AccountService accountService, TokenDetailsService tokenDetailsService,
+                               QuoteCacheService quoteCacheService, ReferenceDataService referenceDataService,
+                               ObjectProvider<OrderTrackerService> orderTrackerService) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.quoteCacheService = quoteCacheService;
+        this.referenceDataService = referenceDataService;
+        this.orderTrackerService = orderTrackerService;
+        for (PreTradeRejectReasonEnum reason : PreTradeRejectReasonEnum.values()) {
+            rejects.put(reason, new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        notionalLimit = FixedPoint.parse(maxNotional);
+        positionLimit = FixedPoint.parse(maxPosition);
+    }
+
+    /**
+     * Периодическое обновление позиций счетов. Резерв позиции пересчитывается по активным ордерам,
+     * известным {@link OrderTrackerService}. Параметры инструментов из позиций и активных ордеров
+     * загружаются в кэш заранее, если они нужны проверке.
+     */
+    @Scheduled(fixedDelayString = "${risk.pretrade.positions.refresh.ms:30000}",
+            initialDelayString = "${risk.pretrade.positions.initial.delay.ms:10000}")
+    public void refreshPositions() {
+        if (!enabled) {
+            return;
+        }
+        resolveAccounts()
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(accountId -> accountService.getAccountInfo(accountId)
+                        .doOnNext(account -> updatePositions(accountId, account))
+                        .flatMap(account -> warmUpAssets(accountId))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to refresh pre-trade positions for account ID: {}: {}", accountId,
+                                    e.getMessage());
+                            return Mono.empty();
+                        }))
+                .onErrorResume(e -> {
+                    log.error("Pre-trade position refresh failed", e);
+                    return Mono.empty();
+                })
+                .blockLast();
+    }
+
+    /**
+     * Исключение из опроса котировок инструментов, по которым не было ордеров дольше risk.pretrade.quote.idle.ms.
+     */
+    @Scheduled(fixedDelayString = "${risk.pretrade.quote.evict.interval.ms:60000}")
+    public void evictQuotedSymbols() {
+        long threshold = System.nanoTime() - Duration.ofMillis(quoteIdleMs).toNanos();
+        quotedSymbols.forEach((symbol, lastUsed) -> {
+            if (lastUsed - threshold < 0 && quotedSymbols.remove(symbol, lastUsed)) {
+                quoteCacheService.untrack(List.of(symbol));
+            }
+        });
+    }
+
+    /**
+     * Проверка ордера. Многоногие ордера не проверяются. При успешной проверке количество ордера
+     * резервируется в позиции по инструменту; если ордер затем не удалось отправить, резерв снимается
+     * вызовом {@link #release(OrderDTO, String)}.
+     *
+     * @param order     ордер
+     * @param accountId уникальный идентификатор аккаунта
+     * @return пустой результат при успешной проверке или ошибка {@link RejectedException}
+     */
+    public Mono<Void> check(OrderDTO order, String accountId) {
+        if (!enabled || order.getType() == OrderTypeEnum.ORDER_TYPE_MULTI_LEG) {
+            return Mono.empty();
+        }
+        if (order.getSymbol() == null) {
+            return Mono.error(reject(PreTradeRejectReasonEnum.INVALID_ORDER, order, "symbol is required"));
+        }
+        if (!needsAsset()) {
+            RejectedException rejected = check(order, accountId, Asset.UNKNOWN);
+            return rejected == null ? Mono.empty() : Mono.error(rejected);
+        }
+        return referenceDataService.getAsset(order.getSymbol(), accountId)
+                .timeout(ASSET_TIMEOUT)
+                .map(Asset::new)
+                .onErrorResume(e -> {
+                    log.warn("Failed to load asset {} for pre-trade check: {}", order.getSymbol(), e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Asset.UNKNOWN)
+                .flatMap(asset -> {
+                    RejectedException rejected = check(order, accountId, asset);
+                    return rejected == null ? Mono.<Void>empty() : Mono.error(rejected);
+                });
+    }
+
+    /**
+     * Снимает резерв позиции под ордер, который не был принят внешним сервисом.
+     *
+     * @param order     ордер
+     * @param accountId уникальный идентификатор аккаунта
+     */
+    public void release(OrderDTO order, String accountId) {
+        if (!enabled || order.getSymbol() == null) {
+            return;
+        }
+        long delta = signedQuantity(order);
+        Position position = positions.get(new PositionKey(accountId, order.getSymbol()));
+        if (position != null && delta != 0) {
+            position.reserved.addAndGet(-delta);
+        }
+    }
+
+    /**
+     * @return статистика проверок
+     */
+    public PreTradeRiskStatsDTO getStats() {
+        long count = checks.sum();
+        Map<PreTradeRejectReasonEnum, Long> byReason = new EnumMap<>(PreTradeRejectReasonEnum.class);
+        long total = 0;
+        for (Map.Entry<PreTradeRejectReasonEnum, LongAdder> entry : rejects.entrySet()) {
+            long value = entry.getValue().sum();
+            total += value;
+            byReason.put(entry.getKey(), value);
+        }
+        return PreTradeRiskStatsDTO.builder()
+                .enabled(enabled)
+                .checks(count)
+                .rejects(total)
+                .rejectsByReason(byReason)
+                .meanCheckNanos(count == 0 ? 0 : checkNanos.sum() / count)
+                .maxCheckNanos(maxCheckNanos.get())
+                .build();
+    }
+
+    /**
+     * Синхронная часть проверки: только обращения к памяти.
+     *
+     * @return null, если ордер прошёл проверку, иначе причина отклонения
+     */
+    private RejectedException check(OrderDTO order, String accountId, Asset asset) {
+        long started = System.nanoTime();
+        try {
+            return evaluate(order, accountId, asset);
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            checks.increment();
+            checkNanos.add(elapsed);
+            maxCheckNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private RejectedException evaluate(OrderDTO order, String accountId, Asset asset) {
+        long quantity = parse(order.getQuantity());
+        if (quantity <= 0 || order.getSide() == null || order.getSide() == SideEnum.SIDE_UNSPECIFIED) {
+            return reject(PreTradeRejectReasonEnum.INVALID_ORDER, order, "quantity and side are required");
+        }
+        boolean limitPriced = order.getType() == OrderTypeEnum.ORDER_TYPE_LIMIT
+                || order.getType() == OrderTypeEnum.ORDER_TYPE_STOP_LIMIT;
+        long limitPrice = parse(order.getLimitPrice());
+        if (limitPriced && limitPrice <= 0) {
+            return reject(PreTradeRejectReasonEnum.INVALID_ORDER, order, "limit price is required");
+        }
+
+        if (asset == Asset.UNKNOWN) {
+            if (requireAsset) {
+                return reject(PreTradeRejectReasonEnum.NO_ASSET, order, "asset parameters are not available");
+            }
+        } else if (checkIncrements) {
+            if (asset.lotSize > 0 && quantity % asset.lotSize != 0) {
+                return reject(PreTradeRejectReasonEnum.LOT_SIZE, order,
+                        "quantity is not a multiple of lot size " + FixedPoint.format(asset.lotSize));
+            }
+            if (asset.tick > 0 && ((limitPriced && limitPrice % asset.tick != 0)
+                    || parse(order.getStopPrice()) % asset.tick != 0)) {
+                return reject(PreTradeRejectReasonEnum.TICK_SIZE, order,
+                        "price is not a multiple of price step " + FixedPoint.format(asset.tick));
+            }
+        }
+
+        OptionalLong mark = markPrice(order.getSymbol());
+        if (mark.isEmpty() && requireQuote) {
+            return reject(PreTradeRejectReasonEnum.NO_QUOTE, order, "no fresh quote for " + order.getSymbol());
+        }
+        if (limitPriced && mark.isPresent() && priceCollar > 0) {
+            double deviation = Math.abs((double) (limitPrice - mark.getAsLong())) / mark.getAsLong();
+            if (deviation > priceCollar) {
+                return reject(PreTradeRejectReasonEnum.PRICE_COLLAR, order,
+                        "limit price deviates from last price " + FixedPoint.format(mark.getAsLong())
+                                + " by more than " + priceCollar);
+            }
+        }
+
+        long price = limitPriced ? limitPrice : mark.orElse(0);
+        if (notionalLimit > 0 && price > 0) {
+            long notional = multiplySaturated(quantity, price);
+            if (notional > notionalLimit) {
+                return reject(PreTradeRejectReasonEnum.MAX_NOTIONAL, order,
+                        "notional " + FixedPoint.format(notional) + " exceeds " + maxNotional);
+            }
+        }
+
+        return reserve(order, accountId, quantity);
+    }
+
+    /**
+     * Атомарное резервирование количества ордера в позиции. Ордер, уменьшающий абсолютную позицию,
+     * пропускается даже при превышенном лимите.
+     */
+    private RejectedException reserve(OrderDTO order, String accountId, long quantity) {
+        long delta = order.getSide() == SideEnum.SIDE_BUY ? quantity : -quantity;
+        Position position = positions.computeIfAbsent(new PositionKey(accountId, order.getSymbol()),
+                key -> new Position());
+        while (true) {
+            long reserved = position.reserved.get();
+            long current = position.held + reserved;
+            long projected = current + delta;
+            if (positionLimit > 0 && Math.abs(projected) > positionLimit && Math.abs(projected) > Math.abs(current)) {
+                return reject(PreTradeRejectReasonEnum.MAX_POSITION, order,
+                        "projected position " + FixedPoint.format(projected) + " exceeds " + maxPosition);
+            }
+            if (position.reserved.compareAndSet(reserved, reserved + delta)) {
+                return null;
+            }
+        }
+    }
+
+    private boolean needsAsset() {
+        return checkIncrements || requireAsset;
+    }
+
+    /**
+     * Загрузка в кэш параметров инструментов, по которым у счёта есть позиция или резерв.
+     */
+    private Mono<Void> warmUpAssets(String accountId) {
+        if (!needsAsset()) {
+            return Mono.empty();
+        }
+        List<String> symbols = positions.keySet().stream()
+                .filter(key -> key.accountId().equals(accountId))
+                .map(PositionKey::symbol)
+                .toList();
+        return Flux.fromIterable(symbols)
+                .flatMap(symbol -> referenceDataService.getAsset(symbol, accountId)
+                        .onErrorResume(e -> {
+                            log.debug("Failed to warm up asset {} for pre-trade checks: {}", symbol, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * Цена для проверки по котировке не старше risk.pretrade.quote.max.age.ms. Инструмент добавляется в опрос
+     * при первом ордере, время последнего обращения продлевает его нахождение в опросе.
+     */
+    private OptionalLong markPrice(String symbol) {
+        if (quotedSymbols.put(symbol, System.nanoTime()) == null) {
+            quoteCacheService.track(List.of(symbol));
+        }
+        return quoteCacheService.getQuote(symbol)
+                .filter(quote -> QuoteCacheService.isFresh(quote, quoteMaxAgeMs))
+                .map(QuoteCacheService::markPrice)
+                .orElse(OptionalLong.empty());
+    }
+
+    private RejectedException reject(PreTradeRejectReasonEnum reason, OrderDTO order, String message) {
+        rejects.get(reason).increment();
+        log.warn("Pre-trade check rejected order {} {} {}: {} ({})", order.getSide(), order.getSymbol(),
+                order.getClientOrderId(), reason, message);
+        return new RejectedException(reason, message);
+    }
+
+    /**
+     * Заменяет позиции счёта снимком из API. Резерв пересчитывается как сумма количеств активных ордеров.
+     */
+    void updatePositions(String accountId, GetAccountResponseDTO account) {
+        Map<String, Long> held = new HashMap<>();
+        if (account.getPositions() != null) {
+            for (PositionDTO position : account.getPositions()) {
+                if (position.getSymbol() != null) {
+                    held.merge(position.getSymbol(), parse(position.getQuantity()), Long::sum);
+                }
+            }
+        }
+        Map<String, Long> working = new HashMap<>();
+        OrderTrackerService tracker = orderTrackerService.getIfAvailable();
+        if (tracker != null) {
+            for (OrderStateDTO state : tracker.getOrders(accountId)) {
+                if (state.getStatus() != null && !state.getStatus().isTerminal() && state.getOrder() != null
+                        && state.getOrder().getSymbol() != null) {
+                    working.merge(state.getOrder().getSymbol(), signedQuantity(state.getOrder()), Long::sum);
+                }
+            }
+        }
+
+        positions.forEach((key, position) -> {
+            if (key.accountId().equals(accountId) && !held.containsKey(key.symbol())) {
+                position.held = 0;
+                position.reserved.set(working.getOrDefault(key.symbol(), 0L));
+            }
+        });
+        held.forEach((symbol, quantity) -> {
+            Position position = positions.computeIfAbsent(new PositionKey(accountId, symbol), key -> new Position());
+            position.held = quantity;
+            position.reserved.set(working.getOrDefault(symbol, 0L));
+        });
+    }
+
+    private Mono<List<String>> resolveAccounts() {
+        List<String> configured = configuredAccounts.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        return configured.isEmpty() ? tokenDetailsService.getAccountIds() : Mono.just(configured);
+    }
+
+    private static long signedQuantity(OrderDTO order) {
+        long quantity = parse(order.getQuantity());
+        return order.getSide() == SideEnum.SIDE_SELL ? -quantity : order.getSide() == SideEnum.SIDE_BUY ? quantity : 0;
+    }
+
+    private static long multiplySaturated(long a, long b) {
+        BigInteger product = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b))
+                .divide(BigInteger.valueOf(FixedPoint.ONE));
+        return product.bitLength() < Long.SIZE ? product.longValue() : Long.MAX_VALUE;
+    }
+
+    private static long parse(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return 0;
+        }
+        return FixedPoint.parse(value.getValue());
+    }
+
+    private record PositionKey(String accountId, String symbol) {
+    }
+
+    /**
+     * Позиция по инструменту: количество из последнего снимка счёта и резерв под активные ордера.
+     */
+    private static final class Position {
+        private volatile long held;
+        private final AtomicLong reserved = new AtomicLong();
+    }
+
+    /**
+     * Параметры инструмента в фиксированной точке: размер лота и шаг цены; 0, если параметр неизвестен.
+     */
+    private static final class Asset {
+
+        static final Asset UNKNOWN = new Asset(0, 0);
+
+        final long lotSize;
+        final long tick;
+
+        Asset(long lotSize, long tick) {
+            this.lotSize = lotSize;
+            this.tick = tick;
+        }
+
+        Asset(GetAssetResponseDTO asset) {
+            this(parse(asset.getLotSize()), tick(asset));
+        }
+
+        private static long tick(GetAssetResponseDTO asset) {
+            if (asset.getMinStep() == null || asset.getDecimals() == null || asset.getDecimals() > FixedPoint.SCALE) {
+                return 0;
+            }
+            return asset.getMinStep() * (long) Math.pow(10, FixedPoint.SCALE - asset.getDecimals());
+        }
+    }
+
+    /**
+     * Ордер отклонён предторговой проверкой рисков.
+     */
+    @Getter
+    public static class RejectedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PreTradeRejectReasonEnum reason;
+
+        public RejectedException(PreTradeRejectReasonEnum reason, String message) {
+            super(reason + ": " + message, null, false, false);
+            this.reason = reason;
+        }
+    }
+}
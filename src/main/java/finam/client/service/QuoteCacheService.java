@@ -0,0 +1,223 @@
+package finam.client.service;
+
+import finam.client.dto.QuoteDTO;
+import finam.client.dto.QuoteResponseDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Общий кэш котировок. Инструменты, на которые подписаны потребители ({@link #track(Collection)}),
+ * опрашиваются одним периодическим заданием, независимо от числа потребителей. Изменившиеся котировки
+ * сохраняются в кэше и публикуются в поток {@link #updates()}.
+ * Опрос выполняется неблокирующим циклом вне общего пула {@code @Scheduled}.
+ */
+@Service
+@Slf4j
+public class QuoteCacheService {
+
+    private final MarketDataService marketDataService;
+
+    private final Map<String, Integer> trackedSymbols = new ConcurrentHashMap<>();
+    private final Map<String, QuoteDTO> quotes = new ConcurrentHashMap<>();
+    private final Sinks.Many<QuoteDTO> sink = Sinks.many().multicast().directBestEffort();
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    @Value("${quotes.poll.concurrency:16}")
+    private int concurrency;
+
+    @Value("${quotes.poll.interval.ms:1000}")
+    private long intervalMs;
+
+    @Value("${quotes.poll.timeout.ms:30000}")
+    private long timeoutMs;
+
+    private Disposable loop;
+
+    public QuoteCacheService(MarketDataService marketDataService) {
+        this.marketDataService = marketDataService;
+    }
+
+    /**
+     * Добавляет инструменты в опрос. Каждому вызову должен соответствовать вызов {@link #untrack(Collection)}.
+     *
+     * @param symbols символы финансовых инструментов
+     */
+    public void track(Collection<String> symbols) {
+        symbols.forEach(symbol -> trackedSymbols.merge(symbol, 1, Integer::sum));
+    }
+
+    /**
+     * Исключает инструменты из опроса, когда на них не остаётся подписчиков; котировка такого инструмента
+     * удаляется из кэша, чтобы новый подписчик не получил устаревшее значение.
+     *
+     * @param symbols символы финансовых инструментов
+     */
+    public void untrack(Collection<String> symbols) {
+        symbols.forEach(symbol -> trackedSymbols.computeIfPresent(symbol, (key, count) -> {
+            if (count > 1) {
+                return count - 1;
+            }
+            quotes.remove(key);
+            return null;
+        }));
+    }
+
+    /**
+     * @return последняя известная котировка инструмента
+     */
+    public Optional<QuoteDTO> getQuote(String symbol) {
+        return Optional.ofNullable(quotes.get(symbol));
+    }
+
+    /**
+     * Поток изменившихся котировок по всем отслеживаемым инструментам.
+     */
+    public Flux<QuoteDTO> updates() {
+        return sink.asFlux();
+    }
+
+    /**
+     * Поток котировок по набору инструментов на время подписки: сначала текущие значения из кэша,
+     * затем обновления. Инструменты добавляются в опрос при подписке и исключаются при отмене.
+     *
+     * @param symbols символы финансовых инструментов
+     * @return поток котировок
+     */
+    public Flux<QuoteDTO> subscribe(Collection<String> symbols) {
+        List<String> subscribed = List.copyOf(symbols);
+        return Flux.defer(() -> {
+            track(subscribed);
+            Flux<QuoteDTO> cached = Flux.fromIterable(subscribed).mapNotNull(quotes::get);
+            return cached.concatWith(updates().filter(quote -> subscribed.contains(quote.getSymbol())));
+        }).doFinally(signal -> untrack(subscribed));
+    }
+
+    /**
+     * Цена для переоценки: цена последней сделки, при её отсутствии середина спреда.
+     *
+     * @param quote котировка
+     * @return цена в фиксированной точке {@link FixedPoint}
+     */
+    public static OptionalLong markPrice(QuoteDTO quote) {
+        OptionalLong last = parse(quote.getLast());
+        if (last.isPresent() && last.getAsLong() != 0) {
+            return last;
+        }
+        OptionalLong bid = parse(quote.getBid());
+        OptionalLong ask = parse(quote.getAsk());
+        if (bid.isPresent() && ask.isPresent()) {
+            return OptionalLong.of((bid.getAsLong() + ask.getAsLong()) / 2);
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Проверка свежести котировки по её биржевому времени.
+     *
+     * @param quote    котировка
+     * @param maxAgeMs максимальный допустимый возраст котировки, мс
+     * @return true, если время котировки известно и она не старше maxAgeMs
+     */
+    public static boolean isFresh(QuoteDTO quote, long maxAgeMs) {
+        return quote.getTimestamp() != null
+                && Duration.between(quote.getTimestamp().toInstant(), Instant.now()).toMillis() <= maxAgeMs;
+    }
+
+    /**
+     * Запуск цикла опроса: следующий опрос начинается через quotes.poll.interval.ms после завершения предыдущего.
+     */
+    @PostConstruct
+    public void start() {
+        loop = Mono.defer(this::poll)
+                .then(Mono.defer(() -> Mono.delay(Duration.ofMillis(intervalMs))))
+                .repeat()
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (loop != null) {
+            loop.dispose();
+        }
+    }
+
+    /**
+     * Опрос отслеживаемых инструментов.
+     *
+     * @return завершение опроса; опрос дольше quotes.poll.timeout.ms прерывается
+     */
+    public Mono<Void> poll() {
+        if (trackedSymbols.isEmpty() || !polling.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(List.copyOf(trackedSymbols.keySet()))
+                .flatMap(symbol -> marketDataService.getLatestQuote(symbol)
+                        .mapNotNull(QuoteResponseDTO::getQuote)
+                        .map(quote -> {
+                            if (quote.getSymbol() == null) {
+                                quote.setSymbol(symbol);
+                            }
+                            return quote;
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Failed to poll quote for symbol: {}: {}", symbol, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .doOnNext(this::onQuote)
+                .then()
+                .timeout(Duration.ofMillis(timeoutMs))
+                .onErrorResume(e -> {
+                    log.warn("Quote poll failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> polling.set(false));
+    }
+
+    private void onQuote(QuoteDTO quote) {
+        if (!trackedSymbols.containsKey(quote.getSymbol())) {
+            return;
+        }
+        QuoteDTO previous = quotes.put(quote.getSymbol(), quote);
+        if (previous == null || changed(previous, quote)) {
+            sink.emitNext(quote, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        }
+    }
+
+    private static boolean changed(QuoteDTO previous, QuoteDTO current) {
+        return !Objects.equals(previous.getTimestamp(), current.getTimestamp())
+                || !Objects.equals(text(previous.getLast()), text(current.getLast()))
+                || !Objects.equals(text(previous.getBid()), text(current.getBid()))
+                || !Objects.equals(text(previous.getAsk()), text(current.getAsk()));
+    }
+
+    private static String text(ValueObjectDTO value) {
+        return value == null ? null : value.getValue();
+    }
+
+    private static OptionalLong parse(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(FixedPoint.parse(value.getValue()));
+    }
+}
@@ -0,0 +1,143 @@
+package finam.client.service;
+
+import finam.client.dto.CacheStatsDTO;
+import finam.client.dto.ExchangesResponseDTO;
+import finam.client.dto.GetAssetResponseDTO;
+import finam.client.dto.ScheduleResponseDTO;
+import finam.client.util.TtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис справочных данных с длительным временем жизни: список бирж, расписания торгов и параметры инструментов.
+ * Данные кэшируются в памяти в режиме stale-while-revalidate: после истечения срока жизни клиенту сразу
+ * отдаётся последнее известное значение, а обновление выполняется в фоне. Благодаря этому справочные
+ * запросы обслуживаются локально и переживают кратковременную недоступность внешнего API.
+ */
+@Service
+@Slf4j
+public class ReferenceDataService {
+
+    private static final String EXCHANGES_KEY = "exchanges";
+
+    private final ToolsService toolsService;
+    private final TokenDetailsService tokenDetailsService;
+
+    private final TtlCache<String, ExchangesResponseDTO> exchanges;
+    private final TtlCache<String, ScheduleResponseDTO> schedules;
+    private final TtlCache<AssetKey, GetAssetResponseDTO> assets;
+
+    @Value("${reference.warmup.symbols:}")
+    private List<String> warmupSymbols;
+
+    @Value("${reference.warmup.concurrency:8}")
+    private int warmupConcurrency;
+
+    @Value("${reference.warmup.retries:5}")
+    private int warmupRetries;
+
+    public ReferenceDataService(ToolsService toolsService,
+                                TokenDetailsService tokenDetailsService,
+                                @Value("${reference.exchanges.ttl.ms:86400000}") long exchangesTtlMs,
+                                @Value("${reference.schedules.ttl.ms:3600000}") long schedulesTtlMs,
+                                @Value("${reference.assets.ttl.ms:86400000}") long assetsTtlMs) {
+        this.toolsService = toolsService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.exchanges = new TtlCache<>(Duration.ofMillis(exchangesTtlMs), true);
+        this.schedules = new TtlCache<>(Duration.ofMillis(schedulesTtlMs), true);
+        this.assets = new TtlCache<>(Duration.ofMillis(assetsTtlMs), true);
+    }
+
+    /**
+     * Список торговых площадок.
+     *
+     * @return перечень бирж из кэша
+     */
+    public Mono<ExchangesResponseDTO> getExchanges() {
+        return exchanges.get(EXCHANGES_KEY, key -> toolsService.getExchanges().mapNotNull(ResponseEntity::getBody));
+    }
+
+    /**
+     * Расписание торгов по инструменту.
+     *
+     * @param symbol символ финансового инструмента
+     * @return расписание торгов из кэша
+     */
+    public Mono<ScheduleResponseDTO> getSchedule(String symbol) {
+        return schedules.get(symbol, key -> toolsService.getSchedule(key).mapNotNull(ResponseEntity::getBody));
+    }
+
+    /**
+     * Информация о финансовом инструменте.
+     *
+     * @param symbol    символ финансового инструмента
+     * @param accountId уникальный идентификатор аккаунта
+     * @return информация об инструменте из кэша
+     */
+    public Mono<GetAssetResponseDTO> getAsset(String symbol, String accountId) {
+        return assets.get(new AssetKey(symbol, accountId),
+                key -> toolsService.getAsset(key.symbol(), key.accountId()).mapNotNull(ResponseEntity::getBody));
+    }
+
+    /**
+     * Параллельный прогрев кэшей: список бирж, а также расписания и параметры инструментов из reference.warmup.symbols.
+     * Каждая загрузка повторяется с экспоненциальной задержкой, так как на старте JWT-токен может быть ещё не получен.
+     * Ошибка отдельной загрузки не прерывает прогрев остальных данных.
+     *
+     * @return количество успешно загруженных записей
+     */
+    public Mono<Long> warmUp() {
+        List<String> symbols = warmupSymbols.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        log.info("Warming up reference data cache: exchanges and {} symbols", symbols.size());
+
+        Flux<Object> exchangesWarmup = withRetry(getExchanges(), "exchanges").flux().cast(Object.class);
+
+        Flux<Object> schedulesWarmup = Flux.fromIterable(symbols)
+                .flatMap(symbol -> withRetry(getSchedule(symbol), "schedule " + symbol), warmupConcurrency)
+                .cast(Object.class);
+
+        Flux<Object> assetsWarmup = symbols.isEmpty() ? Flux.empty() : withRetry(tokenDetailsService.getAccountIds()
+                .filter(ids -> !ids.isEmpty())
+                .map(ids -> ids.get(0)), "account list")
+                .flatMapMany(accountId -> Flux.fromIterable(symbols)
+                        .flatMap(symbol -> withRetry(getAsset(symbol, accountId), "asset " + symbol), warmupConcurrency))
+                .cast(Object.class);
+
+        return Flux.merge(exchangesWarmup, schedulesWarmup, assetsWarmup).count();
+    }
+
+    /**
+     * Статистика кэшей справочных данных.
+     *
+     * @return статистика по каждому кэшу
+     */
+    public Map<String, CacheStatsDTO> getStats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        stats.put("exchanges", exchanges.stats("exchanges"));
+        stats.put("schedules", schedules.stats("schedules"));
+        stats.put("assets", assets.stats("assets"));
+        return stats;
+    }
+
+    private <T> Mono<T> withRetry(Mono<T> source, String description) {
+        return source
+                .retryWhen(Retry.backoff(warmupRetries, Duration.ofSeconds(1)))
+                .onErrorResume(e -> {
+                    log.warn("Failed to warm up {}: {}", description, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private record AssetKey(String symbol, String accountId) {
+    }
+}
@@ -0,0 +1,432 @@
+package finam.client.service;
+
+import finam.client.dto.AccountRiskDTO;
+import finam.client.dto.BarDTO;
+import finam.client.dto.CacheStatsDTO;
+import finam.client.dto.GetAccountResponseDTO;
+import finam.client.dto.PositionDTO;
+import finam.client.dto.RiskRequestDTO;
+import finam.client.dto.RiskResponseDTO;
+import finam.client.dto.ScenarioResultDTO;
+import finam.client.dto.StressScenarioDTO;
+import finam.client.dto.ValueObjectDTO;
+import finam.client.enums.TimeFrameEnum;
+import finam.client.util.TtlCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Сервис оценки рыночного риска портфеля методом исторического моделирования.
+ * Дневные доходности инструментов строятся по дневным барам и кэшируются ({@link TtlCache}), поэтому
+ * повторный расчёт не обращается к API за историей. Ряды доходностей выравниваются по общим датам,
+ * по ним строится распределение P&L портфеля, из которого берутся VaR и Expected Shortfall.
+ * Дополнительно рассчитываются пользовательские стресс-сценарии. Расчёт распараллеливается в {@link ForkJoinPool}:
+ * по счетам, по блокам исторических сценариев и по стресс-сценариям.
+ */
+@Service
+@Slf4j
+public class RiskService {
+
+    private static final int ROWS_PER_TASK = 128;
+
+    private final AccountService accountService;
+    private final TokenDetailsService tokenDetailsService;
+    private final MarketDataService marketDataService;
+
+    private final TtlCache<String, ReturnSeries> returns;
+    private final ForkJoinPool pool;
+
+    @Value("${risk.history.days:730}")
+    private int historyDays;
+
+    @Value("${risk.history.window.days:365}")
+    private int historyWindowDays;
+
+    @Value("${risk.confidence:0.99}")
+    private double defaultConfidence;
+
+    @Value("${risk.lookback.days:250}")
+    private int defaultLookbackDays;
+
+    @Value("${risk.concurrency:8}")
+    private int concurrency;
+
+    public RiskService(AccountService accountService,
+                       TokenDetailsService tokenDetailsService,
+                       MarketDataService marketDataService,
+                       @Value("${risk.returns.cache.ttl.ms:3600000}") long returnsTtlMs,
+                       @Value("${risk.parallelism:0}") int parallelism) {
+        this.accountService = accountService;
+        this.tokenDetailsService = tokenDetailsService;
+        this.marketDataService = marketDataService;
+        this.returns = new TtlCache<>(Duration.ofMillis(returnsTtlMs), true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Расчёт VaR, Expected Shortfall и стресс-сценариев по счетам.
+     *
+     * @param request счета (по умолчанию все счета токена), уровень доверия, глубина истории и стресс-сценарии
+     * @return риск по каждому счёту; ошибки загрузки отдельных счетов перечислены в errors
+     */
+    public Mono<RiskResponseDTO> calculate(RiskRequestDTO request) {
+        long startedAt = System.nanoTime();
+        double confidence = request.getConfidence() == null ? defaultConfidence : request.getConfidence();
+        int lookbackDays = request.getLookbackDays() == null ? defaultLookbackDays : request.getLookbackDays();
+        List<StressScenarioDTO> scenarios = request.getScenarios() == null ? List.of() : request.getScenarios();
+        if (!(confidence > 0 && confidence < 1)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "confidence must be in (0, 1)"));
+        }
+        if (lookbackDays <= 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "lookback_days must be positive"));
+        }
+
+        Mono<List<String>> accountIds = request.getAccountIds() == null || request.getAccountIds().isEmpty()
+                ? tokenDetailsService.getAccountIds()
+                : Mono.just(request.getAccountIds());
+
+        Map<String, String> errors = new TreeMap<>();
+        return accountIds
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(accountId -> accountService.getAccountInfo(accountId)
+                        .map(account -> new Book(accountId, exposures(account)))
+                        .onErrorResume(e -> {
+                            synchronized (errors) {
+                                errors.put(accountId, e.getMessage());
+                            }
+                            return Mono.empty();
+                        }), concurrency)
+                .collectList()
+                .flatMap(books -> loadReturns(books).map(series -> new RiskInput(books, series)))
+                .publishOn(Schedulers.boundedElastic())
+                .map(input -> pool.invoke(new PortfolioTask(input, confidence, lookbackDays, scenarios)))
+                .map(results -> RiskResponseDTO.builder()
+                        .results(results)
+                        .errors(errors)
+                        .elapsedMs((System.nanoTime() - startedAt) / 1_000_000)
+                        .build());
+    }
+
+    /**
+     * @return статистика кэша рядов доходностей
+     */
+    public CacheStatsDTO getCacheStats() {
+        return returns.stats("risk-returns");
+    }
+
+    private Mono<Map<String, ReturnSeries>> loadReturns(List<Book> books) {
+        TreeSet<String> symbols = new TreeSet<>();
+        books.forEach(book -> symbols.addAll(book.exposures().keySet()));
+        return Flux.fromIterable(symbols)
+                .flatMap(symbol -> returns.get(symbol, this::fetchReturns)
+                        .map(series -> Map.entry(symbol, series))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to load return history for symbol: {}: {}", symbol, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Загрузка дневных баров окнами по risk.history.window.days и расчёт простых дневных доходностей.
+     */
+    private Mono<ReturnSeries> fetchReturns(String symbol) {
+        LocalDate end = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+        LocalDate start = end.minusDays(historyDays);
+        int windows = (historyDays + historyWindowDays - 1) / historyWindowDays;
+
+        return Flux.range(0, windows)
+                .flatMapSequential(i -> {
+                    LocalDate from = start.plusDays((long) i * historyWindowDays);
+                    LocalDate to = from.plusDays(historyWindowDays).isAfter(end) ? end : from.plusDays(historyWindowDays);
+                    return marketDataService.getHistoricalBars(symbol, TimeFrameEnum.TIME_FRAME_D, from.toString(), to.toString());
+                }, concurrency)
+                .flatMapIterable(response -> response.getBars() == null ? List.<BarDTO>of() : response.getBars())
+                .collectList()
+                .map(ReturnSeries::fromBars);
+    }
+
+    private static Map<String, Double> exposures(GetAccountResponseDTO account) {
+        Map<String, Double> exposures = new LinkedHashMap<>();
+        if (account.getPositions() == null) {
+            return exposures;
+        }
+        for (PositionDTO position : account.getPositions()) {
+            double quantity = number(position.getQuantity());
+            double price = number(position.getCurrentPrice());
+            if (price == 0) {
+                price = number(position.getAveragePrice());
+            }
+            if (quantity != 0) {
+                exposures.merge(position.getSymbol(), quantity * price, Double::sum);
+            }
+        }
+        return exposures;
+    }
+
+    private static double number(ValueObjectDTO value) {
+        if (value == null || value.getValue() == null || value.getValue().isBlank()) {
+            return 0;
+        }
+        return Double.parseDouble(value.getValue().trim());
+    }
+
+    private record Book(String accountId, Map<String, Double> exposures) {
+    }
+
+    private record RiskInput(List<Book> books, Map<String, ReturnSeries> series) {
+    }
+
+    /**
+     * Ряд дневных доходностей инструмента с индексом по дате.
+     */
+    private record ReturnSeries(LocalDate[] dates, double[] returns, Map<LocalDate, Integer> index) {
+
+        static ReturnSeries fromBars(List<BarDTO> bars) {
+            TreeMap<LocalDate, Double> closes = new TreeMap<>();
+            bars.stream()
+                    .filter(bar -> bar.getTimestamp() != null && bar.getClose() != null)
+                    .sorted(Comparator.comparing(BarDTO::getTimestamp))
+                    .forEach(bar -> closes.put(bar.getTimestamp().atZoneSameInstant(ZoneOffset.UTC).toLocalDate(),
+                            number(bar.getClose())));
+
+            int size = Math.max(0, closes.size() - 1);
+            LocalDate[] dates = new LocalDate[size];
+            double[] values = new double[size];
+            Map<LocalDate, Integer> index = new HashMap<>(size * 2);
+            Double previous = null;
+            int i = 0;
+            for (Map.Entry<LocalDate, Double> entry : closes.entrySet()) {
+                if (previous != null) {
+                    dates[i] = entry.getKey();
+                    values[i] = previous == 0 ? 0 : entry.getValue() / previous - 1;
+                    index.put(entry.getKey(), i);
+                    i++;
+                }
+                previous = entry.getValue();
+            }
+            return new ReturnSeries(dates, values, index);
+        }
+    }
+
+    /**
+     * Расчёт риска по всем счетам: по задаче на счёт.
+     */
+    private final class PortfolioTask extends RecursiveTask<List<AccountRiskDTO>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RiskInput input;
+        private final double confidence;
+        private final int lookbackDays;
+        private final List<StressScenarioDTO> scenarios;
+
+        PortfolioTask(RiskInput input, double confidence, int lookbackDays, List<StressScenarioDTO> scenarios) {
+            this.input = input;
+            this.confidence = confidence;
+            this.lookbackDays = lookbackDays;
+            this.scenarios = scenarios;
+        }
+
+        @Override
+        protected List<AccountRiskDTO> compute() {
+            List<AccountTask> tasks = input.books().stream()
+                    .map(book -> new AccountTask(book, input.series(), confidence, lookbackDays, scenarios))
+                    .toList();
+            ForkJoinTask.invokeAll(tasks);
+            List<AccountRiskDTO> results = new ArrayList<>(tasks.size());
+            tasks.forEach(task -> results.add(task.join()));
+            return results;
+        }
+    }
+
+    /**
+     * Расчёт риска одного счёта: выравнивание рядов, вектор исторических P&L, VaR/ES и стресс-сценарии.
+     */
+    private static final class AccountTask extends RecursiveTask<AccountRiskDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Book book;
+        private final Map<String, ReturnSeries> series;
+        private final double confidence;
+        private final int lookbackDays;
+        private final List<StressScenarioDTO> scenarios;
+
+        AccountTask(Book book, Map<String, ReturnSeries> series, double confidence, int lookbackDays,
+                    List<StressScenarioDTO> scenarios) {
+            this.book = book;
+            this.series = series;
+            this.confidence = confidence;
+            this.lookbackDays = lookbackDays;
+            this.scenarios = scenarios;
+        }
+
+        @Override
+        protected AccountRiskDTO compute() {
+            List<String> symbols = new ArrayList<>();
+            List<String> missing = new ArrayList<>();
+            for (String symbol : book.exposures().keySet()) {
+                ReturnSeries s = series.get(symbol);
+                if (s == null || s.dates().length == 0) {
+                    missing.add(symbol);
+                } else {
+                    symbols.add(symbol);
+                }
+            }
+
+            LocalDate[] dates = commonDates(symbols);
+            int rows = dates.length;
+            int columns = symbols.size();
+            double[] exposure = new double[columns];
+            double[][] matrix = new double[columns][];
+            for (int j = 0; j < columns; j++) {
+                ReturnSeries s = series.get(symbols.get(j));
+                exposure[j] = book.exposures().get(symbols.get(j));
+                double[] column = new double[rows];
+                for (int i = 0; i < rows; i++) {
+                    column[i] = s.returns()[s.index().get(dates[i])];
+                }
+                matrix[j] = column;
+            }
+
+            double[] pnl = new double[rows];
+            List<ScenarioTask> stress = scenarios.stream().map(ScenarioTask::new).toList();
+            stress.forEach(ForkJoinTask::fork);
+            new PnlVectorTask(matrix, exposure, pnl, 0, rows).invoke();
+
+            double valueAtRisk = 0;
+            double expectedShortfall = 0;
+            if (rows > 0) {
+                double[] sorted = pnl.clone();
+                Arrays.sort(sorted);
+                int tail = Math.min(rows - 1, (int) Math.floor((1 - confidence) * rows));
+                valueAtRisk = -sorted[tail];
+                double sum = 0;
+                for (int i = 0; i <= tail; i++) {
+                    sum += sorted[i];
+                }
+                expectedShortfall = -sum / (tail + 1);
+            }
+
+            return AccountRiskDTO.builder()
+                    .accountId(book.accountId())
+                    .exposure(book.exposures().values().stream().mapToDouble(Double::doubleValue).sum())
+                    .confidence(confidence)
+                    .observations(rows)
+                    .valueAtRisk(valueAtRisk)
+                    .expectedShortfall(expectedShortfall)
+                    .missingSymbols(missing)
+                    .scenarios(stress.stream().map(ScenarioTask::join).toList())
+                    .build();
+        }
+
+        /**
+         * Общие даты всех рядов, не более lookbackDays последних.
+         */
+        private LocalDate[] commonDates(List<String> symbols) {
+            if (symbols.isEmpty()) {
+                return new LocalDate[0];
+            }
+            TreeSet<LocalDate> common = new TreeSet<>(Arrays.asList(series.get(symbols.get(0)).dates()));
+            for (int j = 1; j < symbols.size(); j++) {
+                common.retainAll(series.get(symbols.get(j)).index().keySet());
+            }
+            LocalDate[] all = common.toArray(new LocalDate[0]);
+            return Arrays.copyOfRange(all, Math.max(0, all.length - lookbackDays), all.length);
+        }
+
+        /**
+         * P&L стресс-сценария: сумма стоимостей позиций, умноженных на шок инструмента.
+         */
+        private final class ScenarioTask extends RecursiveTask<ScenarioResultDTO> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final StressScenarioDTO scenario;
+
+            ScenarioTask(StressScenarioDTO scenario) {
+                this.scenario = scenario;
+            }
+
+            @Override
+            protected ScenarioResultDTO compute() {
+                double defaultShock = scenario.getDefaultShock() == null ? 0 : scenario.getDefaultShock();
+                Map<String, Double> shocks = scenario.getShocks() == null ? Map.of() : scenario.getShocks();
+                double pnl = 0;
+                for (Map.Entry<String, Double> entry : book.exposures().entrySet()) {
+                    pnl += entry.getValue() * shocks.getOrDefault(entry.getKey(), defaultShock);
+                }
+                return ScenarioResultDTO.builder().name(scenario.getName()).pnl(pnl).build();
+            }
+        }
+    }
+
+    /**
+     * Вектор P&L портфеля по историческим сценариям: строки делятся пополам, пока блок больше {@value #ROWS_PER_TASK}.
+     */
+    private static final class PnlVectorTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] matrix;
+        private final double[] exposure;
+        private final double[] pnl;
+        private final int from;
+        private final int to;
+
+        PnlVectorTask(double[][] matrix, double[] exposure, double[] pnl, int from, int to) {
+            this.matrix = matrix;
+            this.exposure = exposure;
+            this.pnl = pnl;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                for (int j = 0; j < exposure.length; j++) {
+                    double[] column = matrix[j];
+                    double weight = exposure[j];
+                    for (int i = from; i < to; i++) {
+                        pnl[i] += weight * column[i];
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PnlVectorTask(matrix, exposure, pnl, from, middle),
+                    new PnlVectorTask(matrix, exposure, pnl, middle, to));
+        }
+    }
+}
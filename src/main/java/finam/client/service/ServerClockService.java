@@ -0,0 +1,251 @@
+package finam.client.service;
+
+import finam.client.dto.ClockResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Сервис оценки смещения локальных часов относительно серверного времени Finam.
+ * В фоне периодически опрашивает /v1/assets/clock, по NTP-схеме считает смещение относительно середины
+ * времени прохождения запроса (RTT), отбрасывает выбросы и оценивает дрейф линейной регрессией.
+ * Текущее серверное время затем вычисляется локально, без обращения к внешнему API.
+ */
+@Service
+@Slf4j
+public class ServerClockService {
+
+    private static final long NANOS_PER_MICRO = 1_000L;
+    private static final double RTT_FILTER_FACTOR = 1.5;
+    private static final double MAD_FILTER_FACTOR = 3.0;
+
+    private final WebClient authenticatedWebClient;
+
+    /**
+     * Опорная точка для перевода монотонного System.nanoTime() в наносекунды эпохи.
+     * Локальная шкала времени не подвержена скачкам системных часов, а её дрейф учитывается оценкой.
+     */
+    private final long baseEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    private final long baseMonotonicNanos = System.nanoTime();
+
+    private final Deque<ClockSample> window = new ArrayDeque<>();
+    private final AtomicReference<ClockEstimate> estimate = new AtomicReference<>();
+
+    @Value("${server.clock.samples.per.round:8}")
+    private int samplesPerRound;
+
+    @Value("${server.clock.window.size:64}")
+    private int windowSize;
+
+    @Value("${server.clock.max.age.ms:300000}")
+    private long maxAgeMs;
+
+    @Value("${server.clock.request.timeout.ms:5000}")
+    private long requestTimeoutMs;
+
+    public ServerClockService(@Qualifier("authenticatedWebClient") WebClient authenticatedWebClient) {
+        this.authenticatedWebClient = authenticatedWebClient;
+    }
+
+    /**
+     * Текущее серверное время, вычисленное по последней оценке смещения.
+     *
+     * @return серверное время с границей погрешности или пустой Optional, если оценки ещё нет или она устарела
+     */
+    public Optional<ClockResponseDTO> now() {
+        ClockEstimate current = estimate.get();
+        long localNanos = localEpochNanos();
+
+        if (current == null || localNanos - current.estimatedAtNanos() > TimeUnit.MILLISECONDS.toNanos(maxAgeMs)) {
+            return Optional.empty();
+        }
+
+        long serverNanos = localNanos + current.offsetAt(localNanos);
+        Instant serverTime = Instant.ofEpochSecond(0, serverNanos);
+
+        return Optional.of(ClockResponseDTO.builder()
+                .timestamp(serverTime.toString())
+                .errorBoundMicros(current.errorBoundNanos() / NANOS_PER_MICRO)
+                .build());
+    }
+
+    /**
+     * Периодический опрос серверных часов. За один раунд выполняется серия последовательных замеров,
+     * после чего оценка смещения и дрейфа пересчитывается по скользящему окну.
+     */
+    @Scheduled(fixedDelayString = "${server.clock.sample.interval.ms:60000}",
+            initialDelayString = "${server.clock.initial.delay.ms:10000}")
+    public void sampleServerClock() {
+        log.debug("Sampling server clock, {} requests per round", samplesPerRound);
+
+        Flux.range(0, samplesPerRound)
+                .concatMap(i -> takeSample().onErrorResume(e -> {
+                    log.warn("Server clock sample failed: {}", e.getMessage());
+                    return Mono.empty();
+                }))
+                .collectList()
+                .doOnNext(this::updateEstimate)
+                .onErrorResume(e -> {
+                    log.error("Server clock sampling round failed", e);
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    /**
+     * Одиночный замер: локальное время отправки, RTT и серверное время из ответа.
+     */
+    private Mono<ClockSample> takeSample() {
+        return Mono.defer(() -> {
+            long sentAt = System.nanoTime();
+            return authenticatedWebClient.get()
+                    .uri("/v1/assets/clock")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToMono(ClockResponseDTO.class)
+                    .timeout(Duration.ofMillis(requestTimeoutMs))
+                    .map(dto -> {
+                        long receivedAt = System.nanoTime();
+                        long rtt = receivedAt - sentAt;
+                        long localMidpoint = toEpochNanos(sentAt) + rtt / 2;
+                        Instant serverTime = Instant.parse(dto.getTimestamp());
+                        long serverNanos = TimeUnit.SECONDS.toNanos(serverTime.getEpochSecond()) + serverTime.getNano();
+                        return new ClockSample(localMidpoint, serverNanos - localMidpoint, rtt);
+                    });
+        });
+    }
+
+    /**
+     * Добавляет замеры раунда в окно и пересчитывает оценку.
+     * Фильтрация повторяет идею NTP: предпочтение отдаётся замерам с минимальным RTT,
+     * а выбросы по смещению отсекаются по медианному абсолютному отклонению.
+     *
+     * @param roundSamples замеры текущего раунда
+     */
+    private synchronized void updateEstimate(List<ClockSample> roundSamples) {
+        if (roundSamples.isEmpty()) {
+            log.warn("No server clock samples collected in this round, keeping previous estimate");
+            return;
+        }
+
+        window.addAll(roundSamples);
+        while (window.size() > windowSize) {
+            window.pollFirst();
+        }
+
+        List<ClockSample> filtered = filter(new ArrayList<>(window));
+        ClockEstimate next = fit(filtered);
+        estimate.set(next);
+
+        log.info("Server clock estimate updated: offset={}us, drift={}ppm, errorBound={}us, samples={}/{}",
+                next.offsetNanos() / NANOS_PER_MICRO, String.format("%.3f", next.drift() * 1e6),
+                next.errorBoundNanos() / NANOS_PER_MICRO, filtered.size(), window.size());
+    }
+
+    private List<ClockSample> filter(List<ClockSample> samples) {
+        long minRtt = samples.stream().mapToLong(ClockSample::rttNanos).min().orElse(0L);
+        List<ClockSample> fast = samples.stream()
+                .filter(s -> s.rttNanos() <= minRtt * RTT_FILTER_FACTOR)
+                .toList();
+
+        double median = median(fast.stream().mapToDouble(ClockSample::offsetNanos).toArray());
+        double mad = median(fast.stream().mapToDouble(s -> Math.abs(s.offsetNanos() - median)).toArray());
+        if (mad == 0) {
+            return fast;
+        }
+
+        List<ClockSample> result = fast.stream()
+                .filter(s -> Math.abs(s.offsetNanos() - median) <= MAD_FILTER_FACTOR * mad)
+                .toList();
+        return result.isEmpty() ? fast : result;
+    }
+
+    /**
+     * Линейная регрессия смещения по локальному времени: свободный член - смещение, наклон - дрейф.
+     * Граница погрешности складывается из половины минимального RTT и максимального остатка регрессии.
+     */
+    private ClockEstimate fit(List<ClockSample> samples) {
+        long reference = samples.get(samples.size() - 1).localNanos();
+        long minRtt = samples.stream().mapToLong(ClockSample::rttNanos).min().orElse(0L);
+
+        double drift = 0;
+        double offset = samples.stream().mapToLong(ClockSample::offsetNanos).average().orElse(0);
+
+        if (samples.size() >= 3) {
+            double meanX = samples.stream().mapToDouble(s -> s.localNanos() - reference).average().orElse(0);
+            double meanY = offset;
+            double sxx = 0;
+            double sxy = 0;
+            for (ClockSample s : samples) {
+                double dx = (s.localNanos() - reference) - meanX;
+                sxx += dx * dx;
+                sxy += dx * (s.offsetNanos() - meanY);
+            }
+            if (sxx > 0) {
+                drift = sxy / sxx;
+                offset = meanY - drift * meanX;
+            }
+        }
+
+        double maxResidual = 0;
+        for (ClockSample s : samples) {
+            double predicted = offset + drift * (s.localNanos() - reference);
+            maxResidual = Math.max(maxResidual, Math.abs(s.offsetNanos() - predicted));
+        }
+
+        return new ClockEstimate(reference, Math.round(offset), drift,
+                minRtt / 2 + Math.round(maxResidual), localEpochNanos());
+    }
+
+    private static double median(double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 0 ? (sorted[middle - 1] + sorted[middle]) / 2 : sorted[middle];
+    }
+
+    private long localEpochNanos() {
+        return toEpochNanos(System.nanoTime());
+    }
+
+    private long toEpochNanos(long monotonicNanos) {
+        return baseEpochNanos + (monotonicNanos - baseMonotonicNanos);
+    }
+
+    /**
+     * Замер смещения: локальная середина интервала запроса, смещение сервера относительно неё и RTT (в наносекундах).
+     */
+    private record ClockSample(long localNanos, long offsetNanos, long rttNanos) {
+    }
+
+    /**
+     * Оценка часов: смещение в опорной точке, дрейф (нс/нс) и граница погрешности.
+     */
+    private record ClockEstimate(long referenceNanos, long offsetNanos, double drift,
+                                 long errorBoundNanos, long estimatedAtNanos) {
+
+        long offsetAt(long localNanos) {
+            return offsetNanos + Math.round(drift * (localNanos - referenceNanos));
+        }
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 
 /**
  * Сервис для обработки операций с деталями токенов аутентификации.
@@ -48,4 +50,15 @@ public class TokenDetailsService {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Метод возвращает список идентификаторов аккаунтов, доступных текущему токену.
+     *
+     * @return Поток ({@code Mono}) со списком идентификаторов аккаунтов
+     */
+    public Mono<List<String>> getAccountIds() {
+        return Mono.defer(this::getTokenDetails)
+                .mapNotNull(TokenDetailsResponseDTO::getAccountIds)
+                .defaultIfEmpty(List.of());
+    }
 }
\ No newline at end of file
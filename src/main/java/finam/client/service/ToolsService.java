@@ -1,6 +1,7 @@
 package finam.client.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import finam.client.component.JsonStreamDecoder;
+import finam.client.dto.AssetsDTO;
 import finam.client.dto.AssetsResponseDTO;
 import finam.client.dto.ClockResponseDTO;
 import finam.client.dto.ExchangesResponseDTO;
@@ -10,10 +11,13 @@ import finam.client.dto.OptionsChainResponseDTO;
 import finam.client.dto.ScheduleResponseDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
@@ -21,11 +25,14 @@ import reactor.core.publisher.Mono;
 public class ToolsService {
 
     private final WebClient authenticatedWebClient;
-    private final ObjectMapper objectMapper;
+    private final JsonStreamDecoder jsonStreamDecoder;
+    private final ServerClockService serverClockService;
 
-    public ToolsService(@Qualifier("authenticatedWebClient") WebClient authenticatedWebClient, ObjectMapper objectMapper) {
+    public ToolsService(@Qualifier("authenticatedWebClient") WebClient authenticatedWebClient,
+                        JsonStreamDecoder jsonStreamDecoder, ServerClockService serverClockService) {
         this.authenticatedWebClient = authenticatedWebClient;
-        this.objectMapper = objectMapper;
+        this.jsonStreamDecoder = jsonStreamDecoder;
+        this.serverClockService = serverClockService;
     }
 
     /**
@@ -34,45 +41,63 @@ public class ToolsService {
      * @return объект-обертка с полным списком активов
      */
     public Mono<ResponseEntity<AssetsResponseDTO>> getAssets() {
+        return streamAssets()
+                .collectList()
+                .map(assets -> ResponseEntity.ok(new AssetsResponseDTO(assets)));
+    }
+
+    /**
+     * Метод для потокового получения списка финансовых инструментов (активов).
+     * Элементы декодируются по мере поступления байтов ответа, без буферизации всего списка.
+     *
+     * @return поток активов
+     */
+    public Flux<AssetsDTO> streamAssets() {
         log.info("Fetching assets list");
         return authenticatedWebClient.get()
                 .uri("https://api.finam.ru/v1/assets")
                 .accept(MediaType.APPLICATION_JSON)
-                .exchangeToMono(clientResponse -> {
-                    if (!clientResponse.statusCode().is2xxSuccessful()) {
-                        return clientResponse.bodyToMono(String.class)
-                                .flatMap(text -> {
-                                    log.error("Error fetching assets: Status={}, Body={}",
-                                            clientResponse.statusCode(), text);
-                                    return Mono.error(new RuntimeException("Error fetching assets: " +
-                                            clientResponse.statusCode() + ": " + text));
-                                });
-                    }
-                    return clientResponse.bodyToMono(AssetsResponseDTO.class)
-                            .map(dto -> ResponseEntity.status(clientResponse.statusCode()).body(dto));
-                });
+                .retrieve()
+                .onStatus(status -> !status.is2xxSuccessful(), clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty("")
+                        .flatMap(text -> {
+                            log.error("Error fetching assets: Status={}, Body={}",
+                                    clientResponse.statusCode(), text);
+                            return Mono.error(new RuntimeException("Error fetching assets: " +
+                                    clientResponse.statusCode() + ": " + text));
+                        }))
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decodeArrayField(body, "assets", AssetsDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to AssetsDTO", ex));
     }
 
     /**
-     * Метод для получения текущего серверного времени от API Finam.
+     * Метод для получения текущего серверного времени.
+     * Время вычисляется локально по оценке смещения часов из {@link ServerClockService};
+     * если оценки ещё нет или она устарела, выполняется прямой запрос к API Finam.
      *
      * @return объект-обертка с информацией о серверном времени
      */
     public Mono<ResponseEntity<ClockResponseDTO>> getServerTime() {
+        return serverClockService.now()
+                .map(dto -> Mono.just(ResponseEntity.ok(dto)))
+                .orElseGet(this::fetchServerTime);
+    }
+
+    /**
+     * Метод для получения текущего серверного времени от API Finam.
+     *
+     * @return объект-обертка с информацией о серверном времени
+     */
+    private Mono<ResponseEntity<ClockResponseDTO>> fetchServerTime() {
         log.info("Fetching server time");
         return authenticatedWebClient.get()
                 .uri("https://api.finam.ru/v1/assets/clock")
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        ClockResponseDTO clockResponseDTO = objectMapper.readValue(json, ClockResponseDTO.class);
-                        return Mono.just(ResponseEntity.ok(clockResponseDTO));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to ClockResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, ClockResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to ClockResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 
     /**
@@ -89,16 +114,10 @@ public class ToolsService {
                         .queryParam("account_id", accountId).build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        GetAssetResponseDTO dto = objectMapper.readValue(json, GetAssetResponseDTO.class);
-                        return Mono.just(ResponseEntity.ok(dto));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to GetAssetResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, GetAssetResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to GetAssetResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 
     /**
@@ -111,16 +130,10 @@ public class ToolsService {
         return authenticatedWebClient.get()
                 .uri("https://api.finam.ru/v1/exchanges")
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        ExchangesResponseDTO dto = objectMapper.readValue(json, ExchangesResponseDTO.class);
-                        return Mono.just(ResponseEntity.ok(dto));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to ExchangesResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, ExchangesResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to ExchangesResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 
     /**
@@ -137,16 +150,10 @@ public class ToolsService {
                         .queryParam("account_id", accountId).build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        GetAssetParamsResponseDTO dto = objectMapper.readValue(json, GetAssetParamsResponseDTO.class); // Десериализация
-                        return Mono.just(ResponseEntity.ok(dto));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to GetAssetParamsResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, GetAssetParamsResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to GetAssetParamsResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 
     /**
@@ -161,16 +168,10 @@ public class ToolsService {
                 .uri(uriBuilder -> uriBuilder.path("/v1/assets/" + underlyingSymbol + "/options").build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        OptionsChainResponseDTO dto = objectMapper.readValue(json, OptionsChainResponseDTO.class); // Десериализация
-                        return Mono.just(ResponseEntity.ok(dto));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to OptionsChainResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, OptionsChainResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to OptionsChainResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 
     /**
@@ -185,15 +186,9 @@ public class ToolsService {
                 .uri(uriBuilder -> uriBuilder.path("/v1/assets/" + symbol + "/schedule").build())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(json -> {
-                    try {
-                        ScheduleResponseDTO dto = objectMapper.readValue(json, ScheduleResponseDTO.class);
-                        return Mono.just(ResponseEntity.ok(dto));
-                    } catch (Exception ex) {
-                        log.error("Error parsing JSON to ScheduleResponseDTO", ex);
-                        return Mono.error(ex);
-                    }
-                });
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> jsonStreamDecoder.decode(body, ScheduleResponseDTO.class))
+                .doOnError(DecodingException.class, ex -> log.error("Error parsing JSON to ScheduleResponseDTO", ex))
+                .map(ResponseEntity::ok);
     }
 }
\ No newline at end of file
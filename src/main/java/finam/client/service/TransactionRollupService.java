@@ -0,0 +1,194 @@
+package finam.client.service;
+
+import finam.client.dto.CashItemDTO;
+import finam.client.dto.TransactionDTO;
+import finam.client.dto.TransactionRollupDTO;
+import finam.client.enums.RollupPeriodEnum;
+import finam.client.enums.TransactionCategoryEnum;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Сервис агрегатов транзакций по категориям. Для каждой комбинации (счёт, категория, валюта, период)
+ * поддерживаются суммы по дням, месяцам и годам. Суммы хранятся точно: целые единицы и нано-доли
+ * отдельно, как в {@link CashItemDTO}. Агрегаты строятся при старте из локального журнала транзакций
+ * и далее обновляются по потоку новых транзакций журнала, так что отчёт сводится к чтению готовых сумм.
+ */
+@Service
+@Slf4j
+public class TransactionRollupService {
+
+    private final AccountJournalService accountJournalService;
+    private final ZoneId zone;
+
+    private final Map<SeriesKey, TreeMap<LocalDate, Bucket>> series = new HashMap<>();
+    private final Map<String, Set<String>> processed = new HashMap<>();
+    private Disposable subscription;
+
+    public TransactionRollupService(AccountJournalService accountJournalService,
+                                    @Value("${reports.zone:UTC}") String zone) {
+        this.accountJournalService = accountJournalService;
+        this.zone = ZoneId.of(zone);
+    }
+
+    /**
+     * Подписка на новые транзакции журнала и построение агрегатов по уже сохранённой истории.
+     */
+    @PostConstruct
+    public void init() {
+        subscription = accountJournalService.transactionUpdates()
+                .subscribe(entry -> onTransaction(entry.accountId(), entry.record()),
+                        e -> log.error("Transaction rollup stream terminated", e));
+
+        for (String accountId : accountJournalService.getJournaledAccounts()) {
+            List<TransactionDTO> history = accountJournalService.getAllTransactions(accountId);
+            history.forEach(transaction -> onTransaction(accountId, transaction));
+            log.info("Transaction rollups restored for account ID: {} from {} transactions", accountId, history.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Учитывает транзакцию во всех периодах. Повторно переданная транзакция игнорируется.
+     *
+     * @param accountId   уникальный идентификатор аккаунта
+     * @param transaction транзакция
+     */
+    public synchronized void onTransaction(String accountId, TransactionDTO transaction) {
+        CashItemDTO change = transaction.getChange();
+        if (transaction.getId() == null || transaction.getTimestamp() == null || change == null) {
+            return;
+        }
+        if (!processed.computeIfAbsent(accountId, id -> new HashSet<>()).add(transaction.getId())) {
+            return;
+        }
+        TransactionCategoryEnum category = transaction.getTransactionCategory() == null
+                ? TransactionCategoryEnum.OTHERS : transaction.getTransactionCategory();
+        String currency = change.getCurrencyCode() == null ? "" : change.getCurrencyCode();
+        long units = change.getUnits() == null ? 0 : change.getUnits();
+        int nanos = change.getNanos() == null ? 0 : change.getNanos();
+        LocalDate date = transaction.getTimestamp().atZoneSameInstant(zone).toLocalDate();
+
+        for (RollupPeriodEnum period : RollupPeriodEnum.values()) {
+            series.computeIfAbsent(new SeriesKey(accountId, category, currency, period), key -> new TreeMap<>())
+                    .computeIfAbsent(period.bucketStart(date), bucket -> new Bucket())
+                    .add(units, nanos);
+        }
+    }
+
+    /**
+     * Агрегаты за интервал дат [from, to).
+     *
+     * @param period        период агрегирования
+     * @param from          начальная дата включительно
+     * @param to            конечная дата не включительно
+     * @param accountId     счёт; null для всех счетов
+     * @param category      категория; null для всех категорий
+     * @param currency      код валюты; null для всех валют
+     * @param mergeAccounts суммировать ли агрегаты разных счетов
+     * @return агрегаты, упорядоченные по периоду, счёту, категории и валюте
+     */
+    public synchronized List<TransactionRollupDTO> getRollups(RollupPeriodEnum period, LocalDate from, LocalDate to,
+                                                              String accountId, TransactionCategoryEnum category,
+                                                              String currency, boolean mergeAccounts) {
+        LocalDate firstBucket = period.bucketStart(from);
+        Map<SeriesKey, TreeMap<LocalDate, Bucket>> selected = new HashMap<>();
+
+        for (Map.Entry<SeriesKey, TreeMap<LocalDate, Bucket>> entry : series.entrySet()) {
+            SeriesKey key = entry.getKey();
+            if (key.period() != period
+                    || (accountId != null && !accountId.equals(key.accountId()))
+                    || (category != null && category != key.category())
+                    || (currency != null && !currency.equals(key.currency()))) {
+                continue;
+            }
+            SeriesKey target = mergeAccounts ? new SeriesKey(null, key.category(), key.currency(), period) : key;
+            TreeMap<LocalDate, Bucket> merged = selected.computeIfAbsent(target, k -> new TreeMap<>());
+            entry.getValue().subMap(firstBucket, true, to, false)
+                    .forEach((bucket, sum) -> merged.computeIfAbsent(bucket, b -> new Bucket()).merge(sum));
+        }
+
+        List<TransactionRollupDTO> result = new ArrayList<>();
+        selected.forEach((key, buckets) -> buckets.forEach((bucket, sum) -> result.add(TransactionRollupDTO.builder()
+                .accountId(key.accountId())
+                .category(key.category())
+                .period(period)
+                .bucket(bucket.toString())
+                .amount(CashItemDTO.builder()
+                        .currencyCode(key.currency())
+                        .units(sum.units)
+                        .nanos((int) sum.nanos)
+                        .build())
+                .count(sum.count)
+                .build())));
+        result.sort(Comparator.comparing(TransactionRollupDTO::getBucket)
+                .thenComparing(rollup -> rollup.getAccountId() == null ? "" : rollup.getAccountId())
+                .thenComparing(TransactionRollupDTO::getCategory)
+                .thenComparing(rollup -> rollup.getAmount().getCurrencyCode()));
+        return result;
+    }
+
+    private record SeriesKey(String accountId, TransactionCategoryEnum category, String currency,
+                             RollupPeriodEnum period) {
+    }
+
+    /**
+     * Точная сумма в формате единиц и нано-долей: |nanos| < 10^9, знак nanos совпадает со знаком units.
+     */
+    private static final class Bucket {
+
+        private static final long NANOS_PER_UNIT = 1_000_000_000L;
+
+        private long units;
+        private long nanos;
+        private long count;
+
+        void add(long addUnits, long addNanos) {
+            units = Math.addExact(units, addUnits);
+            nanos += addNanos;
+            count++;
+            normalize();
+        }
+
+        void merge(Bucket other) {
+            units = Math.addExact(units, other.units);
+            nanos += other.nanos;
+            count += other.count;
+            normalize();
+        }
+
+        private void normalize() {
+            long carry = nanos / NANOS_PER_UNIT;
+            units = Math.addExact(units, carry);
+            nanos -= carry * NANOS_PER_UNIT;
+            if (units > 0 && nanos < 0) {
+                units--;
+                nanos += NANOS_PER_UNIT;
+            } else if (units < 0 && nanos > 0) {
+                units++;
+                nanos -= NANOS_PER_UNIT;
+            }
+        }
+    }
+}
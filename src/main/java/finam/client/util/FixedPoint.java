@@ -0,0 +1,80 @@
+package finam.client.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Арифметика с фиксированной точкой: значения хранятся в long с масштабом {@value #SCALE} знаков после запятой.
+ * Сложение и вычитание выполняются точно, произведение округляется до масштаба по правилу HALF_UP.
+ * Если промежуточное произведение не помещается в long, вычисление выполняется через {@link BigInteger}.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 6;
+    public static final long ONE = 1_000_000L;
+
+    private static final BigInteger BIG_ONE = BigInteger.valueOf(ONE);
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Разбор десятичной строки, например значения ValueObjectDTO.
+     *
+     * @param value десятичное число в виде строки
+     * @return значение с фиксированной точкой
+     * @throws ArithmeticException если значение не помещается в long
+     */
+    public static long parse(String value) {
+        return new BigDecimal(value.trim()).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * @return десятичная строка без незначащих нулей
+     */
+    public static String format(long value) {
+        return toBigDecimal(value).stripTrailingZeros().toPlainString();
+    }
+
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    /**
+     * Произведение двух значений с фиксированной точкой.
+     *
+     * @throws ArithmeticException если результат не помещается в long
+     */
+    public static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return rescale(low);
+        }
+        BigInteger[] division = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divideAndRemainder(BIG_ONE);
+        BigInteger quotient = division[0];
+        if (division[1].abs().shiftLeft(1).compareTo(BIG_ONE) >= 0) {
+            quotient = quotient.add(BigInteger.valueOf(division[1].signum()));
+        }
+        return quotient.longValueExact();
+    }
+
+    /**
+     * Частное двух значений с фиксированной точкой, округлённое по правилу HALF_UP.
+     */
+    public static long divide(long a, long b) {
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(ONE))
+                .divide(BigDecimal.valueOf(b), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    private static long rescale(long product) {
+        long quotient = product / ONE;
+        long remainder = product % ONE;
+        if (Math.abs(remainder) * 2 >= ONE) {
+            quotient += Long.signum(remainder);
+        }
+        return quotient;
+    }
+}
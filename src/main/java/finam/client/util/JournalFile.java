@@ -0,0 +1,296 @@
+package finam.client.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Журнал записей в файле формата NDJSON, только на добавление.
+ * Для выборки по времени поддерживается разреженный индекс: каждые {@value #INDEX_STRIDE} записей запоминаются
+ * смещение в файле и максимальная метка времени всех предыдущих записей. Записи добавляются с перекрытием
+ * не больше overlap относительно последней метки, поэтому чтение начинается с найденной точки индекса
+ * и прекращается, как только максимум меток превысит правую границу на величину перекрытия.
+ *
+ * @param <T> тип записи
+ */
+public class JournalFile<T> {
+
+    private static final int INDEX_STRIDE = 64;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final Function<T, Instant> timestampExtractor;
+    private final Function<T, String> idExtractor;
+    private final Duration overlap;
+
+    private final List<long[]> index = new ArrayList<>();
+    private final Set<String> recentIds = new HashSet<>();
+    private final TreeMap<Instant, List<String>> recentIdsByTime = new TreeMap<>();
+
+    private FileChannel channel;
+    private long recordCount;
+    private Instant maxTimestamp;
+    private volatile long committedLength;
+
+    public JournalFile(Path path, ObjectMapper objectMapper, Class<T> type,
+                       Function<T, Instant> timestampExtractor, Function<T, String> idExtractor, Duration overlap) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.timestampExtractor = timestampExtractor;
+        this.idExtractor = idExtractor;
+        this.overlap = overlap;
+    }
+
+    /**
+     * Открывает файл журнала и строит индекс по уже записанным данным.
+     * Неполная последняя строка (например, после аварийного завершения) отбрасывается.
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long[] validLength = {0};
+        scan(0, channel.size(), (offset, end, record) -> {
+            register(offset, record);
+            validLength[0] = end;
+            return true;
+        });
+
+        if (validLength[0] < channel.size()) {
+            channel.truncate(validLength[0]);
+        }
+        channel.position(validLength[0]);
+        committedLength = validLength[0];
+    }
+
+    /**
+     * Добавляет записи в журнал. Записи, уже присутствующие в окне перекрытия, и записи старше окна
+     * перекрытия отбрасываются. Данные сбрасываются на диск до возврата из метода.
+     *
+     * @param records новые записи
+     * @return записи, фактически добавленные в журнал, в порядке времени
+     */
+    public synchronized List<T> append(List<T> records) throws IOException {
+        Instant lowerBound = maxTimestamp == null ? null : maxTimestamp.minus(overlap);
+
+        List<T> accepted = new ArrayList<>();
+        Set<String> batchIds = new HashSet<>();
+        for (T record : records) {
+            Instant timestamp = timestampExtractor.apply(record);
+            String id = idExtractor.apply(record);
+            if (timestamp == null || id == null || recentIds.contains(id) || !batchIds.add(id)) {
+                continue;
+            }
+            if (lowerBound != null && timestamp.isBefore(lowerBound)) {
+                continue;
+            }
+            accepted.add(record);
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+        accepted.sort(Comparator.comparing(timestampExtractor));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Long> offsets = new ArrayList<>(accepted.size());
+        long offset = committedLength;
+        for (T record : accepted) {
+            byte[] line = objectMapper.writeValueAsBytes(record);
+            offsets.add(offset);
+            out.write(line);
+            out.write('\n');
+            offset += line.length + 1;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            register(offsets.get(i), accepted.get(i));
+        }
+        committedLength = offset;
+        return accepted;
+    }
+
+    /**
+     * Выборка записей с меткой времени в интервале [from, to).
+     *
+     * @param from начало интервала включительно
+     * @param to   конец интервала не включительно
+     * @return записи интервала в порядке их хранения в журнале
+     */
+    public List<T> read(Instant from, Instant to) throws IOException {
+        long start;
+        long end;
+        synchronized (this) {
+            start = startOffset(from);
+            end = committedLength;
+        }
+
+        Instant stopAfter = to.plus(overlap);
+        List<T> result = new ArrayList<>();
+        Instant[] runningMax = {null};
+
+        scan(start, end, (offset, lineEnd, record) -> {
+            Instant timestamp = timestampExtractor.apply(record);
+            if (runningMax[0] == null || timestamp.isAfter(runningMax[0])) {
+                runningMax[0] = timestamp;
+            }
+            if (!timestamp.isBefore(from) && timestamp.isBefore(to)) {
+                result.add(record);
+            }
+            return !runningMax[0].isAfter(stopAfter);
+        });
+        return result;
+    }
+
+    /**
+     * Чтение всех записей журнала в порядке их хранения.
+     *
+     * @return все записи журнала
+     */
+    public List<T> readAll() throws IOException {
+        long end;
+        synchronized (this) {
+            end = committedLength;
+        }
+        List<T> result = new ArrayList<>();
+        scan(0, end, (offset, lineEnd, record) -> result.add(record));
+        return result;
+    }
+
+    /**
+     * @return максимальная метка времени записей журнала
+     */
+    public synchronized Optional<Instant> lastTimestamp() {
+        return Optional.ofNullable(maxTimestamp);
+    }
+
+    /**
+     * @return количество записей в журнале
+     */
+    public synchronized long size() {
+        return recordCount;
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void register(long offset, T record) {
+        Instant timestamp = timestampExtractor.apply(record);
+        if (recordCount % INDEX_STRIDE == 0) {
+            long maxBefore = maxTimestamp == null ? Long.MIN_VALUE : toIndexKey(maxTimestamp);
+            index.add(new long[]{offset, maxBefore});
+        }
+        recordCount++;
+        if (maxTimestamp == null || timestamp.isAfter(maxTimestamp)) {
+            maxTimestamp = timestamp;
+        }
+
+        String id = idExtractor.apply(record);
+        recentIds.add(id);
+        recentIdsByTime.computeIfAbsent(timestamp, t -> new ArrayList<>()).add(id);
+
+        Instant evictBefore = maxTimestamp.minus(overlap).minus(overlap);
+        while (!recentIdsByTime.isEmpty() && recentIdsByTime.firstKey().isBefore(evictBefore)) {
+            Map.Entry<Instant, List<String>> oldest = recentIdsByTime.pollFirstEntry();
+            oldest.getValue().forEach(recentIds::remove);
+        }
+    }
+
+    /**
+     * Смещение последней точки индекса, все записи до которой строго раньше from.
+     */
+    private long startOffset(Instant from) {
+        long key = toIndexKey(from);
+        int low = 0;
+        int high = index.size() - 1;
+        long offset = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long[] entry = index.get(middle);
+            if (entry[1] < key) {
+                offset = entry[0];
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return offset;
+    }
+
+    private static long toIndexKey(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    /**
+     * Последовательное чтение строк журнала в диапазоне [start, end) с разбором каждой строки.
+     */
+    private void scan(long start, long end, RecordVisitor<T> visitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = start;
+        long lineStart = start;
+
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                T record;
+                try {
+                    record = objectMapper.readValue(line.toByteArray(), type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Corrupted journal record at offset " + lineStart + " in " + path, e);
+                }
+                if (!visitor.visit(lineStart, position, record)) {
+                    return;
+                }
+                line.reset();
+                lineStart = position;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor<T> {
+        boolean visit(long offset, long end, T record) throws IOException;
+    }
+}
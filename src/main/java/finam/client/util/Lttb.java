@@ -0,0 +1,78 @@
+package finam.client.util;
+
+/**
+ * Прореживание временного ряда алгоритмом Largest-Triangle-Three-Buckets (LTTB).
+ * Ряд делится на равные корзины, и из каждой выбирается точка, образующая треугольник наибольшей площади
+ * с точкой, выбранной в предыдущей корзине, и средним значением следующей корзины. Первая и последняя
+ * точки сохраняются всегда. Форма графика при этом сохраняется значительно лучше, чем при равномерной выборке.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Индексы точек, сохраняемых при прореживании.
+     *
+     * @param x         координаты по оси времени, по возрастанию
+     * @param y         значения
+     * @param threshold максимальное число точек результата
+     * @return возрастающие индексы выбранных точек
+     */
+    public static int[] downsample(long[] x, long[] y, int threshold) {
+        int size = x.length;
+        if (size <= threshold) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            return firstAndLast(size, threshold);
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - averageX) * ((double) y[i] - y[a])
+                        - ((double) x[a] - x[i]) * (averageY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            selected[bucket + 1] = maxIndex;
+            a = maxIndex;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    private static int[] firstAndLast(int size, int threshold) {
+        if (threshold <= 0) {
+            return new int[0];
+        }
+        return threshold == 1 ? new int[]{size - 1} : new int[]{0, size - 1};
+    }
+}
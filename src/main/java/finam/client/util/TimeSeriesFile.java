@@ -0,0 +1,160 @@
+package finam.client.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Временной ряд в файле из записей фиксированной длины: метка времени в миллисекундах и заданное число
+ * значений long. Метки времени строго возрастают, поэтому поиск интервала выполняется двоичным поиском
+ * по номеру записи, а сам интервал читается через отображение файла в память.
+ * Запись одной точки сводится к записи {@code 8 * (columns + 1)} байт в конец файла.
+ */
+public class TimeSeriesFile {
+
+    private final Path path;
+    private final int columns;
+    private final int recordSize;
+    private final ByteBuffer writeBuffer;
+    private final ByteBuffer timestampBuffer = ByteBuffer.allocate(Long.BYTES);
+
+    private FileChannel channel;
+    private long count;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    public TimeSeriesFile(Path path, int columns) {
+        this.path = path;
+        this.columns = columns;
+        this.recordSize = Long.BYTES * (columns + 1);
+        this.writeBuffer = ByteBuffer.allocate(recordSize);
+    }
+
+    /**
+     * Открывает файл. Неполная последняя запись (например, после аварийного завершения) отбрасывается.
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size % recordSize != 0) {
+            size -= size % recordSize;
+            channel.truncate(size);
+        }
+        count = size / recordSize;
+        if (count > 0) {
+            lastTimestamp = timestampAt(count - 1);
+        }
+    }
+
+    /**
+     * Добавляет точку ряда.
+     *
+     * @param timestamp метка времени в миллисекундах
+     * @param values    значения, по одному на колонку
+     * @return false, если метка времени не больше последней записанной и точка отброшена
+     */
+    public synchronized boolean append(long timestamp, long... values) throws IOException {
+        if (values.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " values, got " + values.length);
+        }
+        if (timestamp <= lastTimestamp) {
+            return false;
+        }
+        writeBuffer.clear();
+        writeBuffer.putLong(timestamp);
+        for (long value : values) {
+            writeBuffer.putLong(value);
+        }
+        writeBuffer.flip();
+        long position = count * recordSize;
+        while (writeBuffer.hasRemaining()) {
+            position += channel.write(writeBuffer, position);
+        }
+        count++;
+        lastTimestamp = timestamp;
+        return true;
+    }
+
+    /**
+     * Чтение точек с меткой времени в интервале [from, to).
+     *
+     * @param from начало интервала в миллисекундах включительно
+     * @param to   конец интервала в миллисекундах не включительно
+     * @return точки интервала
+     */
+    public synchronized Rows read(long from, long to) throws IOException {
+        long first = lowerBound(from);
+        long last = lowerBound(to);
+        int size = (int) Math.max(0, last - first);
+        long[] timestamps = new long[size];
+        long[][] values = new long[columns][size];
+        if (size == 0) {
+            return new Rows(timestamps, values);
+        }
+
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, first * recordSize, (long) size * recordSize);
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = buffer.getLong();
+            for (int c = 0; c < columns; c++) {
+                values[c][i] = buffer.getLong();
+            }
+        }
+        return new Rows(timestamps, values);
+    }
+
+    /**
+     * @return количество точек в файле
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Номер первой записи с меткой времени не меньше timestamp.
+     */
+    private long lowerBound(long timestamp) throws IOException {
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (timestampAt(middle) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long timestampAt(long index) throws IOException {
+        timestampBuffer.clear();
+        long position = index * recordSize;
+        while (timestampBuffer.hasRemaining()) {
+            int read = channel.read(timestampBuffer, position + timestampBuffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of time series file " + path);
+            }
+        }
+        return timestampBuffer.getLong(0);
+    }
+
+    /**
+     * Точки ряда: метки времени и значения по колонкам.
+     */
+    public record Rows(long[] timestamps, long[][] values) {
+
+        public int size() {
+            return timestamps.length;
+        }
+    }
+}
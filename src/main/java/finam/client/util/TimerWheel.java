@@ -0,0 +1,141 @@
+package finam.client.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Хешированное колесо таймеров. Время делится на такты длительностью tick, а таймеры раскладываются по ячейкам
+ * колеса по номеру такта срабатывания; таймер с задержкой больше оборота колеса хранит число оставшихся оборотов.
+ * Постановка и отмена таймера выполняются за O(1) без блокировок, а рабочий поток на каждом такте просматривает
+ * только одну ячейку, поэтому стоимость обслуживания не зависит от общего числа таймеров.
+ * Точность срабатывания ограничена длительностью такта. Задачи выполняются в рабочем потоке колеса
+ * и не должны блокироваться.
+ */
+@Slf4j
+public class TimerWheel implements AutoCloseable {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] wheel;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param name  имя рабочего потока
+     * @param tick  длительность такта
+     * @param slots число ячеек колеса, округляется вверх до степени двойки
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(String name, Duration tick, int slots) {
+        int size = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+        this.tickNanos = Math.max(1_000_000, tick.toNanos());
+        this.mask = size - 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Ставит задачу на выполнение через указанную задержку.
+     *
+     * @param task  задача
+     * @param delay задержка; отрицательная задержка равносильна нулевой
+     * @return таймер, который можно отменить
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        long deadline = System.nanoTime() - startNanos + Math.max(0, delay.toNanos());
+        Timeout timeout = new Timeout(task, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Останавливает рабочий поток; невыполненные таймеры отбрасываются.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = deadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            transferPending();
+            expire(wheel[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            wheel[(int) (Math.max(calculated, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> slot, long deadline) {
+        Iterator<Timeout> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.cancelled) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                iterator.remove();
+                try {
+                    timeout.task.run();
+                } catch (Throwable e) {
+                    log.error("Timer task failed", e);
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Поставленный таймер.
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Отменяет таймер, если он ещё не сработал.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
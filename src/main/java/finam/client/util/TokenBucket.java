@@ -0,0 +1,64 @@
+package finam.client.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий ограничитель частоты по алгоритму GCRA (generic cell rate algorithm) — эквивалент
+ * корзины токенов, состояние которой хранится в одном {@link AtomicLong}: теоретическом времени
+ * следующего запроса. Получение разрешения сводится к одной операции compare-and-set.
+ * Доля резерва позволяет запросам низкого приоритета получать разрешение, только пока в корзине
+ * остаётся запас для более приоритетных запросов.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond средняя частота разрешений в секунду
+     * @param burst         ёмкость корзины: число разрешений, доступных одновременно
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - capacityNanos);
+    }
+
+    /**
+     * Попытка получить одно разрешение.
+     *
+     * @param reserve доля ёмкости от 0 до 1, которая должна остаться в корзине после получения разрешения
+     * @return 0, если разрешение получено, иначе время в наносекундах, через которое стоит повторить попытку
+     */
+    public long tryAcquire(double reserve) {
+        long limit = capacityNanos - (long) (capacityNanos * reserve);
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long used = next - now;
+            if (used > limit) {
+                return used - limit;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Возвращает в корзину разрешение, полученное, но не использованное.
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * @return число разрешений, доступных в данный момент
+     */
+    public double available() {
+        long used = Math.max(0, theoreticalArrival.get() - System.nanoTime());
+        return (double) (capacityNanos - used) / intervalNanos;
+    }
+}
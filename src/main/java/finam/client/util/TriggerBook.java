@@ -0,0 +1,83 @@
+package finam.client.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Книга ценовых триггеров одного инструмента. Триггеры на рост (цена ≥ уровня) и на падение (цена ≤ уровня)
+ * хранятся в двух деревьях, упорядоченных по уровню, поэтому сработавшие при новой цене триггеры находятся
+ * за O(log n) плюс их число, а проверка цены без срабатываний сводится к сравнению с ближайшим уровнем.
+ * Методы потокобезопасны.
+ *
+ * @param <T> значение, связанное с триггером
+ */
+public class TriggerBook<T> {
+
+    private final NavigableMap<Key, T> rising = new TreeMap<>();
+    private final NavigableMap<Key, T> falling = new TreeMap<>();
+    private long sequence;
+
+    /**
+     * Добавляет триггер.
+     *
+     * @param level  уровень цены в фиксированной точке {@link FixedPoint}
+     * @param rising true — срабатывает при цене не ниже уровня, false — при цене не выше уровня
+     * @param value  значение триггера
+     * @return ключ для снятия триггера
+     */
+    public synchronized Key add(long level, boolean rising, T value) {
+        Key key = new Key(level, rising, sequence++);
+        (rising ? this.rising : this.falling).put(key, value);
+        return key;
+    }
+
+    /**
+     * Снимает триггер.
+     *
+     * @return true, если триггер ещё не сработал и был снят
+     */
+    public synchronized boolean remove(Key key) {
+        return (key.rising() ? rising : falling).remove(key) != null;
+    }
+
+    /**
+     * Извлекает триггеры, сработавшие при цене price, в порядке пересечения уровней.
+     *
+     * @param price цена в фиксированной точке {@link FixedPoint}
+     * @return сработавшие триггеры; они удаляются из книги
+     */
+    public synchronized List<T> pollCrossed(long price) {
+        NavigableMap<Key, T> up = rising.headMap(new Key(price, true, Long.MAX_VALUE), true);
+        NavigableMap<Key, T> down = falling.tailMap(new Key(price, false, Long.MIN_VALUE), true).descendingMap();
+        if (up.isEmpty() && down.isEmpty()) {
+            return List.of();
+        }
+        List<T> crossed = new ArrayList<>(up.size() + down.size());
+        crossed.addAll(up.values());
+        crossed.addAll(down.values());
+        up.clear();
+        down.clear();
+        return crossed;
+    }
+
+    /**
+     * @return число триггеров в книге
+     */
+    public synchronized int size() {
+        return rising.size() + falling.size();
+    }
+
+    /**
+     * Ключ триггера: уровень и порядковый номер, различающий триггеры одного уровня.
+     */
+    public record Key(long level, boolean rising, long sequence) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int result = Long.compare(level, other.level);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package finam.client.util;
+
+import finam.client.dto.CacheStatsDTO;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасный кэш с ограниченным временем жизни записей.
+ * Одновременные запросы одного и того же ключа объединяются в одну загрузку,
+ * ошибки загрузки не кэшируются.
+ * В режиме stale-while-revalidate устаревшее значение возвращается сразу, а обновление
+ * выполняется в фоне; при ошибке обновления продолжает отдаваться последнее известное значение.
+ * При ограничении размера переполнение удаляет сначала устаревшие записи, а затем самые старые,
+ * так что после вытеснения в кэше остаётся не более 90% от максимального размера.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public class TtlCache<K, V> {
+
+    private final long ttlNanos;
+    private final boolean staleWhileRevalidate;
+    private final int maxSize;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, Mono<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    public TtlCache(Duration ttl) {
+        this(ttl, false);
+    }
+
+    public TtlCache(Duration ttl, boolean staleWhileRevalidate) {
+        this(ttl, staleWhileRevalidate, Integer.MAX_VALUE);
+    }
+
+    public TtlCache(Duration ttl, boolean staleWhileRevalidate, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Возвращает значение из кэша или загружает его, если запись отсутствует или устарела.
+     *
+     * @param key    ключ
+     * @param loader функция загрузки значения по ключу
+     * @return значение по ключу
+     */
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && !isExpired(entry)) {
+                hits.increment();
+                return Mono.just(entry.value());
+            }
+            if (entry != null && staleWhileRevalidate) {
+                staleHits.increment();
+                load(key, loader).subscribe(value -> { }, e -> { });
+                return Mono.just(entry.value());
+            }
+            misses.increment();
+            return load(key, loader);
+        });
+    }
+
+    /**
+     * Загружает значение заново, даже если в кэше есть актуальная запись. Одновременные перезагрузки
+     * и загрузки того же ключа объединяются.
+     *
+     * @param key    ключ
+     * @param loader функция загрузки значения по ключу
+     * @return новое значение по ключу
+     */
+    public Mono<V> reload(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> load(key, loader));
+    }
+
+    /**
+     * Возвращает актуальное значение без загрузки.
+     *
+     * @param key ключ
+     * @return значение, если оно есть в кэше и не устарело
+     */
+    public Optional<V> getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || isExpired(entry) ? Optional.empty() : Optional.of(entry.value());
+    }
+
+    /**
+     * Помещает значение в кэш, отсчёт времени жизни начинается заново.
+     */
+    public void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Удаляет запись по ключу.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+        loading.remove(key);
+    }
+
+    /**
+     * Удаляет все записи, ключи которых удовлетворяют условию.
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+        loading.keySet().removeIf(predicate);
+    }
+
+    /**
+     * Полностью очищает кэш.
+     */
+    public void invalidateAll() {
+        entries.clear();
+        loading.clear();
+    }
+
+    /**
+     * @return количество записей в кэше, включая устаревшие
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Статистика обращений к кэшу с момента создания.
+     *
+     * @param name имя кэша для отображения
+     * @return снимок счётчиков кэша
+     */
+    public CacheStatsDTO stats(String name) {
+        long hitCount = hits.sum();
+        long staleCount = staleHits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + staleCount + missCount;
+
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(entries.size())
+                .hits(hitCount)
+                .staleHits(staleCount)
+                .misses(missCount)
+                .loadSuccesses(loadSuccesses.sum())
+                .loadFailures(loadFailures.sum())
+                .hitRate(requests == 0 ? 0 : (double) (hitCount + staleCount) / requests)
+                .build();
+    }
+
+    private Mono<V> load(K key, Function<K, Mono<V>> loader) {
+        AtomicReference<Mono<V>> created = new AtomicReference<>();
+        return loading.computeIfAbsent(key, k -> {
+            Mono<V> mono = Mono.defer(() -> loader.apply(k))
+                    .doOnNext(value -> {
+                        loadSuccesses.increment();
+                        put(k, value);
+                    })
+                    .doOnError(e -> loadFailures.increment())
+                    .doFinally(signal -> loading.remove(k, created.get()))
+                    .cache();
+            created.set(mono);
+            return mono;
+        });
+    }
+
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+        entries.values().removeIf(this::isExpired);
+        int excess = entries.size() - (maxSize - maxSize / 10);
+        if (excess > 0) {
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().loadedAtNanos()))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return System.nanoTime() - entry.loadedAtNanos() > ttlNanos;
+    }
+
+    private record Entry<V>(V value, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,325 @@
+package finam.client.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Журнал упреждающей записи в файле формата NDJSON, только на добавление, с групповой фиксацией.
+ * Записи сериализуются в потоке вызывающего и ставятся в очередь; отдельный поток записи забирает из очереди всё
+ * накопившееся (до maxBatch записей), записывает одним вызовом и выполняет один fsync на всю пачку. Пока идёт fsync,
+ * в очереди собирается следующая пачка, поэтому при высокой частоте записей стоимость fsync делится между ними.
+ * Запись считается надёжной после завершения возвращённого {@link CompletableFuture}.
+ * Незавершённая последняя строка после аварийного завершения отбрасывается при открытии.
+ *
+ * @param <T> тип записи
+ */
+@Slf4j
+public class WriteAheadLog<T> implements AutoCloseable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder syncNanos = new LongAdder();
+
+    private FileChannel channel;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile long length;
+
+    /**
+     * @param path         путь к файлу журнала
+     * @param objectMapper сериализатор записей
+     * @param type         тип записи
+     * @param maxBatch     наибольшее число записей в одной фиксации
+     */
+    public WriteAheadLog(Path path, ObjectMapper objectMapper, Class<T> type, int maxBatch) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.maxBatch = Math.max(1, maxBatch);
+    }
+
+    /**
+     * Открывает журнал, читает зафиксированные записи и запускает поток записи.
+     * Незавершённая последняя строка, оставшаяся после аварийного завершения, отсекается; повреждённая запись
+     * в середине файла прерывает открытие, чтобы не потерять следующие за ней записи.
+     *
+     * @return записи журнала в порядке добавления
+     */
+    public synchronized List<T> open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        List<T> result = new ArrayList<>();
+        long valid;
+        try {
+            valid = scan(result);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (valid < channel.size()) {
+            log.warn("Truncating {} bytes of an unterminated record at the end of {}", channel.size() - valid, path);
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        channel.position(valid);
+        length = valid;
+
+        running = true;
+        writer = new Thread(this::run, "wal-writer-" + path.getFileName());
+        writer.setDaemon(true);
+        writer.start();
+        return result;
+    }
+
+    /**
+     * Ставит запись в очередь на фиксацию.
+     *
+     * @param record запись
+     * @return завершается после записи на диск и fsync
+     */
+    public CompletableFuture<Void> append(T record) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Write-ahead log " + path + " is closed"));
+            return future;
+        }
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(record);
+            queue.add(new Pending(line, future));
+        } catch (JsonProcessingException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Перезаписывает журнал только актуальными записями: они записываются во временный файл, который атомарно
+     * заменяет журнал. Поток записи на время замены приостанавливается; записи, поставленные в очередь
+     * во время замены, попадают в новый файл.
+     *
+     * @param live поставщик актуальных записей; вызывается при остановленном потоке записи
+     */
+    public synchronized void compact(Supplier<List<T>> live) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (T record : live.get()) {
+            out.write(objectMapper.writeValueAsBytes(record));
+            out.write('\n');
+        }
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(target, ByteBuffer.wrap(out.toByteArray()));
+            target.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        length = channel.size();
+        channel.position(length);
+    }
+
+    /**
+     * @return размер файла журнала в байтах
+     */
+    public long size() {
+        return length;
+    }
+
+    /**
+     * @return число зафиксированных записей с момента открытия
+     */
+    public long records() {
+        return records.sum();
+    }
+
+    /**
+     * @return число выполненных fsync с момента открытия
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return суммарное время записи и fsync в наносекундах
+     */
+    public long syncNanos() {
+        return syncNanos.sum();
+    }
+
+    /**
+     * Фиксирует записи, уже стоящие в очереди, и закрывает журнал.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        Pending rest;
+        while ((rest = queue.poll()) != null) {
+            rest.future.completeExceptionally(new IllegalStateException("Write-ahead log " + path + " is closed"));
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        int size = 0;
+        for (Pending pending : batch) {
+            size += pending.line.length + 1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (Pending pending : batch) {
+            buffer.put(pending.line).put((byte) '\n');
+        }
+        buffer.flip();
+        long started = System.nanoTime();
+        try {
+            synchronized (this) {
+                try {
+                    writeFully(channel, buffer);
+                    channel.force(false);
+                } catch (IOException e) {
+                    rollback();
+                    throw e;
+                }
+                length += size;
+            }
+        } catch (IOException e) {
+            log.error("Failed to commit {} records to {}", batch.size(), path, e);
+            batch.forEach(pending -> pending.future.completeExceptionally(new UncheckedIOException(e)));
+            return;
+        }
+        syncNanos.add(System.nanoTime() - started);
+        batches.increment();
+        records.add(batch.size());
+        batch.forEach(pending -> pending.future.complete(null));
+    }
+
+    /**
+     * Отбрасывает частично записанный пакет: файл обрезается до последней зафиксированной записи,
+     * чтобы следующий пакет не дописался после оборванной строки.
+     */
+    private void rollback() {
+        try {
+            channel.truncate(length);
+            channel.position(length);
+        } catch (IOException e) {
+            log.error("Failed to roll back {} to {} bytes after a failed write", path, length, e);
+        }
+    }
+
+    /**
+     * Чтение записей с начала файла. Незавершённая последняя строка считается оборванной записью
+     * и в длину корректной части не входит; неразбираемая завершённая строка означает повреждение файла.
+     *
+     * @return длина корректной части файла
+     * @throws IOException если файл повреждён
+     */
+    private long scan(List<T> result) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = 0;
+        long valid = 0;
+        long end = channel.size();
+        while (position < end) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                try {
+                    result.add(objectMapper.readValue(line.toByteArray(), type));
+                } catch (IOException e) {
+                    throw new IOException("Corrupted record at offset " + valid + " in " + path
+                            + "; refusing to open the log to avoid losing later records", e);
+                }
+                line.reset();
+                valid = position;
+            }
+        }
+        return valid;
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    /**
+     * Сброс каталога журнала на диск, чтобы переименование файла пережило сбой питания.
+     */
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            log.debug("Directory sync is not supported for {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record Pending(byte[] line, CompletableFuture<Void> future) {
+    }
+}